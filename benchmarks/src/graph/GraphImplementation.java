@@ -0,0 +1,55 @@
+package graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Every {@link Graph} implementation, built from the same generated graph.
+ */
+public enum GraphImplementation {
+    ADJ_LIST {
+        @Override
+        Graph<Integer> create(AdjListGraph<Integer> graph) {
+            return new AdjListGraph<>(graph);
+        }
+    },
+    CONCURRENT_ADJ_LIST {
+        @Override
+        Graph<Integer> create(AdjListGraph<Integer> graph) {
+            ConcurrentAdjListGraph<Integer> copy = new ConcurrentAdjListGraph<>();
+            for(Integer source : graph.vertices()) {
+                copy.add(source);
+                for(Map.Entry<Integer, Double> edge : graph.targets(source).entrySet())
+                    copy.set(source, edge.getKey(), edge.getValue());
+            }
+            return copy;
+        }
+    },
+    CSR {
+        @Override
+        Graph<Integer> create(AdjListGraph<Integer> graph) {
+            return graph.freeze();
+        }
+    },
+    MAPPED {
+        @Override
+        Graph<Integer> create(AdjListGraph<Integer> graph) throws IOException {
+            File file = File.createTempFile("graph", ".bin");
+            file.deleteOnExit();
+            MappedGraph.write(graph, LabelCodec.integers(), file);
+            return MappedGraph.load(file, LabelCodec.integers());
+        }
+    },
+    OFF_HEAP {
+        @Override
+        Graph<Integer> create(AdjListGraph<Integer> graph) {
+            return OffHeapGraph.of(graph);
+        }
+    };
+
+    /**
+     * @return a new graph of this implementation with the vertices and edges of graph
+     */
+    abstract Graph<Integer> create(AdjListGraph<Integer> graph) throws IOException;
+}
@@ -0,0 +1,118 @@
+package graph;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * set and remove on the mutable implementations. The read only ones throw
+ * UnsupportedOperationException and are left out.
+ *
+ * A removed vertex is put back with its edges after every call, outside of
+ * the measured time, so every call removes a vertex of the same graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MutationBenchmark {
+    private static final int UPDATES = 1 << 16;
+
+    @Param({"ADJ_LIST", "CONCURRENT_ADJ_LIST"})
+    public GraphImplementation implementation;
+
+    @Param({"RANDOM", "GRID", "POWER_LAW", "ROAD"})
+    public SyntheticGraphs.Shape shape;
+
+    @Param({"1000", "100000"})
+    public int vertices;
+
+    private AdjListGraph<Integer> generated;
+    private Graph<Integer> graph;
+    private final int[] sources = new int[UPDATES];
+    private final int[] targets = new int[UPDATES];
+    private final double[] weights = new double[UPDATES];
+    private int next;
+
+    @Setup
+    public void setup() {
+        generated = SyntheticGraphs.generate(shape, vertices, 1);
+        Random random = new Random(2);
+        int n = generated.vertices().size();
+        for(int i = 0; i < UPDATES; i++) {
+            sources[i] = random.nextInt(n);
+            targets[i] = random.nextInt(n);
+            weights[i] = 1 + random.nextInt(100);
+        }
+    }
+
+    /**
+     * Start every iteration from the generated graph, as set adds edges.
+     */
+    @Setup(Level.Iteration)
+    public void copy() throws IOException {
+        graph = implementation.create(generated);
+    }
+
+    /**
+     * The vertex removed by the next call, with its edges to put it back.
+     * Invocation level fixtures only for remove, which takes microseconds.
+     */
+    @State(Scope.Benchmark)
+    public static class Removal {
+        private Integer vertex;
+        private Map<Integer, Double> targets;
+        private Map<Integer, Double> sources;
+
+        @Setup(Level.Invocation)
+        public void next(MutationBenchmark benchmark) {
+            vertex = benchmark.sources[benchmark.nextUpdate()];
+            targets = new HashMap<>(benchmark.graph.targets(vertex));
+            Map<Integer, Double> in = benchmark.graph.sources(vertex);
+            sources = in == null ? new HashMap<>() : new HashMap<>(in);
+        }
+
+        @TearDown(Level.Invocation)
+        public void restore(MutationBenchmark benchmark) {
+            Graph<Integer> graph = benchmark.graph;
+            if(graph.add(vertex)) {
+                targets.forEach((target, weight) -> graph.set(vertex, target, weight));
+                sources.forEach((source, weight) -> graph.set(source, vertex, weight));
+            }
+        }
+    }
+
+    private int nextUpdate() {
+        next = (next + 1) & (UPDATES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public double set() {
+        int i = nextUpdate();
+        return graph.set(sources[i], targets[i], weights[i]);
+    }
+
+    @Benchmark
+    public boolean remove(Removal removal) {
+        return graph.remove(removal.vertex);
+    }
+}
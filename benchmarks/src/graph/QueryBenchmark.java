@@ -0,0 +1,81 @@
+package graph;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Traversals, shortest paths and spanning trees on every implementation,
+ * shape and size. The sample time mode gives the latency percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class QueryBenchmark {
+    private static final int SOURCES = 1024;
+
+    @Param({"ADJ_LIST", "CONCURRENT_ADJ_LIST", "CSR", "MAPPED", "OFF_HEAP"})
+    public GraphImplementation implementation;
+
+    @Param({"RANDOM", "GRID", "POWER_LAW", "ROAD"})
+    public SyntheticGraphs.Shape shape;
+
+    @Param({"1000", "100000"})
+    public int vertices;
+
+    private Graph<Integer> graph;
+    private final int[] sources = new int[SOURCES];
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        AdjListGraph<Integer> generated = SyntheticGraphs.generate(shape, vertices, 1);
+        graph = implementation.create(generated);
+        Random random = new Random(2);
+        int n = generated.vertices().size();
+        for(int i = 0; i < SOURCES; i++)
+            sources[i] = random.nextInt(n);
+    }
+
+    private Integer nextSource() {
+        next = (next + 1) & (SOURCES - 1);
+        return sources[next];
+    }
+
+    @Benchmark
+    public void dfs(Blackhole blackhole) {
+        graph.dfs(blackhole::consume);
+    }
+
+    @Benchmark
+    public void bfs(Blackhole blackhole) {
+        graph.bfs(blackhole::consume);
+    }
+
+    @Benchmark
+    public Object dijkstra() {
+        return graph.dijkstra(nextSource());
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public int minimumSpanningTree() {
+        return graph.minimumSpanningTree(v -> v);
+    }
+}
@@ -0,0 +1,90 @@
+package graph;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The repair of a {@link ShortestPathTree} after an edge update against a
+ * full Dijkstra after the same update. Updates change the weight of an
+ * existing edge, so the graphs keep their size across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ShortestPathTreeBenchmark {
+    private static final int UPDATES = 1 << 12;
+
+    @Param({"GRID", "ROAD"})
+    public SyntheticGraphs.Shape shape;
+
+    @Param({"10000", "90000"})
+    public int vertices;
+
+    // graph listened to by tree, and the same graph without a listener
+    private AdjListGraph<Integer> listened;
+    private AdjListGraph<Integer> plain;
+    private ShortestPathTree<Integer> tree;
+    private final int[] sources = new int[UPDATES];
+    private final int[] targets = new int[UPDATES];
+    private final double[] weights = new double[UPDATES];
+    private int next;
+
+    @Setup
+    public void setup() {
+        plain = SyntheticGraphs.generate(shape, vertices, 1);
+        listened = new AdjListGraph<>(plain);
+        tree = listened.shortestPathTree(0);
+
+        Random random = new Random(2);
+        int n = plain.vertices().size();
+        for(int i = 0; i < UPDATES; i++) {
+            int source;
+            do {
+                source = random.nextInt(n);
+            } while(plain.targets(source).isEmpty());
+            sources[i] = source;
+            targets[i] = plain.targets(source).keySet().iterator().next();
+            weights[i] = 1 + random.nextInt(100);
+        }
+    }
+
+    @TearDown
+    public void close() {
+        tree.close();
+    }
+
+    private int nextUpdate() {
+        next = (next + 1) & (UPDATES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public double repair() {
+        int i = nextUpdate();
+        listened.set(sources[i], targets[i], weights[i]);
+        return tree.distance(targets[i]);
+    }
+
+    @Benchmark
+    public Object recompute() {
+        int i = nextUpdate();
+        plain.set(sources[i], targets[i], weights[i]);
+        return plain.dijkstra(0);
+    }
+}
@@ -0,0 +1,133 @@
+package graph;
+
+import java.util.Random;
+
+/**
+ * Generators of the graphs the benchmarks run on. Vertices are labelled
+ * 0 .. vertices - 1, every vertex is present even without edges, and the
+ * same shape, size and seed always give the same graph.
+ */
+public final class SyntheticGraphs {
+
+    public enum Shape {
+        /** 8 edges per vertex between uniformly drawn ends, weights 1 .. 100 */
+        RANDOM,
+        /** square grid, both directions between neighbours, weights 1 .. 100 */
+        GRID,
+        /** preferential attachment of 4 edges per new vertex, in both directions */
+        POWER_LAW,
+        /** jittered grid missing 10% of its streets, every 16th street a faster highway */
+        ROAD
+    }
+
+    private SyntheticGraphs() {
+    }
+
+    /**
+     * @param shape of the graph
+     * @param vertices number of vertices. A grid or road graph is rounded down
+     *        to the closest square
+     * @param seed of the random draws
+     * @return a new graph
+     */
+    public static AdjListGraph<Integer> generate(Shape shape, int vertices, long seed) {
+        switch(shape) {
+            case RANDOM:
+                return random(vertices, seed);
+            case GRID:
+                return grid(vertices, seed);
+            case POWER_LAW:
+                return powerLaw(vertices, seed);
+            default:
+                return road(vertices, seed);
+        }
+    }
+
+    private static AdjListGraph<Integer> empty(int vertices) {
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        for(int v = 0; v < vertices; v++)
+            graph.add(v);
+        return graph;
+    }
+
+    private static AdjListGraph<Integer> random(int vertices, long seed) {
+        Random random = new Random(seed);
+        AdjListGraph<Integer> graph = empty(vertices);
+        for(long i = 0; i < 8L * vertices; i++)
+            graph.set(random.nextInt(vertices), random.nextInt(vertices), 1 + random.nextInt(100));
+        return graph;
+    }
+
+    private static AdjListGraph<Integer> grid(int vertices, long seed) {
+        Random random = new Random(seed);
+        int side = (int) Math.sqrt(vertices);
+        AdjListGraph<Integer> graph = empty(side * side);
+        for(int row = 0; row < side; row++) {
+            for(int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if(col + 1 < side) {
+                    graph.set(v, v + 1, 1 + random.nextInt(100));
+                    graph.set(v + 1, v, 1 + random.nextInt(100));
+                }
+                if(row + 1 < side) {
+                    graph.set(v, v + side, 1 + random.nextInt(100));
+                    graph.set(v + side, v, 1 + random.nextInt(100));
+                }
+            }
+        }
+        return graph;
+    }
+
+    private static AdjListGraph<Integer> powerLaw(int vertices, long seed) {
+        Random random = new Random(seed);
+        AdjListGraph<Integer> graph = empty(vertices);
+        // every vertex appears once per edge end, so drawing from ends is
+        // drawing proportionally to the degree
+        int[] ends = new int[8 * vertices + 2];
+        int size = 0;
+        for(int v = 1; v < vertices; v++) {
+            for(int i = 0; i < 4; i++) {
+                int target = size == 0 ? 0 : ends[random.nextInt(size)];
+                double weight = 1 + random.nextInt(100);
+                graph.set(v, target, weight);
+                graph.set(target, v, weight);
+                ends[size++] = v;
+                ends[size++] = target;
+            }
+        }
+        return graph;
+    }
+
+    private static AdjListGraph<Integer> road(int vertices, long seed) {
+        Random random = new Random(seed);
+        int side = (int) Math.sqrt(vertices);
+        double[] x = new double[side * side];
+        double[] y = new double[side * side];
+        for(int v = 0; v < side * side; v++) {
+            x[v] = v % side + random.nextDouble() * 0.6 - 0.3;
+            y[v] = v / side + random.nextDouble() * 0.6 - 0.3;
+        }
+
+        AdjListGraph<Integer> graph = empty(side * side);
+        for(int row = 0; row < side; row++) {
+            for(int col = 0; col < side; col++) {
+                int v = row * side + col;
+                if(col + 1 < side && (row % 16 == 0 || random.nextInt(10) != 0))
+                    street(graph, x, y, v, v + 1, row % 16 == 0);
+                if(row + 1 < side && (col % 16 == 0 || random.nextInt(10) != 0))
+                    street(graph, x, y, v, v + side, col % 16 == 0);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Link u and v both ways, the weight being the travel time.
+     */
+    private static void street(AdjListGraph<Integer> graph, double[] x, double[] y, int u, int v, boolean highway) {
+        double length = Math.hypot(x[u] - x[v], y[u] - y[v]);
+        double weight = Math.ceil(length * (highway ? 30 : 100));
+        graph.set(u, v, weight);
+        graph.set(v, u, weight);
+    }
+}
@@ -0,0 +1,160 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Queries of the read only graphs in compressed sparse row form,
+ * {@link CsrGraph} and {@link BufferGraph}, answered over their
+ * {@link IntGraph} arrays: labels are translated to ids once, the searches
+ * run on the primitive algorithms and the results are translated back.
+ *
+ * @param <L> type of vertex labels in this graph. Must be immutable
+ */
+abstract class AbstractIndexedGraph<L> implements Graph<L>, IndexedGraph<L> {
+
+    @Override
+    public IndexedGraph<L> indexed() {
+        return this;
+    }
+
+    @Override
+    public Set<L> vertices() {
+        return index().labels();
+    }
+
+    @Override
+    public Map<L, Double> sources(L target) {
+        int id = index().id(target);
+        return id < 0 ? null : new AdjacencyMap<>(reverse(), index(), id);
+    }
+
+    @Override
+    public Map<L, Double> targets(L source) {
+        int id = index().id(source);
+        return id < 0 ? null : new AdjacencyMap<>(this, index(), id);
+    }
+
+    private void walk(PrimitiveIterator.OfInt vertices, Consumer<L> function) {
+        while(vertices.hasNext())
+            function.accept(index().label(vertices.nextInt()));
+    }
+
+    /**
+     * Traversals are delegated to a new {@link Traversal} so that the function
+     * can start another one on this graph. Callers that walk the graph often
+     * should keep their own Traversal to reuse its buffers.
+     */
+    @Override
+    public void dfs(Consumer<L> function) {
+        walk(new Traversal(vertexCount()).dfs(this), function);
+    }
+
+    @Override
+    public void dfs(L vertex, Consumer<L> function) {
+        int id = index().id(vertex);
+        if(id < 0)
+            return;
+        walk(new Traversal(vertexCount()).dfs(this, id), function);
+    }
+
+    @Override
+    public void bfs(Consumer<L> function) {
+        walk(new Traversal(vertexCount()).bfs(this), function);
+    }
+
+    @Override
+    public void bfs(L vertex, Consumer<L> function) {
+        int id = index().id(vertex);
+        if(id < 0)
+            return;
+        walk(new Traversal(vertexCount()).bfs(this, id), function);
+    }
+
+    @Override
+    @Deprecated
+    public int minimumSpanningTree(Function<L, Integer> func) {
+        return (int) minimumSpanningForest().cost();
+    }
+
+    @Override
+    public Map<L, Double> dijkstra(L src) {
+        int source = index().id(src);
+        if(source < 0)
+            return new HashMap<>();
+
+        long start = QueryMetrics.start();
+        DijkstraEngine engine = DijkstraEngine.local(vertexCount());
+        engine.run(this, source);
+        QueryMetrics.report("dijkstra", engine, start);
+
+        int reached = engine.reachedCount();
+        Map<L, Double> shortestsPaths = new HashMap<>((int) (reached / 0.75f) + 1);
+        for(int i = 0; i < reached; i++) {
+            int v = engine.reachedVertex(i);
+            shortestsPaths.put(index().label(v), engine.distance(v));
+        }
+        return shortestsPaths;
+    }
+
+    /**
+     * Translate a path of vertex ids to a path of labels.
+     */
+    Path<L> toPath(IntList ids, double cost, int settled) {
+        List<L> vertices = new ArrayList<>(ids.size());
+        for(int i = 0; i < ids.size(); i++)
+            vertices.add(index().label(ids.get(i)));
+        return new Path<>(vertices, cost, settled);
+    }
+
+    @Override
+    public Path<L> shortestPath(L src, L dst) {
+        return aStar(src, dst, null);
+    }
+
+    @Override
+    public Path<L> aStar(L src, L dst, ToDoubleFunction<L> heuristic) {
+        int source = index().id(src);
+        int target = index().id(dst);
+        if(source < 0 || target < 0)
+            return null;
+
+        long start = QueryMetrics.start();
+        DijkstraEngine engine = DijkstraEngine.local(vertexCount());
+        boolean found = engine.run(this, source, target,
+                heuristic == null ? null : v -> heuristic.applyAsDouble(index().label(v)));
+        QueryMetrics.report(heuristic == null ? "shortestPath" : "aStar", engine, start);
+        if(!found)
+            return null;
+
+        IntList path = new IntList();
+        engine.pathTo(target, path);
+        return toPath(path, engine.distance(target), engine.settledCount());
+    }
+
+    @Override
+    public Path<L> bidirectionalShortestPath(L src, L dst) {
+        int source = index().id(src);
+        int target = index().id(dst);
+        if(source < 0 || target < 0)
+            return null;
+
+        long start = QueryMetrics.start();
+        BidirectionalDijkstra search = BidirectionalDijkstra.local(vertexCount());
+        boolean found = search.run(this, reverse(), source, target);
+        QueryMetrics.report("bidirectionalShortestPath", search, start);
+        if(!found)
+            return null;
+
+        IntList path = new IntList();
+        search.path(path);
+        return toPath(path, search.distance(), search.settledCount());
+    }
+}
@@ -5,14 +5,7 @@ import java.io.IOException;
 import java.util.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
-
-import guru.nidi.graphviz.attribute.Label;
-import guru.nidi.graphviz.engine.Format;
-import guru.nidi.graphviz.engine.Graphviz;
-import guru.nidi.graphviz.model.LinkTarget;
-import guru.nidi.graphviz.model.MutableGraph;
-
-import static guru.nidi.graphviz.model.Factory.*;
+import java.util.function.ToDoubleFunction;
 
 
 /**
@@ -25,23 +18,11 @@ import static guru.nidi.graphviz.model.Factory.*;
 public class AdjListGraph<L> implements Graph<L> {
     private HashMap<L, Map<L, Double>> graph;
     private HashMap<L, Map<L, Double>> sources;
-
-    private enum Mode {
-        dfs, bfs
-    }
-
-    private class Edge {
-        L src;
-        L dst;
-        Double value;
-
-        public Edge(L src, L dst, Double value) {
-            this.src = src;
-            this.dst = dst;
-            this.value = value;
-        }
-
-    }
+    private final List<GraphListener<L>> listeners = new ArrayList<>();
+    // snapshot the dijkstra queries run on, dropped by every modification
+    private CsrGraph<L> snapshot;
+    // no modification since the last dijkstra query
+    private boolean unchanged;
 
     private class Pair {
         L vertex;
@@ -53,21 +34,159 @@ public class AdjListGraph<L> implements Graph<L> {
         }
     }
 
+    /**
+     * State of a Dijkstra search over one of the two adjacency maps. Searching
+     * over graph goes forward from the source, searching over sources goes
+     * backward from it. The search advances one settled vertex at a time.
+     * With a heuristic, vertices are queued by cost plus estimate (A*)
+     */
+    private class Search {
+        final HashMap<L, Map<L, Double>> adjacency;
+        final ToDoubleFunction<L> heuristic;
+        final Map<L, Double> shortestsPaths = new HashMap<>();
+        final Map<L, L> parents = new HashMap<>();
+        final Set<L> found = new HashSet<>();
+        final Queue<Pair> next = new PriorityQueue<>(Comparator.comparingDouble(e -> e.cost));
+        // work counters reported to QueryMetrics
+        long relaxed;
+        int pushes;
+        int pops;
+        int peak;
+
+        Search(HashMap<L, Map<L, Double>> adjacency, L source) {
+            this(adjacency, source, null);
+        }
+
+        Search(HashMap<L, Map<L, Double>> adjacency, L source, ToDoubleFunction<L> heuristic) {
+            this.adjacency = adjacency;
+            this.heuristic = heuristic;
+            shortestsPaths.put(source, 0.0);
+            push(new Pair(source, estimate(source, 0.0)));
+        }
+
+        private void push(Pair pair) {
+            next.add(pair);
+            pushes++;
+            if(next.size() > peak)
+                peak = next.size();
+        }
+
+        private Double estimate(L vertex, Double cost) {
+            return heuristic == null ? cost : cost + heuristic.applyAsDouble(vertex);
+        }
+
+        /**
+         * @return the next vertex to settle with its queue priority or null if
+         *         every reachable vertex is settled
+         */
+        Pair peek() {
+            // drop entries of vertices settled through a cheaper path
+            while(!next.isEmpty() && found.contains(next.peek().vertex)) {
+                next.poll();
+                pops++;
+            }
+            return next.peek();
+        }
+
+        /**
+         * Settle the next vertex. Its edges are not relaxed
+         */
+        L settle() {
+            L vertex = peek().vertex;
+            next.poll();
+            pops++;
+            found.add(vertex);
+            return vertex;
+        }
+
+        Map<L, Double> edges(L vertex) {
+            Map<L, Double> edges = adjacency.get(vertex);
+            return edges == null ? Collections.emptyMap() : edges;
+        }
+
+        void relax(L vertex) {
+            Double cost = shortestsPaths.get(vertex);
+            Map<L, Double> edges = edges(vertex);
+            relaxed += edges.size();
+            for(Map.Entry<L, Double> edge : edges.entrySet()) {
+                L neigh = edge.getKey();
+                if(found.contains(neigh))
+                    continue;
+                Double previous_cost = shortestsPaths.get(neigh);
+                Double new_cost = cost + edge.getValue();
+                if(previous_cost == null || previous_cost > new_cost) {
+                    shortestsPaths.put(neigh, new_cost);
+                    parents.put(neigh, vertex);
+                    push(new Pair(neigh, estimate(neigh, new_cost)));
+                }
+            }
+        }
+
+        void report(String algorithm, long start) {
+            QueryMetrics.report(algorithm, found.size(), relaxed, pushes, pops, peak, start);
+        }
+
+        /**
+         * Add to path the vertices from the source of the search to vertex,
+         * in the order they are met when following parents from vertex
+         */
+        void walkBack(L vertex, List<L> path) {
+            for(L v = vertex; v != null; v = parents.get(v))
+                path.add(v);
+        }
+    }
+
     public AdjListGraph() {
         this.graph = new HashMap<>();
         this.sources = new HashMap<>();
     }
+
+    /**
+     * Mutable copy of graph. Every map is created with its final size so that
+     * none is resized during the copy, see {@link GraphBuilder} to load large
+     * graphs.
+     *
+     * @param graph to copy
+     */
+    public AdjListGraph(Graph<L> graph) {
+        Set<L> vertices = graph.vertices();
+        this.graph = new HashMap<>(capacity(vertices.size()));
+        this.sources = new HashMap<>(capacity(vertices.size()));
+        for(L vertex : vertices) {
+            Map<L, Double> out = graph.targets(vertex);
+            this.graph.put(vertex, out == null ? new HashMap<>() : copy(out));
+            Map<L, Double> in = graph.sources(vertex);
+            if(in != null && !in.isEmpty())
+                this.sources.put(vertex, copy(in));
+        }
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    private static <L> Map<L, Double> copy(Map<L, Double> edges) {
+        Map<L, Double> map = new HashMap<>(capacity(edges.size()));
+        map.putAll(edges);
+        return map;
+    }
     
   
     @Override
     public boolean add(L vertex) {
-        return graph.putIfAbsent(vertex, new HashMap<>()) == null;
-       
+        if(graph.putIfAbsent(vertex, new HashMap<>()) != null)
+            return false;
+
+        modified();
+        for(GraphListener<L> listener : listeners)
+            listener.vertexAdded(vertex);
+        return true;
     }
 
     @Override
     public double set(L source, L target, double weight) {
-        // create target if it does not exist
+        // create source and target if they do not exist
+        this.add(source);
         this.add(target);
         
         // Update the list of parents of the target
@@ -80,21 +199,16 @@ public class AdjListGraph<L> implements Graph<L> {
         }
 
         // The two vertex exists. Create or update the edge
-        if(graph.containsKey(source)) {
-            Double ret = graph.get(source).put(target, weight);
-            return ret == null ? 0 : ret ;
-        }
-
-        // Source does not exist, create it and link it to target
-        Map<L, Double> targets = new HashMap<>();
-        targets.put(target, weight);
-        graph.put(source, targets);     
-        return 0;
+        Double ret = graph.get(source).put(target, weight);
+        modified();
+        for(GraphListener<L> listener : listeners)
+            listener.edgeSet(source, target, ret == null ? Double.NaN : ret, weight);
+        return ret == null ? 0 : ret;
     }
 
     @Override
     public boolean remove(L vertex) {
-        Map<L, Double> s = sources.get(vertex);
+        Map<L, Double> s = sources.remove(vertex);
         if (s != null) {
             // remove edges pointing to vertex
             for (L source : s.keySet()) {
@@ -103,59 +217,246 @@ public class AdjListGraph<L> implements Graph<L> {
             }
         }
 
-        return graph.remove(vertex) != null;
+        Map<L, Double> t = graph.remove(vertex);
+        if(t == null)
+            return false;
+        modified();
+
+        // remove vertex from the parents of its targets
+        for (L target : t.keySet()) {
+            if(sources.containsKey(target))
+                sources.get(target).remove(vertex);
+        }
+
+        for(GraphListener<L> listener : listeners) {
+            // a loop is reported with the in edges, it is already out of t
+            if(s != null) {
+                for(Map.Entry<L, Double> edge : s.entrySet())
+                    listener.edgeRemoved(edge.getKey(), vertex, edge.getValue());
+            }
+            for(Map.Entry<L, Double> edge : t.entrySet())
+                listener.edgeRemoved(vertex, edge.getKey(), edge.getValue());
+            listener.vertexRemoved(vertex);
+        }
+        return true;
+    }
+
+    /**
+     * Edges are applied as by {@link #set(Object, Object, double)}, the map of
+     * the source is looked up once for a run of edges with the same source.
+     */
+    @Override
+    public void setAll(Iterable<Edge<L>> edges) {
+        L source = null;
+        Map<L, Double> targets = null;
+        for(Edge<L> edge : edges) {
+            if(targets == null || !edge.source().equals(source)) {
+                source = edge.source();
+                this.add(source);
+                targets = graph.get(source);
+            }
+            L target = edge.target();
+            this.add(target);
+            sources.computeIfAbsent(target, k -> new HashMap<>()).put(source, edge.weight());
+            Double ret = targets.put(target, edge.weight());
+            modified();
+            for(GraphListener<L> listener : listeners)
+                listener.edgeSet(source, target, ret == null ? Double.NaN : ret, edge.weight());
+        }
     }
 
+    /**
+     * The edges between two removed vertices are dropped with the vertices,
+     * only the maps of the vertices that stay are updated. Listeners are told
+     * once every vertex is removed, each edge being reported once.
+     */
+    @Override
+    public boolean removeAll(Collection<L> vertices) {
+        Set<L> removed = new LinkedHashSet<>();
+        for(L vertex : vertices) {
+            if(graph.containsKey(vertex))
+                removed.add(vertex);
+        }
+        if(removed.isEmpty())
+            return false;
+        modified();
+
+        Map<L, Map<L, Double>> in = new HashMap<>();
+        Map<L, Map<L, Double>> out = new HashMap<>();
+        for(L vertex : removed) {
+            Map<L, Double> s = sources.remove(vertex);
+            Map<L, Double> t = graph.remove(vertex);
+            if(s != null) {
+                for(L source : s.keySet()) {
+                    if(!removed.contains(source))
+                        graph.get(source).remove(vertex);
+                }
+            }
+            for(L target : t.keySet()) {
+                if(!removed.contains(target))
+                    sources.get(target).remove(vertex);
+            }
+            if(!listeners.isEmpty()) {
+                in.put(vertex, s == null ? Collections.emptyMap() : s);
+                out.put(vertex, t);
+            }
+        }
+
+        for(GraphListener<L> listener : listeners) {
+            Set<L> reported = new HashSet<>();
+            for(L vertex : removed) {
+                for(Map.Entry<L, Double> edge : in.get(vertex).entrySet()) {
+                    if(!reported.contains(edge.getKey()))
+                        listener.edgeRemoved(edge.getKey(), vertex, edge.getValue());
+                }
+                for(Map.Entry<L, Double> edge : out.get(vertex).entrySet()) {
+                    // a loop is reported with the in edges
+                    if(!reported.contains(edge.getKey()) && !edge.getKey().equals(vertex))
+                        listener.edgeRemoved(vertex, edge.getKey(), edge.getValue());
+                }
+                reported.add(vertex);
+                listener.vertexRemoved(vertex);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Shortest paths from source that are repaired incrementally after every
+     * later modification of this graph instead of being computed again, see
+     * {@link ShortestPathTree}. Call {@link ShortestPathTree#close()} once the
+     * tree is not needed anymore.
+     *
+     * @Precondition Non negative edges
+     *
+     * @param source Vertex from which shortest paths are computed
+     * @return the tree, registered as a listener of this graph
+     */
+    public ShortestPathTree<L> shortestPathTree(L source) {
+        return new ShortestPathTree<>(this, source);
+    }
+
+    private void modified() {
+        snapshot = null;
+        unchanged = false;
+    }
+
+    /**
+     * Register a listener that is told about every later modification of this
+     * graph, see {@link GraphListener}.
+     */
+    public void addListener(GraphListener<L> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return true if listener was registered
+     */
+    public boolean removeListener(GraphListener<L> listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * @return a read only view of the vertices. The graph is only modified
+     *         through its mutators, which keep both maps and the listeners in
+     *         step
+     */
     @Override
     public Set<L> vertices() {
-        return graph.keySet();
+        return Collections.unmodifiableSet(graph.keySet());
     }
 
+    /**
+     * @return a read only view of the in edges of target, or null if target
+     *         has never had one
+     */
     @Override
     public Map<L, Double> sources(L target) {
-        return this.sources.get(target);
+        Map<L, Double> in = this.sources.get(target);
+        return in == null ? null : Collections.unmodifiableMap(in);
     }
 
+    /**
+     * @return a read only view of the out edges of source, or null if source
+     *         is not in the graph
+     */
     @Override
     public Map<L, Double> targets(L source) {
-        return this.graph.get(source);
+        Map<L, Double> out = this.graph.get(source);
+        return out == null ? null : Collections.unmodifiableMap(out);
+    }
+
+    /**
+     * Take an immutable compressed sparse row snapshot of this graph. Queries
+     * on the snapshot work on primitive arrays and give the same results as
+     * on this graph. Later modifications of this graph are not visible in it.
+     *
+     * @return a new CsrGraph holding the vertices and edges of this graph
+     */
+    public CsrGraph<L> freeze() {
+        return CsrGraph.of(this);
     }
 
 
     /**
-     * Helper for DFS and BFS. Is used to walk through connected nodes of the graph from a given source
+     * Helper for DFS. Walks through the nodes reachable from start that are not seen yet,
+     * in the order of a recursive walk. The stack holds the iterator over the children of
+     * each node of the current path so that a node is visited when it is first reached
      *
+     * @param start node from which the walk starts. Must not be seen
      * @param seen store all already seen nodes for cycle detection
-     * @param next store next unseen nodes to visit. Element ordering depend on the mode of visit
-     *             DFS or BFS
      * @param func to apply to all nodes
-     * @param mode DFS or BFS
      */
-    private void graphWalk(Set<L> seen, Deque<L> next, Consumer<L> func, Mode mode) {
+    private void depthFirstWalk(L start, Set<L> seen, Consumer<L> func) {
+        Deque<Iterator<L>> next = new ArrayDeque<>();
+        seen.add(start);
+        func.accept(start);
+        next.push(graph.get(start).keySet().iterator());
+
         while (!next.isEmpty()) {
-            L vertex = next.pop();
-            func.accept(vertex);
+            Iterator<L> children = next.peek();
+            if(!children.hasNext()) {
+                next.pop();
+                continue;
+            }
+
+            L neigh = children.next();
+            if(seen.add(neigh)) {
+                func.accept(neigh);
+                next.push(graph.get(neigh).keySet().iterator());
+            }
+        }
+    }
 
-            seen.add(vertex);
+    /**
+     * Helper for BFS. Walks through the nodes reachable from start that are not seen yet.
+     * A node is marked as seen when it is queued so that it is visited once
+     *
+     * @param start node from which the walk starts. Must not be seen
+     * @param seen store all already seen nodes for cycle detection
+     * @param func to apply to all nodes
+     */
+    private void breadthFirstWalk(L start, Set<L> seen, Consumer<L> func) {
+        Deque<L> next = new ArrayDeque<>();
+        seen.add(start);
+        next.add(start);
+
+        while (!next.isEmpty()) {
+            L vertex = next.poll();
+            func.accept(vertex);
             for(L neigh : graph.get(vertex).keySet()){
-                if(!seen.contains(neigh)) {
-                    if(mode == Mode.dfs)
-                        next.addFirst(neigh);
-                    else if(mode == Mode.bfs)
-                        next.addLast(neigh);
-                }
+                if(seen.add(neigh))
+                    next.add(neigh);
             }
         }
     }
 
     @Override
     public void dfs(Consumer<L> function) {
-        Deque<L> next = new ArrayDeque<>();
         Set<L> seen = new HashSet<>();
-
         for(L vertex : graph.keySet()){
             if(!seen.contains(vertex))
-                graphWalk(seen, next, function, Mode.dfs);
+                depthFirstWalk(vertex, seen, function);
         }
     }
 
@@ -164,21 +465,16 @@ public class AdjListGraph<L> implements Graph<L> {
         if(!graph.containsKey(vertex))
             return;
 
-        Deque<L> next = new ArrayDeque<>();
-        next.add(vertex);
-        Set<L> seen = new HashSet<>();
-        graphWalk(seen, next, function, Mode.dfs);
+        depthFirstWalk(vertex, new HashSet<>(), function);
     }
 
 
     @Override
     public void bfs(Consumer<L> function) {
-        ArrayDeque<L> next = new ArrayDeque<>();
         Set<L> seen = new HashSet<>();
-
         for(L vertex : graph.keySet()){
             if(!seen.contains(vertex))
-                graphWalk(seen, next, function, Mode.bfs);
+                breadthFirstWalk(vertex, seen, function);
         }
     }
 
@@ -187,116 +483,180 @@ public class AdjListGraph<L> implements Graph<L> {
         if(!graph.containsKey(vertex))
             return;
 
-        Deque<L> next = new ArrayDeque<>();
-        next.add(vertex);
-        Set<L> seen = new HashSet<>();
-        graphWalk(seen, next, function, Mode.bfs);
+        breadthFirstWalk(vertex, new HashSet<>(), function);
     }
 
     @Override
+    @Deprecated
     public int minimumSpanningTree(Function<L, Integer> vertex_index) {
-        //Get list of edges
-        List<Edge> edges = new ArrayList<>();
-        for(L src : graph.keySet()) {
-            for(L dst : graph.get(src).keySet()) {
-                edges.add(new Edge(src, dst, graph.get(src).get(dst)));
-            }
-        }
-
-        //Sort edges
-        Collections.sort(edges, Comparator.comparingDouble(e -> e.value));
-        UnionFind unionFind = new UnionFind(edges.size());
-
-        int nb_edge = 0;
-        int cost = 0;
-
-        for(Edge edge : edges) {
-            if(nb_edge >= graph.keySet().size()-1) {
-                break;
-            }
-
-            Integer src = vertex_index.apply(edge.src);
-            Integer dst = vertex_index.apply(edge.dst);
-
-            //If the two vertex belongs to to the same set they are already connected
-            //so adding this edge will create a cycle because spanning tree is an undirected tree
-            if(!unionFind.find(src, dst)) {
-                nb_edge++;
-                cost += edge.value;
-                unionFind.union(src, dst);
-            }
-        }
-
-        return cost;
+        return (int) minimumSpanningForest().cost();
     }
 
-    private void relaxVertex(L src, L neigh, Map<L, Double> shortestsPaths, Queue<Pair> next) {
+    private boolean relaxVertex(L neigh, double new_cost, Map<L, Double> shortestsPaths, Queue<Pair> next) {
         Double previous_cost = shortestsPaths.get(neigh);
-        Double new_cost = shortestsPaths.get(src) + graph.get(src).get(neigh);
         if(previous_cost == null || previous_cost > new_cost) {
             shortestsPaths.put(neigh, new_cost);
             next.add(new Pair(neigh, new_cost));
+            return true;
         }
+        return false;
     }
 
+    /**
+     * The first query after a modification searches the maps of this graph.
+     * A second query with no modification in between takes a {@link CsrGraph}
+     * snapshot, and it and the following ones run on its
+     * {@link DijkstraEngine} until the next modification. Repeated queries
+     * then allocate no queue entries, while a graph that changes between
+     * every query is never copied.
+     */
     @Override
     public Map<L, Double> dijkstra(L src) {
         if(!graph.containsKey(src))
             return new HashMap<>();
 
+        if(snapshot == null && unchanged)
+            snapshot = CsrGraph.copy(this);
+        unchanged = true;
+        if(snapshot != null)
+            return snapshot.dijkstra(src);
+
+        long start = QueryMetrics.start();
         Map<L, Double> shortestsPaths = new HashMap<>();
         Queue<Pair> next = new PriorityQueue<>(Comparator.comparingDouble(e -> e.cost));
         Set<L> found = new HashSet<>();
         shortestsPaths.put(src, 0.0);
         next.add(new Pair(src, 0.0));
+        long relaxed = 0;
+        int pushes = 1;
+        int pops = 0;
+        int peak = 1;
 
         while(found.size() < graph.keySet().size()){
             Pair vertex_pair = next.poll();
             if(vertex_pair == null)
-                return shortestsPaths;
+                break;
+            pops++;
             L vertex = vertex_pair.vertex;
             if(found.contains(vertex))
                 continue;
 
             found.add(vertex);
 
-            for(L neigh : graph.get(vertex).keySet()) {
+            Map<L, Double> edges = graph.get(vertex);
+            relaxed += edges.size();
+            // the first pop of a vertex carries its final cost
+            for(Map.Entry<L, Double> edge : edges.entrySet()) {
+                L neigh = edge.getKey();
                 if(found.contains(neigh))
                     continue;
-                relaxVertex(vertex, neigh, shortestsPaths, next);
+                if(relaxVertex(neigh, vertex_pair.cost + edge.getValue(), shortestsPaths, next)) {
+                    pushes++;
+                    peak = Math.max(peak, next.size());
+                }
             }
         }
 
+        QueryMetrics.report("dijkstra", found.size(), relaxed, pushes, pops, peak, start);
         return shortestsPaths;
     }
 
 
-    /** 
-     * Write the graph into a png. Use the Ggraphviz-java library to do this
+    @Override
+    public Path<L> shortestPath(L src, L dst) {
+        return aStar(src, dst, null);
+    }
+
+    @Override
+    public Path<L> aStar(L src, L dst, ToDoubleFunction<L> heuristic) {
+        if(!graph.containsKey(src) || !graph.containsKey(dst))
+            return null;
+
+        long start = QueryMetrics.start();
+        String algorithm = heuristic == null ? "shortestPath" : "aStar";
+        Search search = new Search(graph, src, heuristic);
+        while(search.peek() != null) {
+            L vertex = search.settle();
+            if(vertex.equals(dst)) {
+                search.report(algorithm, start);
+                List<L> path = new ArrayList<>();
+                search.walkBack(dst, path);
+                Collections.reverse(path);
+                return new Path<>(path, search.shortestsPaths.get(dst), search.found.size());
+            }
+            search.relax(vertex);
+        }
+
+        search.report(algorithm, start);
+        return null;
+    }
+
+    @Override
+    public Path<L> bidirectionalShortestPath(L src, L dst) {
+        if(!graph.containsKey(src) || !graph.containsKey(dst))
+            return null;
+        // no search runs, as in BidirectionalDijkstra
+        if(src.equals(dst))
+            return new Path<>(Collections.singletonList(src), 0, 0);
+
+        long start = QueryMetrics.start();
+        Search forward = new Search(graph, src);
+        Search backward = new Search(sources, dst);
+        // the best path seen so far goes through the edge meet_forward -> meet_backward
+        L meet_forward = null;
+        L meet_backward = null;
+        double best = Double.POSITIVE_INFINITY;
+        int peak = 2;
+
+        while(forward.peek() != null && backward.peek() != null) {
+            double next_forward = forward.peek().cost;
+            double next_backward = backward.peek().cost;
+            if(next_forward + next_backward >= best)
+                break;
+
+            // Advance the side which is the closest to its source
+            Search search = next_forward <= next_backward ? forward : backward;
+            Search other = search == forward ? backward : forward;
+            L vertex = search.settle();
+            search.relax(vertex);
+
+            double cost = search.shortestsPaths.get(vertex);
+            for(Map.Entry<L, Double> edge : search.edges(vertex).entrySet()) {
+                Double other_cost = other.shortestsPaths.get(edge.getKey());
+                if(other_cost != null && cost + edge.getValue() + other_cost < best) {
+                    best = cost + edge.getValue() + other_cost;
+                    meet_forward = search == forward ? vertex : edge.getKey();
+                    meet_backward = search == forward ? edge.getKey() : vertex;
+                }
+            }
+            peak = Math.max(peak, forward.next.size() + backward.next.size());
+        }
+
+        if(start != 0)
+            QueryMetrics.report("bidirectionalShortestPath", forward.found.size() + backward.found.size(),
+                    forward.relaxed + backward.relaxed, forward.pushes + backward.pushes,
+                    forward.pops + backward.pops, peak, start);
+        if(best == Double.POSITIVE_INFINITY)
+            return null;
+
+        List<L> path = new ArrayList<>();
+        forward.walkBack(meet_forward, path);
+        Collections.reverse(path);
+        backward.walkBack(meet_backward, path);
+        return new Path<>(path, best, forward.found.size() + backward.found.size());
+    }
+
+    /**
+     * Write the graph into a png, 500 pixels wide. Use the Graphviz-java library
+     * to do this. The whole graph is drawn: use {@link GraphRenderer} to draw a
+     * part of a large graph.
      *
      * @param filename of the png in which the graph will be drawn.
      *        Accept full and relative paths.
+     * @throws IOException if the file cannot be written
      */
-    public void writeToPng(String filename) {
-        MutableGraph g = mutGraph().setDirected(true);
-        
-        for(L source : this.graph.keySet()) {         
-            LinkTarget neighbors [] = this.graph.get(source).entrySet()
-                                              .stream()
-                                              .map(e -> to(mutNode(e.getKey().toString()))
-                                                        .with(Label.of(e.getValue().toString()))
-                                                  )
-                                              .toArray(LinkTarget[]::new);
-
-            g.add(mutNode(source.toString()).addLink(neighbors));
-
-        }
-        
-        try {
-           Graphviz.fromGraph(g).width(500).render(Format.PNG).toFile(new File(filename));
-        } catch (IOException e) {
-           System.out.println("Failing to write the output file");
-        }
+    public void writeToPng(String filename) throws IOException {
+        GraphRenderer.png().maxVertices(Integer.MAX_VALUE).render(this, new File(filename));
     }
     
 }
@@ -0,0 +1,83 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Unmodifiable map view over the out edges [begin, end) of a vertex of an
+ * {@link IntGraph}. Keys are translated back to labels through a
+ * {@link VertexIndex}. Nothing is copied: the view reads the underlying graph.
+ *
+ * @param <L> type of vertex labels
+ */
+class AdjacencyMap<L> extends AbstractMap<L, Double> {
+    private final IntGraph graph;
+    private final VertexIndex<L> index;
+    private final int begin;
+    private final int end;
+
+    AdjacencyMap(IntGraph graph, VertexIndex<L> index, int vertex) {
+        this.graph = graph;
+        this.index = index;
+        this.begin = graph.begin(vertex);
+        this.end = graph.end(vertex);
+    }
+
+    private int find(Object key) {
+        @SuppressWarnings("unchecked")
+        int id = index.id((L) key);
+        if(id < 0)
+            return -1;
+
+        for(int e = begin; e < end; e++) {
+            if(graph.target(e) == id)
+                return e;
+        }
+        return -1;
+    }
+
+    @Override
+    public Double get(Object key) {
+        int e = find(key);
+        return e < 0 ? null : graph.weight(e);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return end - begin;
+    }
+
+    @Override
+    public Set<Entry<L, Double>> entrySet() {
+        return new AbstractSet<Entry<L, Double>>() {
+            @Override
+            public Iterator<Entry<L, Double>> iterator() {
+                return new Iterator<Entry<L, Double>>() {
+                    private int next = begin;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < end;
+                    }
+
+                    @Override
+                    public Entry<L, Double> next() {
+                        if(next >= end)
+                            throw new NoSuchElementException();
+                        int e = next++;
+                        return new SimpleImmutableEntry<>(index.label(graph.target(e)), graph.weight(e));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return end - begin;
+            }
+        };
+    }
+}
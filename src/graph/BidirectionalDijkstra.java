@@ -0,0 +1,153 @@
+package graph;
+
+/**
+ * Point to point shortest path search running Dijkstra from the source on
+ * the graph and from the target on the reversed graph at the same time.
+ * Each step settles one vertex on the side whose next distance is the
+ * smallest. Whenever an edge joins the two searches the cost of the
+ * corresponding path is recorded. The search stops when the two next
+ * distances add up to at least the best recorded cost: no path that was
+ * not seen yet can be cheaper.
+ *
+ * Like {@link DijkstraEngine}, an instance reuses its scratch state across
+ * queries and is not thread safe, use {@link #local(int)}.
+ *
+ * @Precondition Non negative edges
+ */
+public final class BidirectionalDijkstra {
+    private static final ThreadLocal<BidirectionalDijkstra> LOCAL = ThreadLocal.withInitial(() -> new BidirectionalDijkstra(0));
+
+    private final DijkstraEngine forward;
+    private final DijkstraEngine backward;
+    private double best;
+    // the best path goes through the edge meetForward -> meetBackward
+    private int meetForward;
+    private int meetBackward;
+    private int peakQueueSize;
+
+    public BidirectionalDijkstra(int capacity) {
+        forward = new DijkstraEngine(capacity);
+        backward = new DijkstraEngine(capacity);
+    }
+
+    /**
+     * @param capacity number of vertices of the graph to search
+     * @return the instance of the calling thread, grown to capacity if needed
+     */
+    public static BidirectionalDijkstra local(int capacity) {
+        BidirectionalDijkstra search = LOCAL.get();
+        search.forward.ensureCapacity(capacity);
+        search.backward.ensureCapacity(capacity);
+        return search;
+    }
+
+    /**
+     * Find the shortest path from source to target.
+     *
+     * @param graph to search
+     * @param reverse graph with the edges of graph reversed, usually
+     *        graph.reverse()
+     * @param source id of the source vertex
+     * @param target id of the target vertex
+     * @return true if target is reachable from source
+     */
+    public boolean run(IntGraph graph, IntGraph reverse, int source, int target) {
+        forward.start(graph, source);
+        backward.start(reverse, target);
+        best = Double.POSITIVE_INFINITY;
+        meetForward = -1;
+        meetBackward = -1;
+        peakQueueSize = 2;
+        if(source == target) {
+            best = 0;
+            meetForward = source;
+            return true;
+        }
+
+        while(!forward.isDone() && !backward.isDone()) {
+            double nextForward = forward.nextDistance();
+            double nextBackward = backward.nextDistance();
+            if(nextForward + nextBackward >= best)
+                break;
+
+            if(nextForward <= nextBackward) {
+                int vertex = forward.settleNext();
+                double cost = forward.distance(vertex);
+                for(int e = graph.begin(vertex), end = graph.end(vertex); e < end; e++) {
+                    int neigh = graph.target(e);
+                    if(backward.reached(neigh))
+                        meet(vertex, neigh, cost + graph.weight(e) + backward.distance(neigh));
+                }
+            } else {
+                int vertex = backward.settleNext();
+                double cost = backward.distance(vertex);
+                for(int e = reverse.begin(vertex), end = reverse.end(vertex); e < end; e++) {
+                    int neigh = reverse.target(e);
+                    if(forward.reached(neigh))
+                        meet(neigh, vertex, forward.distance(neigh) + reverse.weight(e) + cost);
+                }
+            }
+            // the queues only grow while a vertex is settled
+            peakQueueSize = Math.max(peakQueueSize, forward.queueSize() + backward.queueSize());
+        }
+
+        return meetForward >= 0;
+    }
+
+    private void meet(int from, int to, double cost) {
+        if(cost < best) {
+            best = cost;
+            meetForward = from;
+            meetBackward = to;
+        }
+    }
+
+    /**
+     * @return the cost of the shortest path found by the last run, or positive
+     *         infinity if the target is not reachable
+     */
+    public double distance() {
+        return best;
+    }
+
+    /**
+     * Append the vertices of the path found by the last run to path, source
+     * first.
+     */
+    public void path(IntList path) {
+        if(meetForward < 0)
+            return;
+        forward.pathTo(meetForward, path);
+        for(int v = meetBackward; v >= 0; v = backward.parent(v))
+            path.add(v);
+    }
+
+    /**
+     * @return the number of vertices settled by both sides in the last run
+     */
+    public int settledCount() {
+        return forward.settledCount() + backward.settledCount();
+    }
+
+    /**
+     * @return the number of vertices reached by both sides in the last run
+     */
+    public int reachedCount() {
+        return forward.reachedCount() + backward.reachedCount();
+    }
+
+    /**
+     * @return the number of edges scanned by both sides in the last run
+     */
+    public long relaxedCount() {
+        return forward.relaxedCount() + backward.relaxedCount();
+    }
+
+    /**
+     * @return the largest number of vertices in both queues at once during
+     *         the last run
+     */
+    public int peakQueueSize() {
+        return peakQueueSize;
+    }
+}
@@ -0,0 +1,129 @@
+package graph;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Collection;
+
+/**
+ * Read only graph in compressed sparse row form whose arrays are NIO buffers
+ * outside of the Java heap: memory mapped in {@link MappedGraph}, allocated
+ * directly in {@link OffHeapGraph}. The layout is the one of {@link CsrGraph}:
+ * the out edges of vertex v are targets[offsets[v] .. offsets[v+1]) with their
+ * weights at the same positions, and the in edges are stored the same way in
+ * reverse buffers. Only the {@link VertexIndex} of the labels is on the heap.
+ *
+ * Every buffer is read with absolute gets, so queries can run from several
+ * threads at once. Mutators throw UnsupportedOperationException.
+ *
+ * The parallel algorithms of {@link Graph} take a {@link CsrGraph} snapshot,
+ * which copies the graph to the heap: use their {@link IntGraph} entry points
+ * on this graph to avoid it.
+ *
+ * @param <L> type of vertex labels in this graph. Must be immutable
+ */
+public abstract class BufferGraph<L> extends AbstractIndexedGraph<L> {
+    final VertexIndex<L> index;
+    final IntBuffer offsets;
+    final IntBuffer targets;
+    final DoubleBuffer weights;
+    final IntBuffer reverseOffsets;
+    final IntBuffer reverseTargets;
+    final DoubleBuffer reverseWeights;
+
+    private BufferGraph<L> reverse;
+
+    BufferGraph(VertexIndex<L> index, IntBuffer offsets, IntBuffer targets, DoubleBuffer weights,
+                IntBuffer reverseOffsets, IntBuffer reverseTargets, DoubleBuffer reverseWeights) {
+        this.index = index;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.reverseOffsets = reverseOffsets;
+        this.reverseTargets = reverseTargets;
+        this.reverseWeights = reverseWeights;
+    }
+
+    /**
+     * @return the index mapping the labels of this graph to vertex ids. It is
+     *         the only part of the graph held on the heap
+     */
+    @Override
+    public VertexIndex<L> index() {
+        return index;
+    }
+
+    @Override
+    public int vertexCount() {
+        return index.size();
+    }
+
+    @Override
+    public int edgeCount() {
+        return targets.capacity();
+    }
+
+    @Override
+    public int begin(int vertex) {
+        return offsets.get(vertex);
+    }
+
+    @Override
+    public int end(int vertex) {
+        return offsets.get(vertex + 1);
+    }
+
+    @Override
+    public int target(int edge) {
+        return targets.get(edge);
+    }
+
+    @Override
+    public double weight(int edge) {
+        return weights.get(edge);
+    }
+
+    /**
+     * @return the transposed graph. It shares the buffers of this graph
+     */
+    @Override
+    public BufferGraph<L> reverse() {
+        BufferGraph<L> r = reverse;
+        if(r == null) {
+            r = transpose();
+            r.reverse = this;
+            reverse = r;
+        }
+        return r;
+    }
+
+    /**
+     * @return a new graph of the same class over the same buffers, the
+     *         reverse ones first
+     */
+    abstract BufferGraph<L> transpose();
+
+    @Override
+    public boolean add(L vertex) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is read only");
+    }
+
+    @Override
+    public double set(L source, L target, double weight) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is read only");
+    }
+
+    @Override
+    public boolean remove(L vertex) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is read only");
+    }
+
+    @Override
+    public void setAll(Iterable<Edge<L>> edges) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is read only");
+    }
+
+    @Override
+    public boolean removeAll(Collection<L> vertices) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " is read only");
+    }
+}
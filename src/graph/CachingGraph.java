@@ -0,0 +1,441 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Decorator of a graph keeping the results of its repeated queries:
+ * {@link #dijkstra(Object)}, {@link #shortestPath(Object, Object)},
+ * {@link #bidirectionalShortestPath(Object, Object)} and the visit orders of
+ * dfs and bfs, which are replayed to the function of the next call. A* is not
+ * cached, its heuristic cannot be compared.
+ *
+ * Results are evicted in least recently used order once the cache holds
+ * more entries, or more vertices in total, than its bounds. The number of
+ * vertices of a result (distances, path, visit order) stands for its memory.
+ *
+ * Every cached result belongs to a version of the graph. The version is
+ * incremented by every modification made through this graph and, for an
+ * {@link AdjListGraph} through a {@link GraphListener}, by modifications made
+ * to the wrapped graph directly; a {@link ConcurrentAdjListGraph} brings its
+ * own version. The cache is emptied the first time it is used at a new
+ * version, so a stale result is never returned. Modifications of another
+ * kind of wrapped graph must go through this graph.
+ *
+ * Maps of distances are returned read only, as they are shared by the calls
+ * that hit the cache. The cache is thread safe, queries run outside of its
+ * lock; the wrapped graph must be thread safe to be queried concurrently.
+ * {@link #close()} stops listening to the wrapped graph.
+ *
+ * @param <L> type of vertex labels in this graph. Must be immutable
+ */
+public final class CachingGraph<L> implements Graph<L>, AutoCloseable {
+
+    private enum Query { DIJKSTRA, SHORTEST_PATH, BIDIRECTIONAL, DFS, BFS }
+
+    private static final class Key {
+        final Query query;
+        final Object source;
+        final Object target;
+
+        Key(Query query, Object source, Object target) {
+            this.query = query;
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if(!(other instanceof Key))
+                return false;
+            Key key = (Key) other;
+            return query == key.query && Objects.equals(source, key.source) && Objects.equals(target, key.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return (query.hashCode() * 31 + Objects.hashCode(source)) * 31 + Objects.hashCode(target);
+        }
+    }
+
+    private static final class Entry {
+        final Object result;
+        final int weight;
+
+        Entry(Object result, int weight) {
+            this.result = result;
+            this.weight = weight;
+        }
+    }
+
+    private final Graph<L> graph;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final AtomicLong version = new AtomicLong();
+    private final GraphListener<L> listener;
+
+    // access ordered: the eldest entry is the least recently used
+    private final LinkedHashMap<Key, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cacheVersion;
+    private long totalWeight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * @param graph to query
+     * @param maxEntries largest number of cached results
+     * @param maxWeight largest total number of vertices in the cached results
+     */
+    public CachingGraph(Graph<L> graph, int maxEntries, long maxWeight) {
+        if(maxEntries < 0 || maxWeight < 0)
+            throw new IllegalArgumentException("Cache bounds must not be negative: " + maxEntries + ", " + maxWeight);
+        this.graph = graph;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        if(graph instanceof AdjListGraph) {
+            listener = new GraphListener<L>() {
+                @Override
+                public void vertexAdded(L vertex) {
+                    version.incrementAndGet();
+                }
+
+                @Override
+                public void edgeSet(L source, L target, double previous, double weight) {
+                    version.incrementAndGet();
+                }
+
+                @Override
+                public void vertexRemoved(L vertex) {
+                    version.incrementAndGet();
+                }
+            };
+            ((AdjListGraph<L>) graph).addListener(listener);
+        } else {
+            listener = null;
+        }
+    }
+
+    /**
+     * @return the version of the wrapped graph, which changes with every
+     *         modification
+     */
+    private long version() {
+        if(graph instanceof ConcurrentAdjListGraph)
+            return ((ConcurrentAdjListGraph<L>) graph).version() + version.get();
+        return version.get();
+    }
+
+    /**
+     * Return the cached result of key or compute it, outside of the lock. The
+     * result is only kept if the graph did not change during the computation.
+     */
+    @SuppressWarnings("unchecked")
+    private <R> R cached(Key key, Supplier<R> query, Function<R, Integer> size) {
+        long start;
+        synchronized(cache) {
+            start = version();
+            if(start != cacheVersion) {
+                invalidations += cache.size();
+                cache.clear();
+                totalWeight = 0;
+                cacheVersion = start;
+            }
+            Entry entry = cache.get(key);
+            if(entry != null) {
+                hits++;
+                return (R) entry.result;
+            }
+            misses++;
+        }
+
+        R result = query.get();
+        int entryWeight = result == null ? 1 : Math.max(1, size.apply(result));
+        synchronized(cache) {
+            if(version() != start || cacheVersion != start || entryWeight > maxWeight || maxEntries == 0)
+                return result;
+            Entry previous = cache.put(key, new Entry(result, entryWeight));
+            if(previous != null)
+                totalWeight -= previous.weight;
+            totalWeight += entryWeight;
+            Iterator<Entry> eldest = cache.values().iterator();
+            while(cache.size() > maxEntries || totalWeight > maxWeight) {
+                totalWeight -= eldest.next().weight;
+                eldest.remove();
+                evictions++;
+            }
+        }
+        return result;
+    }
+
+    private void modified() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * @return the number of queries answered from the cache
+     */
+    public long hitCount() {
+        synchronized(cache) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return the number of queries run on the wrapped graph
+     */
+    public long missCount() {
+        synchronized(cache) {
+            return misses;
+        }
+    }
+
+    /**
+     * @return the share of the queries answered from the cache, 0 before the
+     *         first query
+     */
+    public double hitRate() {
+        synchronized(cache) {
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+    }
+
+    /**
+     * @return the number of results dropped to respect the bounds
+     */
+    public long evictionCount() {
+        synchronized(cache) {
+            return evictions;
+        }
+    }
+
+    /**
+     * @return the number of results dropped because the graph changed
+     */
+    public long invalidationCount() {
+        synchronized(cache) {
+            return invalidations;
+        }
+    }
+
+    /**
+     * @return the number of cached results
+     */
+    public int size() {
+        synchronized(cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * @return the total number of vertices in the cached results
+     */
+    public long weight() {
+        synchronized(cache) {
+            return totalWeight;
+        }
+    }
+
+    /**
+     * Drop every cached result. The statistics are kept.
+     */
+    public void clear() {
+        synchronized(cache) {
+            cache.clear();
+            totalWeight = 0;
+        }
+    }
+
+    /**
+     * Stop listening to the wrapped graph and drop the cached results. Queries
+     * are still answered, from the cache only after modifications made through
+     * this graph.
+     */
+    @Override
+    public void close() {
+        if(listener != null)
+            ((AdjListGraph<L>) graph).removeListener(listener);
+        clear();
+    }
+
+    @Override
+    public boolean add(L vertex) {
+        boolean added = graph.add(vertex);
+        if(added)
+            modified();
+        return added;
+    }
+
+    @Override
+    public double set(L source, L target, double weight) {
+        try {
+            return graph.set(source, target, weight);
+        } finally {
+            modified();
+        }
+    }
+
+    @Override
+    public boolean remove(L vertex) {
+        boolean removed = graph.remove(vertex);
+        if(removed)
+            modified();
+        return removed;
+    }
+
+    @Override
+    public void setAll(Iterable<Edge<L>> edges) {
+        try {
+            graph.setAll(edges);
+        } finally {
+            modified();
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<L> vertices) {
+        boolean removed = graph.removeAll(vertices);
+        if(removed)
+            modified();
+        return removed;
+    }
+
+    @Override
+    public Set<L> vertices() {
+        return graph.vertices();
+    }
+
+    @Override
+    public Map<L, Double> sources(L target) {
+        return graph.sources(target);
+    }
+
+    @Override
+    public Map<L, Double> targets(L source) {
+        return graph.targets(source);
+    }
+
+    @Override
+    public IndexedGraph<L> indexed() {
+        return graph.indexed();
+    }
+
+    private List<L> visit(Query query, L vertex, Consumer<Consumer<L>> walk) {
+        return cached(new Key(query, vertex, null), () -> {
+            List<L> order = new ArrayList<>();
+            walk.accept(order::add);
+            return Collections.unmodifiableList(order);
+        }, List::size);
+    }
+
+    @Override
+    public void dfs(Consumer<L> function) {
+        visit(Query.DFS, null, graph::dfs).forEach(function);
+    }
+
+    @Override
+    public void dfs(L vertex, Consumer<L> function) {
+        visit(Query.DFS, vertex, f -> graph.dfs(vertex, f)).forEach(function);
+    }
+
+    @Override
+    public void bfs(Consumer<L> function) {
+        visit(Query.BFS, null, graph::bfs).forEach(function);
+    }
+
+    @Override
+    public void bfs(L vertex, Consumer<L> function) {
+        visit(Query.BFS, vertex, f -> graph.bfs(vertex, f)).forEach(function);
+    }
+
+    @Override
+    @Deprecated
+    public int minimumSpanningTree(Function<L, Integer> func) {
+        return graph.minimumSpanningTree(func);
+    }
+
+    @Override
+    public MinimumSpanningForest<L> minimumSpanningForest() {
+        return graph.minimumSpanningForest();
+    }
+
+    /**
+     * @return a read only map, shared with the other calls from src until the
+     *         graph changes
+     */
+    @Override
+    public Map<L, Double> dijkstra(L src) {
+        return cached(new Key(Query.DIJKSTRA, src, null),
+                () -> Collections.unmodifiableMap(graph.dijkstra(src)), Map::size);
+    }
+
+    @Override
+    public Path<L> shortestPath(L src, L dst) {
+        return cached(new Key(Query.SHORTEST_PATH, src, dst),
+                () -> graph.shortestPath(src, dst), path -> path.vertices().size());
+    }
+
+    @Override
+    public Path<L> bidirectionalShortestPath(L src, L dst) {
+        return cached(new Key(Query.BIDIRECTIONAL, src, dst),
+                () -> graph.bidirectionalShortestPath(src, dst), path -> path.vertices().size());
+    }
+
+    @Override
+    public Path<L> aStar(L src, L dst, ToDoubleFunction<L> heuristic) {
+        return graph.aStar(src, dst, heuristic);
+    }
+
+    @Override
+    public double[][] distanceMatrix(Collection<L> sources, Collection<L> targets) {
+        return graph.distanceMatrix(sources, targets);
+    }
+
+    @Override
+    public Map<L, Double> deltaStepping(L src, double delta) {
+        return graph.deltaStepping(src, delta);
+    }
+
+    @Override
+    public Map<L, Integer> hops(L src) {
+        return graph.hops(src);
+    }
+
+    @Override
+    public Components<L> weaklyConnectedComponents() {
+        return graph.weaklyConnectedComponents();
+    }
+
+    @Override
+    public Components<L> stronglyConnectedComponents() {
+        return graph.stronglyConnectedComponents();
+    }
+
+    @Override
+    public TopologicalOrder<L> topologicalOrder() {
+        return graph.topologicalOrder();
+    }
+
+    @Override
+    public Ranks<L> pageRank() {
+        return graph.pageRank();
+    }
+
+    @Override
+    public Ranks<L> personalizedPageRank(Map<L, Double> teleport) {
+        return graph.personalizedPageRank(teleport);
+    }
+}
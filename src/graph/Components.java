@@ -0,0 +1,125 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Partition of the vertices of a graph into components numbered densely
+ * from 0. The component of every vertex is stored in an array indexed by the
+ * vertex ids of a {@link CsrGraph} snapshot.
+ *
+ * @param <L> type of vertex labels
+ */
+public final class Components<L> {
+    private final VertexIndex<L> index;
+    private final int[] ids;
+    private final int count;
+
+    Components(VertexIndex<L> index, int[] ids, int count) {
+        this.index = index;
+        this.ids = ids;
+        this.count = count;
+    }
+
+    /**
+     * Weakly connected components on the common pool.
+     *
+     * @see #weak(Graph, ForkJoinPool)
+     */
+    public static <L> Components<L> weak(Graph<L> graph) {
+        return weak(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Weakly connected components: two vertices are in the same component if
+     * they are linked by a path that ignores the direction of the edges. The
+     * edges are merged in parallel into a {@link ConcurrentUnionFind}.
+     * Components are numbered in the order of their first vertex.
+     *
+     * @param graph to split. A snapshot is taken, see {@link CsrGraph#of(Graph)}
+     * @param pool runs the unions
+     */
+    public static <L> Components<L> weak(Graph<L> graph, ForkJoinPool pool) {
+        CsrGraph<L> csr = CsrGraph.of(graph);
+        ConcurrentUnionFind unionFind = new ConcurrentUnionFind(csr.vertexCount());
+        unionFind.unionAll(csr, pool);
+
+        int[] ids = new int[csr.vertexCount()];
+        int count = unionFind.denseIds(ids);
+        return new Components<>(csr.index(), ids, count);
+    }
+
+    /**
+     * Strongly connected components: two vertices are in the same component if
+     * each one can be reached from the other. Computed by an iterative Tarjan,
+     * see {@link StrongComponents#tarjan(IntGraph, int[])}. If there is an edge
+     * from a component to another, the other one has the smaller number.
+     *
+     * @param graph to split. A snapshot is taken, see {@link CsrGraph#of(Graph)}
+     */
+    public static <L> Components<L> strong(Graph<L> graph) {
+        CsrGraph<L> csr = CsrGraph.of(graph);
+        int[] ids = new int[csr.vertexCount()];
+        int count = StrongComponents.tarjan(csr, ids);
+        return new Components<>(csr.index(), ids, count);
+    }
+
+    /**
+     * Strongly connected components computed in parallel by forward-backward,
+     * see {@link StrongComponents#forwardBackward(IntGraph, int[], ForkJoinPool)}.
+     * Components are numbered in the order of their first vertex.
+     *
+     * @param graph to split. A snapshot is taken, see {@link CsrGraph#of(Graph)}
+     * @param pool splits the sets of vertices
+     */
+    public static <L> Components<L> strong(Graph<L> graph, ForkJoinPool pool) {
+        CsrGraph<L> csr = CsrGraph.of(graph);
+        int[] ids = new int[csr.vertexCount()];
+        int count = StrongComponents.forwardBackward(csr, ids, pool);
+        return new Components<>(csr.index(), ids, count);
+    }
+
+    /**
+     * @return the number of components
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * @return the component of vertex, in [0, count()), or -1 if vertex is not
+     *         in the graph
+     */
+    public int component(L vertex) {
+        int id = index.id(vertex);
+        return id < 0 ? -1 : ids[id];
+    }
+
+    /**
+     * @return the component of every vertex indexed by the ids of
+     *         {@link #index()}. The array is not copied
+     */
+    public int[] ids() {
+        return ids;
+    }
+
+    /**
+     * @return the index giving the ids of the vertices
+     */
+    public VertexIndex<L> index() {
+        return index;
+    }
+
+    /**
+     * @return the vertices of every component, indexed by component
+     */
+    public List<List<L>> groups() {
+        List<List<L>> groups = new ArrayList<>(count);
+        for(int c = 0; c < count; c++)
+            groups.add(new ArrayList<>());
+        for(int v = 0; v < ids.length; v++)
+            groups.get(ids[v]).add(index.label(v));
+        return groups;
+    }
+}
@@ -0,0 +1,285 @@
+package graph;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Thread safe version of {@link AdjListGraph}: several threads can modify and
+ * query the graph at the same time.
+ *
+ * The out and in edges are stored in two levels of ConcurrentHashMap as in
+ * AdjListGraph. An edge is written in both maps while holding the lock of the
+ * stripe of its source, so that writers of the edges of different vertices do
+ * not wait for each other and the two maps always agree once a modification
+ * returns. Removing a vertex touches the edges of its neighbours and takes the
+ * whole graph exclusively.
+ *
+ * Every modification increments a version. Queries run on an immutable
+ * {@link CsrGraph} snapshot taken by {@link #snapshot()}: writers are held
+ * only while the snapshot is copied, and the snapshot is reused as long as
+ * the version does not change, so repeated queries between two writes share
+ * one copy. {@link #vertices()}, {@link #sources(Object)} and
+ * {@link #targets(Object)} are read only live views, which can be ahead of
+ * each other while writes proceed.
+ *
+ * @param <L> type of vertex labels in this graph. Must implement hashCode() and be immutable
+ */
+public class ConcurrentAdjListGraph<L> implements Graph<L> {
+    private static final int STRIPES = 64;
+
+    private final ConcurrentHashMap<L, Map<L, Double>> graph = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<L, Map<L, Double>> sources = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    // shared by writers of edges, exclusive for vertex removals and snapshots
+    private final ReentrantReadWriteLock structure = new ReentrantReadWriteLock();
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot<L> snapshot;
+
+    /**
+     * Immutable copy of the graph with the version it was taken at.
+     *
+     * @param <L> type of vertex labels
+     */
+    public static final class Snapshot<L> {
+        private final long version;
+        private final CsrGraph<L> graph;
+
+        private Snapshot(long version, CsrGraph<L> graph) {
+            this.version = version;
+            this.graph = graph;
+        }
+
+        /**
+         * @return the version of the graph the snapshot was taken at
+         */
+        public long version() {
+            return version;
+        }
+
+        public CsrGraph<L> graph() {
+            return graph;
+        }
+    }
+
+    public ConcurrentAdjListGraph() {
+        for(int i = 0; i < STRIPES; i++)
+            stripes[i] = new ReentrantLock();
+    }
+
+    private ReentrantLock stripe(L vertex) {
+        int h = vertex.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    /**
+     * @return the number of modifications applied to this graph so far
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Snapshot of the current state of this graph. The snapshot of the previous
+     * call is returned if the graph was not modified since. Otherwise writers
+     * wait while the graph is copied.
+     *
+     * @return an immutable copy of this graph and its version
+     */
+    public Snapshot<L> snapshot() {
+        Snapshot<L> current = snapshot;
+        if(current != null && current.version == version.get())
+            return current;
+
+        structure.writeLock().lock();
+        try {
+            current = snapshot;
+            long v = version.get();
+            if(current == null || current.version != v) {
+                current = new Snapshot<>(v, CsrGraph.copy(this));
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            structure.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the graph of {@link #snapshot()}
+     */
+    public CsrGraph<L> freeze() {
+        return snapshot().graph();
+    }
+
+    @Override
+    public boolean add(L vertex) {
+        structure.readLock().lock();
+        try {
+            if(graph.putIfAbsent(vertex, new ConcurrentHashMap<>()) != null)
+                return false;
+            version.incrementAndGet();
+            return true;
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double set(L source, L target, double weight) {
+        structure.readLock().lock();
+        ReentrantLock lock = stripe(source);
+        lock.lock();
+        try {
+            Map<L, Double> targets = graph.computeIfAbsent(source, k -> new ConcurrentHashMap<>());
+            graph.computeIfAbsent(target, k -> new ConcurrentHashMap<>());
+            sources.computeIfAbsent(target, k -> new ConcurrentHashMap<>()).put(source, weight);
+            Double ret = targets.put(target, weight);
+            version.incrementAndGet();
+            return ret == null ? 0 : ret;
+        } finally {
+            lock.unlock();
+            structure.readLock().unlock();
+        }
+    }
+
+    /**
+     * The whole batch is applied under the exclusive lock: writers wait, and
+     * snapshots see all of the edges or none. The version is incremented once.
+     */
+    @Override
+    public void setAll(Iterable<Edge<L>> edges) {
+        structure.writeLock().lock();
+        try {
+            boolean modified = false;
+            for(Edge<L> edge : edges) {
+                Map<L, Double> targets = graph.computeIfAbsent(edge.source(), k -> new ConcurrentHashMap<>());
+                graph.computeIfAbsent(edge.target(), k -> new ConcurrentHashMap<>());
+                sources.computeIfAbsent(edge.target(), k -> new ConcurrentHashMap<>()).put(edge.source(), edge.weight());
+                targets.put(edge.target(), edge.weight());
+                modified = true;
+            }
+            if(modified)
+                version.incrementAndGet();
+        } finally {
+            structure.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(L vertex) {
+        return removeAll(Collections.singleton(vertex));
+    }
+
+    /**
+     * The vertices are removed under one exclusive lock and the version is
+     * incremented once. The edges between two removed vertices are dropped
+     * with the vertices.
+     */
+    @Override
+    public boolean removeAll(Collection<L> vertices) {
+        structure.writeLock().lock();
+        try {
+            Set<L> removed = new HashSet<>();
+            for(L vertex : vertices) {
+                if(graph.containsKey(vertex))
+                    removed.add(vertex);
+            }
+            if(removed.isEmpty())
+                return false;
+
+            for(L vertex : removed) {
+                Map<L, Double> t = graph.remove(vertex);
+                Map<L, Double> s = sources.remove(vertex);
+                // remove edges pointing to vertex
+                if(s != null) {
+                    for(L source : s.keySet()) {
+                        if(!removed.contains(source))
+                            graph.get(source).remove(vertex);
+                    }
+                }
+                // remove vertex from the parents of its targets
+                for(L target : t.keySet()) {
+                    if(!removed.contains(target))
+                        sources.get(target).remove(vertex);
+                }
+            }
+            version.incrementAndGet();
+            return true;
+        } finally {
+            structure.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<L> vertices() {
+        return Collections.unmodifiableSet(graph.keySet());
+    }
+
+    @Override
+    public Map<L, Double> sources(L target) {
+        Map<L, Double> in = sources.get(target);
+        return in == null ? null : Collections.unmodifiableMap(in);
+    }
+
+    @Override
+    public Map<L, Double> targets(L source) {
+        Map<L, Double> out = graph.get(source);
+        return out == null ? null : Collections.unmodifiableMap(out);
+    }
+
+    @Override
+    public void dfs(Consumer<L> function) {
+        freeze().dfs(function);
+    }
+
+    @Override
+    public void dfs(L vertex, Consumer<L> function) {
+        freeze().dfs(vertex, function);
+    }
+
+    @Override
+    public void bfs(Consumer<L> function) {
+        freeze().bfs(function);
+    }
+
+    @Override
+    public void bfs(L vertex, Consumer<L> function) {
+        freeze().bfs(vertex, function);
+    }
+
+    @Override
+    @Deprecated
+    public int minimumSpanningTree(Function<L, Integer> func) {
+        return (int) minimumSpanningForest().cost();
+    }
+
+    @Override
+    public Map<L, Double> dijkstra(L src) {
+        return freeze().dijkstra(src);
+    }
+
+    @Override
+    public Path<L> shortestPath(L src, L dst) {
+        return freeze().shortestPath(src, dst);
+    }
+
+    @Override
+    public Path<L> bidirectionalShortestPath(L src, L dst) {
+        return freeze().bidirectionalShortestPath(src, dst);
+    }
+
+    @Override
+    public Path<L> aStar(L src, L dst, ToDoubleFunction<L> heuristic) {
+        return freeze().aStar(src, dst, heuristic);
+    }
+}
@@ -0,0 +1,181 @@
+package graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Union find over the ints [0, size) that many threads can use at once
+ * without locks.
+ *
+ * Parents are kept in an {@link AtomicIntegerArray}. Two roots are linked by
+ * a compare and set of the parent of the larger one, which must still be a
+ * root, to the smaller one: links always go to smaller ints so they never
+ * form a cycle, and a link that loses a race is retried from the new roots.
+ * Finds halve the path they walk with best effort compare and sets; a
+ * failed one only means another thread already shortened the path.
+ */
+public class ConcurrentUnionFind {
+    /** Number of elements handled by one task of the bulk operations */
+    private static final int GRAIN = 4096;
+
+    private final AtomicIntegerArray parents;
+
+    public ConcurrentUnionFind(int size) {
+        parents = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++)
+            parents.set(i, i);
+    }
+
+    public int size() {
+        return parents.length();
+    }
+
+    /**
+     * @return the root of the set of e. It may change as soon as another
+     *         thread links it
+     */
+    public int find(int e) {
+        int parent = parents.get(e);
+        while(parent != e) {
+            int grand_parent = parents.get(parent);
+            // make node to point to his grand parent to flatten the tree
+            if(grand_parent != parent)
+                parents.compareAndSet(e, parent, grand_parent);
+            e = grand_parent;
+            parent = parents.get(e);
+        }
+        return e;
+    }
+
+    /**
+     * @return true if a and b are in the same set. Exact when no union runs
+     *         at the same time
+     */
+    public boolean connected(int a, int b) {
+        while(true) {
+            int i = find(a);
+            int j = find(b);
+            if(i == j)
+                return true;
+            // i is still a root, so a and b were in different sets when j was found
+            if(parents.get(i) == i)
+                return false;
+        }
+    }
+
+    /**
+     * Merge the sets of a and b.
+     *
+     * @return true if they were in different sets
+     */
+    public boolean union(int a, int b) {
+        while(true) {
+            int i = find(a);
+            int j = find(b);
+            if(i == j)
+                return false;
+            if(i < j) {
+                int tmp = i;
+                i = j;
+                j = tmp;
+            }
+            if(parents.compareAndSet(i, i, j))
+                return true;
+        }
+    }
+
+    /**
+     * Merge the sets of a[k] and b[k] for every k, in parallel.
+     */
+    public void unionAll(int[] a, int[] b, ForkJoinPool pool) {
+        if(a.length != b.length)
+            throw new IllegalArgumentException("Lengths differ: " + a.length + " != " + b.length);
+        pool.invoke(new PairUnions(a, b, 0, a.length));
+    }
+
+    /**
+     * Merge the ends of every edge of graph, in parallel. The graph must have
+     * at most size() vertices.
+     */
+    public void unionAll(IntGraph graph, ForkJoinPool pool) {
+        pool.invoke(new EdgeUnions(graph, 0, graph.vertexCount()));
+    }
+
+    /**
+     * Number the sets densely. Must not run at the same time as a union.
+     *
+     * @param ids receives the number of the set of every element, sets being
+     *        numbered from 0 in the order of their smallest element
+     * @return the number of sets
+     */
+    public int denseIds(int[] ids) {
+        int count = 0;
+        for(int e = 0; e < size(); e++) {
+            int root = find(e);
+            // roots are the smallest element of their set, so they are numbered first
+            ids[e] = root == e ? count++ : ids[root];
+        }
+        return count;
+    }
+
+    /**
+     * Merge a[k] and b[k] for k in [from, to).
+     */
+    private final class PairUnions extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int[] b;
+        private final int from;
+        private final int to;
+
+        PairUnions(int[] a, int[] b, int from, int to) {
+            this.a = a;
+            this.b = b;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new PairUnions(a, b, from, middle), new PairUnions(a, b, middle, to));
+                return;
+            }
+            for(int k = from; k < to; k++)
+                union(a[k], b[k]);
+        }
+    }
+
+    /**
+     * Merge the ends of the out edges of the vertices [from, to).
+     */
+    private final class EdgeUnions extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntGraph graph;
+        private final int from;
+        private final int to;
+
+        EdgeUnions(IntGraph graph, int from, int to) {
+            this.graph = graph;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new EdgeUnions(graph, from, middle), new EdgeUnions(graph, middle, to));
+                return;
+            }
+            for(int u = from; u < to; u++) {
+                for(int e = graph.begin(u); e < graph.end(u); e++)
+                    union(u, graph.target(e));
+            }
+        }
+    }
+}
@@ -0,0 +1,733 @@
+package graph;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Contraction hierarchy over a snapshot of a static graph.
+ *
+ * Preprocessing contracts the vertices one after the other: a contracted
+ * vertex v is removed from the graph and, for each pair of neighbours u -> v
+ * -> w whose shortest path goes through v, a shortcut edge u -> w is added.
+ * A vertex's rank is its contraction order. Every shortest path of the
+ * original graph then has an equivalent path that first only goes up in
+ * rank and then only goes down, so a query runs two small Dijkstra searches:
+ * forward from the source over edges going up, and backward from the target
+ * over edges coming down. Shortcuts are unpacked back into original edges to
+ * return the path.
+ *
+ * Vertices are contracted in rounds. Each round takes the uncontracted
+ * vertices whose priority (twice the number of shortcuts added minus the
+ * number of edges removed, plus the number of contracted neighbours and the
+ * depth of the hierarchy below the vertex) is smaller than the one of all
+ * their neighbours. These vertices are pairwise non adjacent, so their
+ * witness searches and priority updates run in parallel; the shortcuts are
+ * then added sequentially.
+ *
+ * @Precondition Non negative edges
+ *
+ * @param <L> type of vertex labels
+ */
+public final class ContractionHierarchy<L> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of vertices a witness search may settle before giving up, when
+     * contracting a vertex and when only estimating its priority. Giving up
+     * early adds useless shortcuts but never loses a shortest path
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 100;
+    private static final int SIMULATION_SETTLE_LIMIT = 10;
+
+    private static final ThreadLocal<DijkstraEngine[]> QUERY = ThreadLocal.withInitial(
+            () -> new DijkstraEngine[] {new DijkstraEngine(0), new DijkstraEngine(0)});
+
+    private final VertexIndex<L> index;
+    private final int[] rank;
+    // edges from a vertex to a vertex of higher rank
+    private final UpwardGraph forward;
+    // edges to a vertex from a vertex of higher rank, reversed
+    private final UpwardGraph backward;
+    // every edge, original and shortcut. first and second are the two edges
+    // a shortcut replaces, -1 for an original edge
+    private final int[] edgeTarget;
+    private final double[] edgeWeight;
+    private final int[] edgeFirst;
+    private final int[] edgeSecond;
+
+    private ContractionHierarchy(VertexIndex<L> index, Contractor contractor) {
+        this.index = index;
+        this.rank = contractor.rank;
+        int m = contractor.edgeCount;
+        this.edgeTarget = Arrays.copyOf(contractor.to, m);
+        this.edgeWeight = Arrays.copyOf(contractor.weight, m);
+        this.edgeFirst = Arrays.copyOf(contractor.first, m);
+        this.edgeSecond = Arrays.copyOf(contractor.second, m);
+        this.forward = contractor.upward(true);
+        this.backward = contractor.upward(false);
+    }
+
+    /**
+     * Contract every vertex of graph. Witness searches and priority updates
+     * run on the common fork join pool.
+     *
+     * @param graph to preprocess. A snapshot is taken, see {@link CsrGraph#of(Graph)}
+     * @return the hierarchy
+     */
+    public static <L> ContractionHierarchy<L> build(Graph<L> graph) {
+        CsrGraph<L> csr = CsrGraph.of(graph);
+        Contractor contractor = new Contractor(csr);
+        contractor.contract();
+        return new ContractionHierarchy<>(csr.index(), contractor);
+    }
+
+    /**
+     * @return the number of shortcuts added by the preprocessing
+     */
+    public int shortcutCount() {
+        int count = 0;
+        for(int first : edgeFirst) {
+            if(first >= 0)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the contraction order of vertex, or -1 if it is not in the graph
+     */
+    public int rank(L vertex) {
+        int id = index.id(vertex);
+        return id < 0 ? -1 : rank[id];
+    }
+
+    /**
+     * Run the two upward searches.
+     *
+     * @return the vertex of highest rank on the shortest path, or -1 if
+     *         target is not reachable
+     */
+    private int search(DijkstraEngine up, DijkstraEngine down, int source, int target) {
+        up.start(forward, source);
+        down.start(backward, target);
+        double best = Double.POSITIVE_INFINITY;
+        int meet = -1;
+
+        // Unlike plain bidirectional Dijkstra, each side has to go on until
+        // its own next distance reaches the best cost
+        while(true) {
+            boolean up_open = !up.isDone() && up.nextDistance() < best;
+            boolean down_open = !down.isDone() && down.nextDistance() < best;
+            if(!up_open && !down_open)
+                break;
+
+            boolean go_up = up_open && (!down_open || up.nextDistance() <= down.nextDistance());
+            DijkstraEngine side = go_up ? up : down;
+            DijkstraEngine other = go_up ? down : up;
+            int vertex = side.settleNext();
+            if(other.reached(vertex)) {
+                double cost = side.distance(vertex) + other.distance(vertex);
+                if(cost < best) {
+                    best = cost;
+                    meet = vertex;
+                }
+            }
+        }
+
+        return meet;
+    }
+
+    /**
+     * @Precondition Non negative edges
+     *
+     * @param src Vertex from which the path starts
+     * @param dst Vertex at which the path ends
+     * @return the cost of the shortest path from src to dst, or positive infinity
+     *         if dst is not reachable from src or one of them is not in the graph
+     */
+    public double distance(L src, L dst) {
+        int source = index.id(src);
+        int target = index.id(dst);
+        if(source < 0 || target < 0)
+            return Double.POSITIVE_INFINITY;
+
+        DijkstraEngine[] engines = engines();
+        int meet = search(engines[0], engines[1], source, target);
+        return meet < 0 ? Double.POSITIVE_INFINITY : engines[0].distance(meet) + engines[1].distance(meet);
+    }
+
+    /**
+     * Find the shortest path from src to dst and unpack its shortcuts. The cost
+     * of the path is summed over the original edges, from src to dst, so it is
+     * exactly the one {@link Graph#dijkstra(Object)} computes.
+     *
+     * @param src Vertex from which the path starts
+     * @param dst Vertex at which the path ends
+     * @return the shortest path from src to dst, or null if dst is not reachable
+     *         from src or one of them is not in the graph
+     */
+    public Path<L> shortestPath(L src, L dst) {
+        int source = index.id(src);
+        int target = index.id(dst);
+        if(source < 0 || target < 0)
+            return null;
+
+        DijkstraEngine[] engines = engines();
+        DijkstraEngine up = engines[0];
+        DijkstraEngine down = engines[1];
+        int meet = search(up, down, source, target);
+        if(meet < 0)
+            return null;
+
+        // Edges of the hierarchy from source to meet, then from meet to target
+        IntList up_path = new IntList();
+        up.pathTo(meet, up_path);
+        IntList edges = new IntList();
+        for(int i = 1; i < up_path.size(); i++)
+            edges.add(forward.cheapestEdge(up_path.get(i - 1), up_path.get(i)));
+        for(int v = meet; down.parent(v) >= 0; v = down.parent(v))
+            edges.add(backward.cheapestEdge(down.parent(v), v));
+
+        List<L> vertices = new ArrayList<>();
+        vertices.add(src);
+        double cost = 0;
+        IntList stack = new IntList();
+        for(int i = 0; i < edges.size(); i++) {
+            stack.add(edges.get(i));
+            while(!stack.isEmpty()) {
+                int e = stack.pop();
+                if(edgeFirst[e] < 0) {
+                    vertices.add(index.label(edgeTarget[e]));
+                    cost += edgeWeight[e];
+                } else {
+                    stack.add(edgeSecond[e]);
+                    stack.add(edgeFirst[e]);
+                }
+            }
+        }
+
+        return new Path<>(vertices, cost, up.settledCount() + down.settledCount());
+    }
+
+    private DijkstraEngine[] engines() {
+        DijkstraEngine[] engines = QUERY.get();
+        engines[0].ensureCapacity(rank.length);
+        engines[1].ensureCapacity(rank.length);
+        return engines;
+    }
+
+    /**
+     * Half of the hierarchy in compressed sparse row form. Each edge also
+     * records the id of the hierarchy edge it stands for.
+     */
+    private static final class UpwardGraph implements IntGraph, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] offsets;
+        private final int[] targets;
+        private final double[] weights;
+        private final int[] edges;
+
+        UpwardGraph(int[] offsets, int[] targets, double[] weights, int[] edges) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.edges = edges;
+        }
+
+        /**
+         * @return the id of the hierarchy edge of smallest weight from vertex
+         *         to target
+         */
+        int cheapestEdge(int vertex, int target) {
+            int best = -1;
+            for(int e = offsets[vertex]; e < offsets[vertex + 1]; e++) {
+                if(targets[e] == target && (best < 0 || weights[e] < weights[best]))
+                    best = e;
+            }
+            return edges[best];
+        }
+
+        @Override
+        public int vertexCount() {
+            return offsets.length - 1;
+        }
+
+        @Override
+        public int edgeCount() {
+            return targets.length;
+        }
+
+        @Override
+        public int begin(int vertex) {
+            return offsets[vertex];
+        }
+
+        @Override
+        public int end(int vertex) {
+            return offsets[vertex + 1];
+        }
+
+        @Override
+        public int target(int edge) {
+            return targets[edge];
+        }
+
+        @Override
+        public double weight(int edge) {
+            return weights[edge];
+        }
+
+        @Override
+        public IntGraph reverse() {
+            throw new UnsupportedOperationException("Half of a hierarchy cannot be reversed");
+        }
+    }
+
+    /**
+     * Dense slots 0, 1, ... for the few vertices a search touches, keyed by
+     * vertex id in an open addressing table. Clearing runs in the number of
+     * slots, not in the size of the table.
+     */
+    private static final class Slots {
+        private int[] keys = new int[16];
+        private int[] slots = new int[16];
+        // table index of the key of every slot
+        private int[] used = new int[8];
+        private int size;
+
+        Slots() {
+            Arrays.fill(keys, -1);
+        }
+
+        private int index(int vertex) {
+            int mask = keys.length - 1;
+            int h = vertex * 0x9E3779B9;
+            int i = (h ^ (h >>> 16)) & mask;
+            while(keys[i] != vertex && keys[i] != -1)
+                i = (i + 1) & mask;
+            return i;
+        }
+
+        /**
+         * @return the slot of vertex, -1 if it has none
+         */
+        int get(int vertex) {
+            int i = index(vertex);
+            return keys[i] == vertex ? slots[i] : -1;
+        }
+
+        /**
+         * @param vertex without a slot
+         * @return the new slot of vertex, the number of slots before
+         */
+        int add(int vertex) {
+            if(size == used.length) {
+                int[] old = keys;
+                keys = new int[2 * old.length];
+                slots = new int[2 * old.length];
+                used = Arrays.copyOf(used, 2 * size);
+                Arrays.fill(keys, -1);
+                for(int slot = 0; slot < size; slot++) {
+                    int key = old[used[slot]];
+                    int i = index(key);
+                    keys[i] = key;
+                    slots[i] = slot;
+                    used[slot] = i;
+                }
+            }
+            int i = index(vertex);
+            keys[i] = vertex;
+            slots[i] = size;
+            used[size] = i;
+            return size++;
+        }
+
+        void clear() {
+            for(int slot = 0; slot < size; slot++)
+                keys[used[slot]] = -1;
+            size = 0;
+        }
+    }
+
+    /**
+     * Scratch state of one thread for witness searches. Searches settle a few
+     * hundred vertices at most, so the state is indexed by slots rather than
+     * by vertex id: it stays small however large the graph is.
+     */
+    private static final class Witness {
+        // vertices reached by the search, the heap holds their slots
+        final Slots reached = new Slots();
+        final IndexedDHeap heap = new IndexedDHeap(16);
+        double[] dist = new double[16];
+        int[] vertices = new int[16];
+        // neighbours of the vertex being contracted, one entry per neighbour
+        // with the cheapest edge to or from it. The slot of a neighbour is its
+        // position in ins or outs
+        final Slots seen = new Slots();
+        final IntList ins = new IntList();
+        final IntList inEdges = new IntList();
+        final IntList outs = new IntList();
+        final IntList outEdges = new IntList();
+
+        /**
+         * @return the slot of the newly reached vertex
+         */
+        int reach(int vertex, double cost) {
+            int slot = reached.add(vertex);
+            if(slot == dist.length) {
+                dist = Arrays.copyOf(dist, 2 * slot);
+                vertices = Arrays.copyOf(vertices, 2 * slot);
+                heap.ensureCapacity(2 * slot);
+            }
+            dist[slot] = cost;
+            vertices[slot] = vertex;
+            heap.insert(slot, cost);
+            return slot;
+        }
+    }
+
+    /**
+     * Shortcuts found for one contracted vertex.
+     */
+    private static final class Shortcuts {
+        final IntList sources = new IntList(4);
+        final IntList targets = new IntList(4);
+        final IntList firsts = new IntList(4);
+        final IntList seconds = new IntList(4);
+    }
+
+    /**
+     * Contraction state: the graph of the remaining vertices with all the
+     * shortcuts added so far.
+     */
+    private static final class Contractor {
+        final int n;
+        int edgeCount;
+        int[] from;
+        int[] to;
+        double[] weight;
+        int[] first;
+        int[] second;
+        final IntList[] out;
+        final IntList[] in;
+        // contraction order, -1 while a vertex is in the graph
+        final int[] rank;
+        // vertices contracted in the current round
+        final boolean[] inRound;
+        final int[] contractedNeighbours;
+        final int[] priority;
+        // depth of the hierarchy already built below each vertex
+        final int[] level;
+        final ThreadLocal<Witness> witness;
+
+        Contractor(IntGraph graph) {
+            n = graph.vertexCount();
+            int capacity = Math.max(graph.edgeCount() * 2, 16);
+            from = new int[capacity];
+            to = new int[capacity];
+            weight = new double[capacity];
+            first = new int[capacity];
+            second = new int[capacity];
+            out = new IntList[n];
+            in = new IntList[n];
+            for(int v = 0; v < n; v++) {
+                out[v] = new IntList(graph.end(v) - graph.begin(v));
+                in[v] = new IntList(4);
+            }
+            rank = new int[n];
+            Arrays.fill(rank, -1);
+            inRound = new boolean[n];
+            contractedNeighbours = new int[n];
+            priority = new int[n];
+            level = new int[n];
+            witness = ThreadLocal.withInitial(Witness::new);
+
+            for(int v = 0; v < n; v++) {
+                for(int e = graph.begin(v); e < graph.end(v); e++) {
+                    // loops never belong to a shortest path
+                    if(graph.target(e) != v)
+                        addEdge(v, graph.target(e), graph.weight(e), -1, -1);
+                }
+            }
+        }
+
+        private void addEdge(int u, int w, double cost, int first_edge, int second_edge) {
+            if(edgeCount == from.length) {
+                int capacity = edgeCount + (edgeCount >> 1);
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+                first = Arrays.copyOf(first, capacity);
+                second = Arrays.copyOf(second, capacity);
+            }
+            int e = edgeCount++;
+            from[e] = u;
+            to[e] = w;
+            weight[e] = cost;
+            first[e] = first_edge;
+            second[e] = second_edge;
+            out[u].add(e);
+            in[w].add(e);
+        }
+
+        private boolean removed(int v) {
+            return rank[v] >= 0 || inRound[v];
+        }
+
+        /**
+         * Collect the remaining neighbours of vertex with their cheapest edge.
+         */
+        private void neighbours(int vertex, IntList edges, boolean incoming, IntList neighbours, IntList cheapest, Witness ws) {
+            neighbours.clear();
+            cheapest.clear();
+            ws.seen.clear();
+            for(int i = 0; i < edges.size(); i++) {
+                int e = edges.get(i);
+                int neigh = incoming ? from[e] : to[e];
+                if(neigh == vertex || rank[neigh] >= 0)
+                    continue;
+                int slot = ws.seen.get(neigh);
+                if(slot < 0) {
+                    ws.seen.add(neigh);
+                    neighbours.add(neigh);
+                    cheapest.add(e);
+                } else if(weight[e] < weight[cheapest.get(slot)]) {
+                    cheapest.set(slot, e);
+                }
+            }
+        }
+
+        /**
+         * Dijkstra from source over the remaining vertices, avoiding the
+         * vertices contracted in this round, until every out neighbour of
+         * avoid (in seen) is settled, or limit or the settle limit is reached.
+         */
+        private void witnessSearch(int source, int avoid, double limit, int settle_limit, Witness ws) {
+            ws.heap.clear();
+            ws.reached.clear();
+            ws.reach(source, 0);
+
+            int settled = 0;
+            int targets = ws.outs.size();
+            while(!ws.heap.isEmpty() && settled++ < settle_limit) {
+                int slot = ws.heap.pop();
+                int vertex = ws.vertices[slot];
+                double cost = ws.dist[slot];
+                if(cost > limit)
+                    break;
+                if(ws.seen.get(vertex) >= 0 && --targets == 0)
+                    break;
+
+                IntList edges = out[vertex];
+                for(int i = 0; i < edges.size(); i++) {
+                    int e = edges.get(i);
+                    int neigh = to[e];
+                    if(neigh == avoid || removed(neigh))
+                        continue;
+                    double new_cost = cost + weight[e];
+                    int reached = ws.reached.get(neigh);
+                    if(reached < 0) {
+                        ws.reach(neigh, new_cost);
+                    } else if(new_cost < ws.dist[reached] && ws.heap.contains(reached)) {
+                        ws.dist[reached] = new_cost;
+                        ws.heap.decreaseKey(reached, new_cost);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Find the shortcuts needed to contract vertex.
+         *
+         * @param found receives the shortcuts, or null to only count them
+         * @return the number of shortcuts
+         */
+        private int shortcuts(int vertex, Shortcuts found) {
+            Witness ws = witness.get();
+            neighbours(vertex, in[vertex], true, ws.ins, ws.inEdges, ws);
+            neighbours(vertex, out[vertex], false, ws.outs, ws.outEdges, ws);
+            if(ws.ins.isEmpty() || ws.outs.isEmpty())
+                return 0;
+
+            double max_out = 0;
+            for(int j = 0; j < ws.outEdges.size(); j++)
+                max_out = Math.max(max_out, weight[ws.outEdges.get(j)]);
+
+            int count = 0;
+            for(int i = 0; i < ws.ins.size(); i++) {
+                int u = ws.ins.get(i);
+                int in_edge = ws.inEdges.get(i);
+                witnessSearch(u, vertex, weight[in_edge] + max_out, found == null ? SIMULATION_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT, ws);
+
+                for(int j = 0; j < ws.outs.size(); j++) {
+                    int w = ws.outs.get(j);
+                    if(w == u)
+                        continue;
+                    int out_edge = ws.outEdges.get(j);
+                    double via = weight[in_edge] + weight[out_edge];
+                    // a path no longer than via avoiding vertex makes the shortcut useless
+                    int reached = ws.reached.get(w);
+                    if(reached >= 0 && ws.dist[reached] <= via)
+                        continue;
+
+                    count++;
+                    if(found != null) {
+                        found.sources.add(u);
+                        found.targets.add(w);
+                        found.firsts.add(in_edge);
+                        found.seconds.add(out_edge);
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Drop the edges to or from contracted vertices from an edge list.
+         */
+        private void prune(IntList edges, boolean incoming) {
+            int kept = 0;
+            for(int i = 0; i < edges.size(); i++) {
+                int e = edges.get(i);
+                if(rank[incoming ? from[e] : to[e]] < 0)
+                    edges.set(kept++, e);
+            }
+            edges.truncate(kept);
+        }
+
+        private int computePriority(int vertex) {
+            Witness ws = witness.get();
+            int shortcuts = shortcuts(vertex, null);
+            // ins and outs still hold the neighbours of vertex
+            return 2 * (shortcuts - ws.ins.size() - ws.outs.size()) + contractedNeighbours[vertex] + level[vertex];
+        }
+
+        /**
+         * @return true if vertex comes before every remaining neighbour
+         */
+        private boolean isLocalMinimum(int vertex) {
+            for(int pass = 0; pass < 2; pass++) {
+                IntList edges = pass == 0 ? out[vertex] : in[vertex];
+                for(int i = 0; i < edges.size(); i++) {
+                    int e = edges.get(i);
+                    int neigh = pass == 0 ? to[e] : from[e];
+                    if(neigh == vertex || rank[neigh] >= 0)
+                        continue;
+                    if(priority[neigh] < priority[vertex]
+                            || (priority[neigh] == priority[vertex] && tieBreak(neigh) < tieBreak(vertex)))
+                        return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * A permutation of the ids: two neighbours with the same priority
+         * never have the same tie break, so they are never both contracted
+         * in a round.
+         */
+        private static int tieBreak(int vertex) {
+            // spread consecutive ids so that ties do not form long chains. An
+            // odd multiplier and a xor shift are both invertible
+            int h = vertex * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        void contract() {
+            IntStream.range(0, n).parallel().forEach(v -> priority[v] = computePriority(v));
+
+            int[] remaining = IntStream.range(0, n).toArray();
+            int next_rank = 0;
+            int[] touched = new int[n];
+            int stamp = 0;
+            while(remaining.length > 0) {
+                int[] round = Arrays.stream(remaining).parallel().filter(this::isLocalMinimum).toArray();
+                for(int v : round)
+                    inRound[v] = true;
+
+                Shortcuts[] found = new Shortcuts[round.length];
+                IntStream.range(0, round.length).parallel().forEach(i -> {
+                    found[i] = new Shortcuts();
+                    shortcuts(round[i], found[i]);
+                });
+
+                for(int i = 0; i < round.length; i++) {
+                    int v = round[i];
+                    rank[v] = next_rank++;
+                    inRound[v] = false;
+                    Shortcuts s = found[i];
+                    for(int k = 0; k < s.sources.size(); k++) {
+                        int first_edge = s.firsts.get(k);
+                        int second_edge = s.seconds.get(k);
+                        addEdge(s.sources.get(k), s.targets.get(k), weight[first_edge] + weight[second_edge],
+                                first_edge, second_edge);
+                    }
+                }
+
+                // Update the priorities of the neighbours of contracted vertices
+                stamp++;
+                IntList neighbours = new IntList();
+                for(int v : round) {
+                    for(int pass = 0; pass < 2; pass++) {
+                        IntList edges = pass == 0 ? out[v] : in[v];
+                        for(int i = 0; i < edges.size(); i++) {
+                            int e = edges.get(i);
+                            int neigh = pass == 0 ? to[e] : from[e];
+                            if(rank[neigh] >= 0)
+                                continue;
+                            contractedNeighbours[neigh]++;
+                            level[neigh] = Math.max(level[neigh], level[v] + 1);
+                            if(touched[neigh] != stamp) {
+                                touched[neigh] = stamp;
+                                neighbours.add(neigh);
+                            }
+                        }
+                    }
+                }
+                int[] update = neighbours.toArray();
+                IntStream.range(0, update.length).parallel().forEach(i -> {
+                    prune(out[update[i]], false);
+                    prune(in[update[i]], true);
+                });
+                IntStream.range(0, update.length).parallel().forEach(i -> priority[update[i]] = computePriority(update[i]));
+
+                remaining = Arrays.stream(remaining).filter(v -> rank[v] < 0).toArray();
+            }
+        }
+
+        /**
+         * Build one half of the hierarchy.
+         *
+         * @param up true for the edges going up from their source, false for
+         *        the edges coming down to their target, stored reversed
+         */
+        UpwardGraph upward(boolean up) {
+            int[] offsets = new int[n + 1];
+            for(int e = 0; e < edgeCount; e++) {
+                if(up == rank[from[e]] < rank[to[e]])
+                    offsets[(up ? from[e] : to[e]) + 1]++;
+            }
+            for(int v = 0; v < n; v++)
+                offsets[v + 1] += offsets[v];
+
+            int m = offsets[n];
+            int[] targets = new int[m];
+            double[] weights = new double[m];
+            int[] edges = new int[m];
+            int[] fill = Arrays.copyOf(offsets, n);
+            for(int e = 0; e < edgeCount; e++) {
+                if(up == rank[from[e]] < rank[to[e]]) {
+                    int slot = up ? fill[from[e]]++ : fill[to[e]]++;
+                    targets[slot] = up ? to[e] : from[e];
+                    weights[slot] = weight[e];
+                    edges[slot] = e;
+                }
+            }
+            return new UpwardGraph(offsets, targets, weights, edges);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package graph;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Immutable snapshot of a graph in compressed sparse row form. Labels are
+ * interned to dense ids by a {@link VertexIndex}. The out edges of vertex v
+ * are stored in targets[offsets[v] .. offsets[v+1]) with their weights at
+ * the same positions in weights. In edges are stored the same way in a
+ * second set of arrays so that sources() and reverse() do not need a scan.
+ *
+ * The edges of a vertex keep the iteration order of the graph the snapshot
+ * was taken from, so traversals give the same results as on that graph.
+ * All mutators throw UnsupportedOperationException.
+ *
+ * @param <L> type of vertex labels in this graph. Must be immutable
+ */
+public final class CsrGraph<L> extends AbstractIndexedGraph<L> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final VertexIndex<L> index;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] reverseOffsets;
+    private final int[] reverseTargets;
+    private final double[] reverseWeights;
+
+    private transient CsrGraph<L> reverse;
+
+    CsrGraph(VertexIndex<L> index, int[] offsets, int[] targets, double[] weights,
+             int[] reverseOffsets, int[] reverseTargets, double[] reverseWeights) {
+        this.index = index;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.reverseOffsets = reverseOffsets;
+        this.reverseTargets = reverseTargets;
+        this.reverseWeights = reverseWeights;
+    }
+
+    /**
+     * Take a snapshot of graph. Later modifications of graph are not visible
+     * in the snapshot.
+     *
+     * @param graph to copy
+     * @return graph itself if it already is a CsrGraph, the current snapshot of
+     *         a {@link ConcurrentAdjListGraph}, a new snapshot otherwise
+     */
+    public static <L> CsrGraph<L> of(Graph<L> graph) {
+        if(graph instanceof CsrGraph)
+            return (CsrGraph<L>) graph;
+        if(graph instanceof ConcurrentAdjListGraph)
+            return ((ConcurrentAdjListGraph<L>) graph).freeze();
+        return copy(graph);
+    }
+
+    /**
+     * Copy graph into a new snapshot. graph must not be modified during the copy.
+     */
+    static <L> CsrGraph<L> copy(Graph<L> graph) {
+        VertexIndex<L> index = VertexIndex.of(graph.vertices());
+        int n = index.size();
+
+        // Count out and in degrees to size the rows
+        int[] offsets = new int[n + 1];
+        int[] reverseOffsets = new int[n + 1];
+        for(int v = 0; v < n; v++) {
+            Map<L, Double> out = graph.targets(index.label(v));
+            if(out == null)
+                continue;
+            for(L target : out.keySet()) {
+                offsets[v + 1]++;
+                reverseOffsets[index.id(target) + 1]++;
+            }
+        }
+        for(int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+
+        int m = offsets[n];
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        int[] reverseTargets = new int[m];
+        double[] reverseWeights = new double[m];
+        int[] fill = Arrays.copyOf(reverseOffsets, n);
+
+        int e = 0;
+        for(int v = 0; v < n; v++) {
+            Map<L, Double> out = graph.targets(index.label(v));
+            if(out == null)
+                continue;
+            for(Map.Entry<L, Double> edge : out.entrySet()) {
+                int target = index.id(edge.getKey());
+                double weight = edge.getValue();
+                targets[e] = target;
+                weights[e++] = weight;
+                reverseTargets[fill[target]] = v;
+                reverseWeights[fill[target]++] = weight;
+            }
+        }
+
+        return new CsrGraph<>(index, offsets, targets, weights, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    /**
+     * @return the index mapping the labels of this graph to vertex ids
+     */
+    @Override
+    public VertexIndex<L> index() {
+        return index;
+    }
+
+    @Override
+    public int vertexCount() {
+        return index.size();
+    }
+
+    @Override
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    @Override
+    public int begin(int vertex) {
+        return offsets[vertex];
+    }
+
+    @Override
+    public int end(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    @Override
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    @Override
+    public double weight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * @return the transposed graph. It shares the arrays of this graph
+     */
+    @Override
+    public CsrGraph<L> reverse() {
+        CsrGraph<L> r = reverse;
+        if(r == null) {
+            r = new CsrGraph<>(index, reverseOffsets, reverseTargets, reverseWeights, offsets, targets, weights);
+            r.reverse = this;
+            reverse = r;
+        }
+        return r;
+    }
+
+    @Override
+    public boolean add(L vertex) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    @Override
+    public double set(L source, L target, double weight) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    @Override
+    public boolean remove(L vertex) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    @Override
+    public void setAll(Iterable<Edge<L>> edges) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    @Override
+    public boolean removeAll(Collection<L> vertices) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+}
@@ -0,0 +1,248 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel single source shortest paths by delta-stepping (Meyer and
+ * Sanders).
+ *
+ * Tentative distances are kept in buckets of width delta: bucket b holds the
+ * vertices whose distance is in [b * delta, (b + 1) * delta). Buckets are
+ * emptied in increasing order. The vertices of the current bucket are
+ * relaxed in parallel, those that improve to a distance in the same bucket
+ * form the next frontier, until the bucket stays empty; its distances are
+ * then final. A small delta does little wasted work but has small frontiers
+ * (delta = smallest weight is Dijkstra), a large one has wide frontiers but
+ * relaxes vertices several times (delta = infinity is Bellman-Ford). The
+ * average edge weight is a reasonable start.
+ *
+ * Distances are stored as the bits of their double value in an
+ * {@link AtomicLongArray}: for non negative doubles the order of the bits is
+ * the order of the values, so an improvement is a lock free compare and set
+ * of a smaller long. Each distance is the sum of the weights along a path,
+ * accumulated from the source, as in {@link DijkstraEngine}, so the result is
+ * the same as {@link Graph#dijkstra(Object)} (up to rounding when different
+ * shortest paths have sums that differ in the last bits).
+ *
+ * @Precondition Non negative edges
+ */
+public final class DeltaStepping {
+    /** Number of frontier vertices relaxed by one task */
+    private static final int GRAIN = 256;
+    private static final long INFINITY = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+    private static final long PENDING_NONE = -1;
+
+    private final IntGraph graph;
+    private final double delta;
+    private final ForkJoinPool pool;
+    private final AtomicLongArray dist;
+    // bucket in which each vertex is waiting, PENDING_NONE if it is not waiting
+    private final long[] pending;
+    private final TreeMap<Long, IntList> buckets = new TreeMap<>();
+    // vertices improved by each task of the current phase
+    private IntList[] improved = new IntList[0];
+
+    private DeltaStepping(IntGraph graph, double delta, ForkJoinPool pool) {
+        if(!(delta > 0))
+            throw new IllegalArgumentException("Bucket width must be positive: " + delta);
+        this.graph = graph;
+        this.delta = delta;
+        this.pool = pool;
+        int n = graph.vertexCount();
+        dist = new AtomicLongArray(n);
+        for(int v = 0; v < n; v++)
+            dist.lazySet(v, INFINITY);
+        pending = new long[n];
+        Arrays.fill(pending, PENDING_NONE);
+    }
+
+    /**
+     * Run on the common pool.
+     *
+     * @see #run(IntGraph, int, double, ForkJoinPool)
+     */
+    public static double[] run(IntGraph graph, int source, double delta) {
+        return run(graph, source, delta, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param graph to search
+     * @param source id of the vertex from which distances are computed
+     * @param delta width of the buckets, positive
+     * @param pool runs the relaxations
+     * @return distance from source to every vertex, indexed by vertex id.
+     *         Positive infinity for the vertices not reachable from source
+     */
+    public static double[] run(IntGraph graph, int source, double delta, ForkJoinPool pool) {
+        DeltaStepping search = new DeltaStepping(graph, delta, pool);
+        search.run(source);
+
+        double[] distances = new double[graph.vertexCount()];
+        for(int v = 0; v < distances.length; v++)
+            distances[v] = Double.longBitsToDouble(search.dist.get(v));
+        return distances;
+    }
+
+    /**
+     * Same result as {@link Graph#dijkstra(Object)}, computed in parallel on the
+     * common pool.
+     *
+     * @param graph to search
+     * @param src Vertex from which shortest path is computed
+     * @param delta width of the buckets, positive
+     * @return Map associating a vertex to the cost of the shortest path to it
+     */
+    public static <L> Map<L, Double> dijkstra(CsrGraph<L> graph, L src, double delta) {
+        int source = graph.index().id(src);
+        if(source < 0)
+            return new HashMap<>();
+
+        double[] distances = run(graph, source, delta);
+        Map<L, Double> shortestsPaths = new HashMap<>();
+        for(int v = 0; v < distances.length; v++) {
+            if(distances[v] != Double.POSITIVE_INFINITY)
+                shortestsPaths.put(graph.index().label(v), distances[v]);
+        }
+        return shortestsPaths;
+    }
+
+    private void run(int source) {
+        dist.set(source, Double.doubleToRawLongBits(0.0));
+        IntList frontier = new IntList();
+        frontier.add(source);
+        long bucket = 0;
+
+        while(true) {
+            while(!frontier.isEmpty()) {
+                relax(frontier);
+                frontier = collect(bucket);
+            }
+
+            Map.Entry<Long, IntList> next = buckets.pollFirstEntry();
+            if(next == null)
+                return;
+            bucket = next.getKey();
+            frontier = take(next.getValue(), bucket);
+        }
+    }
+
+    private long bucket(double distance) {
+        return (long) (distance / delta);
+    }
+
+    /**
+     * Keep the vertices that are still waiting in bucket, once each.
+     */
+    private IntList take(IntList waiting, long bucket) {
+        IntList frontier = new IntList(waiting.size());
+        for(int i = 0; i < waiting.size(); i++) {
+            int v = waiting.get(i);
+            if(pending[v] == bucket) {
+                pending[v] = PENDING_NONE;
+                frontier.add(v);
+            }
+        }
+        return frontier;
+    }
+
+    /**
+     * Relax the out edges of every vertex of the frontier, in parallel when the
+     * frontier is large enough to be split.
+     */
+    private void relax(IntList frontier) {
+        int tasks = (frontier.size() + GRAIN - 1) / GRAIN;
+        if(improved.length < tasks) {
+            int old = improved.length;
+            improved = Arrays.copyOf(improved, tasks);
+            for(int i = old; i < tasks; i++)
+                improved[i] = new IntList();
+        }
+
+        if(tasks == 1)
+            new Relax(frontier, 0, 1).compute();
+        else
+            pool.invoke(new Relax(frontier, 0, tasks));
+    }
+
+    /**
+     * Move the vertices improved by the last phase to their bucket.
+     *
+     * @return the improved vertices that belong to the current bucket
+     */
+    private IntList collect(long bucket) {
+        IntList frontier = new IntList();
+        for(IntList list : improved) {
+            for(int i = 0; i < list.size(); i++) {
+                int v = list.get(i);
+                long b = bucket(Double.longBitsToDouble(dist.get(v)));
+                if(b == bucket) {
+                    if(pending[v] != bucket) {
+                        pending[v] = bucket;
+                        frontier.add(v);
+                    }
+                } else if(pending[v] != b) {
+                    pending[v] = b;
+                    buckets.computeIfAbsent(b, key -> new IntList()).add(v);
+                }
+            }
+            list.clear();
+        }
+
+        for(int i = 0; i < frontier.size(); i++)
+            pending[frontier.get(i)] = PENDING_NONE;
+        return frontier;
+    }
+
+    /**
+     * Relax the frontier vertices of the tasks [from, to). Task i handles the
+     * vertices [i * GRAIN, (i + 1) * GRAIN) and records the vertices it
+     * improves in improved[i].
+     */
+    private final class Relax extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntList frontier;
+        private final int from;
+        private final int to;
+
+        Relax(IntList frontier, int from, int to) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Relax(frontier, from, middle), new Relax(frontier, middle, to));
+                return;
+            }
+
+            IntList out = improved[from];
+            int end = Math.min(frontier.size(), (from + 1) * GRAIN);
+            for(int i = from * GRAIN; i < end; i++) {
+                int u = frontier.get(i);
+                double du = Double.longBitsToDouble(dist.get(u));
+                for(int e = graph.begin(u); e < graph.end(u); e++) {
+                    int v = graph.target(e);
+                    long candidate = Double.doubleToRawLongBits(du + graph.weight(e));
+                    long current = dist.get(v);
+                    while(candidate < current) {
+                        if(dist.compareAndSet(v, current, candidate)) {
+                            out.add(v);
+                            break;
+                        }
+                        current = dist.get(v);
+                    }
+                }
+            }
+        }
+    }
+}
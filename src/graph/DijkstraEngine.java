@@ -0,0 +1,331 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Dijkstra's algorithm over the integer ids of an {@link IntGraph}.
+ *
+ * The engine owns its scratch state: an {@link IndexedDHeap} with real
+ * decrease-key, so the queue never holds more than one entry per vertex,
+ * and dist/parent arrays indexed by vertex id. Arrays are not cleared
+ * between runs: every run gets a new epoch and a vertex is only considered
+ * reached if its stamp equals the current epoch. Once the engine has grown
+ * to the size of the graph, a run allocates nothing and resetting costs
+ * nothing.
+ *
+ * A search can be given a potential, an estimate of the remaining distance
+ * from each vertex to the target. Vertices are then settled by increasing
+ * distance plus potential, which is A*: the search is pulled toward the
+ * target and settles fewer vertices. The potential must be consistent
+ * (never larger than the weight of an edge plus the potential of its target)
+ * for settled distances to be final.
+ *
+ * Results are valid until the next run. An engine is not thread safe, use
+ * {@link #local(int)} to get one per thread.
+ *
+ * @Precondition Non negative edges
+ */
+public final class DijkstraEngine {
+    private static final ThreadLocal<DijkstraEngine> LOCAL = ThreadLocal.withInitial(() -> new DijkstraEngine(0));
+
+    private final IndexedDHeap heap;
+    private IntGraph graph;
+    private IntToDoubleFunction potential;
+    private double[] dist;
+    // potential of each reached vertex, computed once per run
+    private double[] estimate;
+    private int[] parent;
+    // reached[v] == epoch when dist[v] and parent[v] are valid for this run
+    private int[] reached;
+    // settled[v] == epoch when dist[v] is final
+    private int[] settled;
+    // vertices reached by this run in discovery order
+    private int[] order;
+    private int reachedCount;
+    private int settledCount;
+    private long relaxedCount;
+    private int peakQueueSize;
+    private int epoch;
+
+    public DijkstraEngine(int capacity) {
+        heap = new IndexedDHeap(capacity);
+        dist = new double[capacity];
+        estimate = new double[capacity];
+        parent = new int[capacity];
+        reached = new int[capacity];
+        settled = new int[capacity];
+        order = new int[capacity];
+    }
+
+    /**
+     * @param capacity number of vertices of the graph to search
+     * @return the engine of the calling thread, grown to capacity if needed
+     */
+    public static DijkstraEngine local(int capacity) {
+        DijkstraEngine engine = LOCAL.get();
+        engine.ensureCapacity(capacity);
+        return engine;
+    }
+
+    /**
+     * Grow the scratch arrays so that graphs with capacity vertices can be
+     * searched.
+     */
+    public void ensureCapacity(int capacity) {
+        int old = dist.length;
+        if(capacity <= old)
+            return;
+
+        capacity = Math.max(capacity, old + (old >> 1));
+        heap.ensureCapacity(capacity);
+        dist = Arrays.copyOf(dist, capacity);
+        estimate = Arrays.copyOf(estimate, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        reached = Arrays.copyOf(reached, capacity);
+        settled = Arrays.copyOf(settled, capacity);
+        order = Arrays.copyOf(order, capacity);
+    }
+
+    /**
+     * Start a new search from source. The search is then advanced one vertex
+     * at a time with {@link #settleNext()}, which lets callers interleave
+     * several searches.
+     *
+     * @param graph to search
+     * @param source id of the source vertex
+     */
+    public void start(IntGraph graph, int source) {
+        start(graph, source, null);
+    }
+
+    /**
+     * Start a new A* search from source.
+     *
+     * @param graph to search
+     * @param source id of the source vertex
+     * @param potential consistent lower bound of the distance from a vertex to
+     *        the target, or null for a plain Dijkstra search
+     */
+    public void start(IntGraph graph, int source, IntToDoubleFunction potential) {
+        ensureCapacity(graph.vertexCount());
+        this.graph = graph;
+        this.potential = potential;
+        heap.clear();
+        if(++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            Arrays.fill(settled, 0);
+            epoch = 1;
+        }
+        reachedCount = 0;
+        settledCount = 0;
+        relaxedCount = 0;
+        peakQueueSize = 0;
+        reach(source, 0.0, -1);
+    }
+
+    private void reach(int vertex, double cost, int from) {
+        reached[vertex] = epoch;
+        dist[vertex] = cost;
+        parent[vertex] = from;
+        order[reachedCount++] = vertex;
+        double h = potential == null ? 0 : potential.applyAsDouble(vertex);
+        estimate[vertex] = h;
+        heap.insert(vertex, cost + h);
+        if(heap.size() > peakQueueSize)
+            peakQueueSize = heap.size();
+    }
+
+    /**
+     * @return true if every vertex reachable from the source is settled
+     */
+    public boolean isDone() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * @return the distance of the next vertex to settle plus its potential.
+     *         Without potential, no vertex left to settle is closer to the
+     *         source
+     */
+    public double nextDistance() {
+        return heap.peekKey();
+    }
+
+    /**
+     * Settle the closest reached vertex and relax its out edges.
+     *
+     * @return the settled vertex
+     */
+    public int settleNext() {
+        int vertex = heap.pop();
+        settled[vertex] = epoch;
+        settledCount++;
+
+        double cost = dist[vertex];
+        relaxedCount += graph.end(vertex) - graph.begin(vertex);
+        for(int e = graph.begin(vertex), end = graph.end(vertex); e < end; e++) {
+            int neigh = graph.target(e);
+            if(settled[neigh] == epoch)
+                continue;
+
+            double new_cost = cost + graph.weight(e);
+            if(reached[neigh] != epoch) {
+                reach(neigh, new_cost, vertex);
+            } else if(new_cost < dist[neigh]) {
+                dist[neigh] = new_cost;
+                parent[neigh] = vertex;
+                heap.decreaseKey(neigh, new_cost + estimate[neigh]);
+            }
+        }
+        return vertex;
+    }
+
+    /**
+     * Compute the shortest paths from source to every vertex reachable from it.
+     *
+     * @param graph to search
+     * @param source id of the source vertex
+     */
+    public void run(IntGraph graph, int source) {
+        run(graph, source, -1);
+    }
+
+    /**
+     * Compute shortest paths from source and stop as soon as target is
+     * settled. The out edges of target are not relaxed.
+     *
+     * @param graph to search
+     * @param source id of the source vertex
+     * @param target id of the vertex to stop at, or -1 to settle every
+     *        reachable vertex
+     * @return true if target was reached
+     */
+    public boolean run(IntGraph graph, int source, int target) {
+        return run(graph, source, target, null);
+    }
+
+    /**
+     * A* search from source to target.
+     *
+     * @param graph to search
+     * @param source id of the source vertex
+     * @param target id of the vertex to stop at, or -1 to settle every
+     *        reachable vertex
+     * @param potential consistent lower bound of the distance from a vertex to
+     *        target, or null for a plain Dijkstra search
+     * @return true if target was reached
+     */
+    public boolean run(IntGraph graph, int source, int target, IntToDoubleFunction potential) {
+        start(graph, source, potential);
+        if(source == target) {
+            heap.pop();
+            settled[source] = epoch;
+            settledCount++;
+            return true;
+        }
+
+        while(!heap.isEmpty()) {
+            if(heap.peek() == target) {
+                heap.pop();
+                settled[target] = epoch;
+                settledCount++;
+                return true;
+            }
+            settleNext();
+        }
+
+        return target < 0;
+    }
+
+    /**
+     * Append to path the vertices of the shortest path from the source of
+     * the last run to vertex, source first.
+     *
+     * @param vertex a vertex reached by the last run
+     * @param path list of vertex ids to fill
+     */
+    public void pathTo(int vertex, IntList path) {
+        int from = path.size();
+        for(int v = vertex; v >= 0; v = parent[v])
+            path.add(v);
+        path.reverse(from, path.size());
+    }
+
+    /**
+     * @return true if the last run reached vertex
+     */
+    public boolean reached(int vertex) {
+        return epoch > 0 && vertex < reached.length && reached[vertex] == epoch;
+    }
+
+    /**
+     * @return true if the distance of vertex is final in the last run
+     */
+    public boolean settled(int vertex) {
+        return epoch > 0 && vertex < settled.length && settled[vertex] == epoch;
+    }
+
+    /**
+     * @return the cost of the shortest path found to vertex by the last run,
+     *         or positive infinity if vertex was not reached
+     */
+    public double distance(int vertex) {
+        return reached(vertex) ? dist[vertex] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return the predecessor of vertex on its shortest path, or -1 for the
+     *         source and for vertices that were not reached
+     */
+    public int parent(int vertex) {
+        return reached(vertex) ? parent[vertex] : -1;
+    }
+
+    /**
+     * @return the number of vertices reached by the last run
+     */
+    public int reachedCount() {
+        return reachedCount;
+    }
+
+    /**
+     * @param i in [0, reachedCount())
+     * @return the i-th vertex reached by the last run, in discovery order
+     */
+    public int reachedVertex(int i) {
+        return order[i];
+    }
+
+    /**
+     * @return the number of vertices settled by the last run
+     */
+    public int settledCount() {
+        return settledCount;
+    }
+
+    /**
+     * @return the number of out edges of the vertices settled by the last run
+     */
+    public long relaxedCount() {
+        return relaxedCount;
+    }
+
+    /**
+     * Used by {@link BidirectionalDijkstra} for the exact peak of its two
+     * queues together.
+     *
+     * @return the number of vertices reached but not settled yet
+     */
+    int queueSize() {
+        return heap.size();
+    }
+
+    /**
+     * @return the largest number of vertices in the queue at once during the
+     *         last run
+     */
+    public int peakQueueSize() {
+        return peakQueueSize;
+    }
+}
@@ -0,0 +1,139 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Many-to-many shortest path costs. One Dijkstra search is run per source
+ * and stops as soon as every target is settled. The searches are split
+ * across the workers of a {@link ForkJoinPool}; each worker reuses its own
+ * {@link DijkstraEngine}, so the only allocations are the rows of the result.
+ *
+ * @Precondition Non negative edges
+ */
+public final class DistanceMatrix {
+    /** Number of sources below which a task stops splitting */
+    private static final int SOURCES_PER_TASK = 2;
+
+    private DistanceMatrix() {
+    }
+
+    /**
+     * Compute the matrix on the common pool.
+     *
+     * @see #compute(CsrGraph, Collection, Collection, ForkJoinPool)
+     */
+    public static <L> double[][] compute(CsrGraph<L> graph, Collection<L> sources, Collection<L> targets) {
+        return compute(graph, sources, targets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param graph to search
+     * @param sources labels of the rows, in iteration order
+     * @param targets labels of the columns, in iteration order
+     * @param pool runs the searches
+     * @return matrix m where m[i][j] is the cost of the shortest path from the
+     *         i-th source to the j-th target, positive infinity if there is no
+     *         such path or if one of the two is not in the graph
+     */
+    public static <L> double[][] compute(CsrGraph<L> graph, Collection<L> sources, Collection<L> targets, ForkJoinPool pool) {
+        return compute(graph, ids(graph.index(), sources), ids(graph.index(), targets), pool);
+    }
+
+    private static <L> int[] ids(VertexIndex<L> index, Collection<L> labels) {
+        int[] ids = new int[labels.size()];
+        int i = 0;
+        for(L label : labels)
+            ids[i++] = index.id(label);
+        return ids;
+    }
+
+    /**
+     * @param graph to search
+     * @param sources ids of the rows, -1 for a row of positive infinity
+     * @param targets ids of the columns, -1 for a column of positive infinity
+     * @param pool runs the searches
+     * @return matrix m where m[i][j] is the cost of the shortest path from
+     *         sources[i] to targets[j], positive infinity if there is none
+     */
+    public static double[][] compute(IntGraph graph, int[] sources, int[] targets, ForkJoinPool pool) {
+        boolean[] isTarget = new boolean[graph.vertexCount()];
+        int distinct = 0;
+        for(int target : targets) {
+            if(target >= 0 && !isTarget[target]) {
+                isTarget[target] = true;
+                distinct++;
+            }
+        }
+
+        double[][] matrix = new double[sources.length][];
+        pool.invoke(new Rows(graph, sources, targets, isTarget, distinct, matrix, 0, sources.length));
+        return matrix;
+    }
+
+    /**
+     * Fill the rows [from, to) of the matrix, splitting the range in two
+     * until it is small enough.
+     */
+    private static final class Rows extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntGraph graph;
+        private final int[] sources;
+        private final int[] targets;
+        private final boolean[] isTarget;
+        private final int distinct;
+        private final double[][] matrix;
+        private final int from;
+        private final int to;
+
+        Rows(IntGraph graph, int[] sources, int[] targets, boolean[] isTarget, int distinct,
+             double[][] matrix, int from, int to) {
+            this.graph = graph;
+            this.sources = sources;
+            this.targets = targets;
+            this.isTarget = isTarget;
+            this.distinct = distinct;
+            this.matrix = matrix;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > SOURCES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Rows(graph, sources, targets, isTarget, distinct, matrix, from, middle),
+                          new Rows(graph, sources, targets, isTarget, distinct, matrix, middle, to));
+                return;
+            }
+
+            DijkstraEngine engine = DijkstraEngine.local(graph.vertexCount());
+            for(int i = from; i < to; i++)
+                matrix[i] = row(engine, sources[i]);
+        }
+
+        private double[] row(DijkstraEngine engine, int source) {
+            double[] row = new double[targets.length];
+            if(source < 0) {
+                Arrays.fill(row, Double.POSITIVE_INFINITY);
+                return row;
+            }
+
+            engine.start(graph, source);
+            int remaining = distinct;
+            while(remaining > 0 && !engine.isDone()) {
+                if(isTarget[engine.settleNext()])
+                    remaining--;
+            }
+
+            for(int j = 0; j < targets.length; j++) {
+                int target = targets[j];
+                row[j] = target >= 0 && engine.settled(target) ? engine.distance(target) : Double.POSITIVE_INFINITY;
+            }
+            return row;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package graph;
+
+import java.util.Objects;
+
+/**
+ * A weighted directed edge between two labeled vertices.
+ *
+ * @param <L> type of vertex labels
+ */
+public final class Edge<L> {
+    private final L source;
+    private final L target;
+    private final double weight;
+
+    public Edge(L source, L target, double weight) {
+        this.source = source;
+        this.target = target;
+        this.weight = weight;
+    }
+
+    /**
+     * @return the vertex the edge leaves
+     */
+    public L source() {
+        return source;
+    }
+
+    /**
+     * @return the vertex the edge points to
+     */
+    public L target() {
+        return target;
+    }
+
+    public double weight() {
+        return weight;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o)
+            return true;
+        if(!(o instanceof Edge))
+            return false;
+        Edge<?> edge = (Edge<?>) o;
+        return Double.compare(weight, edge.weight) == 0
+                && Objects.equals(source, edge.source)
+                && Objects.equals(target, edge.target);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(source, target, weight);
+    }
+
+    @Override
+    public String toString() {
+        return source + " -> " + target + " (" + weight + ")";
+    }
+}
@@ -0,0 +1,63 @@
+package graph;
+
+/**
+ * Cursor over the out edges of one vertex of an {@link IntGraph}, giving
+ * the target id and the weight of each edge as primitives. A cursor can be
+ * reset to another vertex, so a loop over many vertices allocates one
+ * cursor:
+ * <pre>
+ * EdgeCursor edges = new EdgeCursor();
+ * for(int v = 0; v &lt; graph.vertexCount(); v++)
+ *     for(edges.reset(graph, v); edges.next(); )
+ *         use(v, edges.target(), edges.weight());
+ * </pre>
+ */
+public final class EdgeCursor {
+    private IntGraph graph;
+    private int edge;
+    private int end;
+
+    /**
+     * Move before the first out edge of vertex.
+     *
+     * @param graph holding the edges
+     * @param vertex id of the vertex whose out edges are walked
+     * @return this cursor
+     */
+    public EdgeCursor reset(IntGraph graph, int vertex) {
+        this.graph = graph;
+        this.edge = graph.begin(vertex) - 1;
+        this.end = graph.end(vertex);
+        return this;
+    }
+
+    /**
+     * Move to the next edge.
+     *
+     * @return false if there is none left
+     */
+    public boolean next() {
+        return ++edge < end;
+    }
+
+    /**
+     * @return index of the current edge in the graph
+     */
+    public int edge() {
+        return edge;
+    }
+
+    /**
+     * @return id of the vertex the current edge points to
+     */
+    public int target() {
+        return graph.target(edge);
+    }
+
+    /**
+     * @return weight of the current edge
+     */
+    public double weight() {
+        return graph.weight(edge);
+    }
+}
@@ -0,0 +1,623 @@
+package graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming reader of edge list files into a {@link GraphBuilder}.
+ *
+ * Supported formats, one edge per line:
+ * <ul>
+ * <li>SNAP: {@code source target [weight]} separated by spaces or tabs,
+ * integer labels, lines starting with {@code #} are comments, the weight is 1
+ * when missing;</li>
+ * <li>DIMACS shortest path ({@code .gr}): arcs {@code a source target weight}
+ * with integer labels, {@code c} comment and {@code p} problem lines;</li>
+ * <li>CSV: {@code source,target[,weight]} with string labels, an optional
+ * header line, no quoting.</li>
+ * </ul>
+ * The input is read through a fixed size NIO buffer and parsed in place:
+ * no String is created per line, labels are interned on the fly by a table
+ * keyed by their bytes, so only the first occurrence of a label allocates it.
+ * Edges are handed to the builder in chunks of primitive arrays. Memory is
+ * therefore bounded by the size of the graph, not of the file. Files
+ * compressed with gzip are detected and decompressed on the fly.
+ *
+ * Progress is reported after every chunk. An importer can be reused but is
+ * not thread safe.
+ *
+ * @param <L> type of vertex labels, Integer or String depending on the format
+ */
+public final class EdgeListImporter<L> {
+    /** Size of the read buffer, which is also the maximal length of a line */
+    private static final int BUFFER = 1 << 16;
+
+    private enum Format { SNAP, DIMACS, CSV }
+
+    private final Format format;
+    private final boolean header;
+    private int chunkSize = 1 << 16;
+    private Consumer<EdgeListImporter<L>> progress;
+
+    private long bytesRead;
+    private long linesRead;
+    private long edgesRead;
+    private long startTime;
+    private long elapsedNanos;
+
+    private EdgeListImporter(Format format, boolean header) {
+        this.format = format;
+        this.header = header;
+    }
+
+    /**
+     * @return an importer of SNAP edge lists
+     */
+    public static EdgeListImporter<Integer> snap() {
+        return new EdgeListImporter<>(Format.SNAP, false);
+    }
+
+    /**
+     * @return an importer of DIMACS shortest path graphs
+     */
+    public static EdgeListImporter<Integer> dimacs() {
+        return new EdgeListImporter<>(Format.DIMACS, false);
+    }
+
+    /**
+     * @param header true if the first line holds the column names
+     * @return an importer of comma separated edges with string labels
+     */
+    public static EdgeListImporter<String> csv(boolean header) {
+        return new EdgeListImporter<>(Format.CSV, header);
+    }
+
+    /**
+     * @param edges number of edges handed to the builder at once, 65536 by default
+     * @return this importer
+     */
+    public EdgeListImporter<L> chunkSize(int edges) {
+        if(edges < 1)
+            throw new IllegalArgumentException("Chunk size must be positive: " + edges);
+        this.chunkSize = edges;
+        return this;
+    }
+
+    /**
+     * @param progress called with this importer after every chunk and at the end
+     *        of the input, to read the counters
+     * @return this importer
+     */
+    public EdgeListImporter<L> onProgress(Consumer<EdgeListImporter<L>> progress) {
+        this.progress = progress;
+        return this;
+    }
+
+    /**
+     * @return the number of bytes parsed by the current or last read, after
+     *         decompression
+     */
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    public long linesRead() {
+        return linesRead;
+    }
+
+    public long edgesRead() {
+        return edgesRead;
+    }
+
+    /**
+     * @return time spent in the current or last read
+     */
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double edgesPerSecond() {
+        return elapsedNanos == 0 ? 0 : edgesRead * 1e9 / elapsedNanos;
+    }
+
+    public double megabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytesRead * 1e3 / elapsedNanos;
+    }
+
+    /**
+     * Read file into a new builder. gzip files are recognized by their first
+     * bytes, whatever their name.
+     *
+     * @throws IOException if the file cannot be read or a line is malformed
+     */
+    public GraphBuilder<L> read(File file) throws IOException {
+        GraphBuilder<L> builder = new GraphBuilder<>();
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(2);
+            while(magic.hasRemaining() && channel.read(magic) >= 0)
+                ;
+            channel.position(0);
+            if(magic.get(0) == (byte) 0x1f && magic.get(1) == (byte) 0x8b) {
+                // closing the stream releases the native memory of its Inflater
+                try(GZIPInputStream in = new GZIPInputStream(Channels.newInputStream(channel), BUFFER)) {
+                    read(Channels.newChannel(in), builder);
+                }
+            } else {
+                read(channel, builder);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Read the whole stream into a new builder. The stream is not closed.
+     *
+     * @throws IOException if the stream cannot be read or a line is malformed
+     */
+    public GraphBuilder<L> read(InputStream in) throws IOException {
+        GraphBuilder<L> builder = new GraphBuilder<>();
+        read(Channels.newChannel(in), builder);
+        return builder;
+    }
+
+    /**
+     * Read the whole channel and add its vertices and edges to builder. The
+     * channel is not closed.
+     *
+     * @throws IOException if the channel cannot be read or a line is malformed.
+     *         The edges of the chunks read before are in the builder
+     */
+    public void read(ReadableByteChannel channel, GraphBuilder<L> builder) throws IOException {
+        bytesRead = 0;
+        linesRead = 0;
+        edgesRead = 0;
+        elapsedNanos = 0;
+        startTime = System.nanoTime();
+
+        Parser parser = new Parser(builder);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER);
+        byte[] bytes = buffer.array();
+        boolean end = false;
+        while(!end) {
+            int read = channel.read(buffer);
+            if(read < 0)
+                end = true;
+            else
+                bytesRead += read;
+
+            int limit = buffer.position();
+            int from = 0;
+            for(int i = 0; i < limit; i++) {
+                if(bytes[i] == '\n') {
+                    parser.line(bytes, from, i);
+                    from = i + 1;
+                }
+            }
+            if(end && from < limit) {
+                parser.line(bytes, from, limit);
+                from = limit;
+            }
+            if(from == 0 && limit == bytes.length)
+                throw new IOException("Line " + (linesRead + 1) + " is longer than " + BUFFER + " bytes");
+
+            // keep the start of the next line
+            System.arraycopy(bytes, from, bytes, 0, limit - from);
+            ((Buffer) buffer).position(limit - from);
+        }
+        parser.flush();
+    }
+
+    /**
+     * Parses the lines of one read and buffers the edges of a chunk.
+     */
+    private final class Parser {
+        private final GraphBuilder<L> builder;
+        private final Labels labels;
+        private final int[] sources = new int[chunkSize];
+        private final int[] targets = new int[chunkSize];
+        private final double[] weights = new double[chunkSize];
+        private int size;
+        private boolean skipHeader = header;
+
+        // current line and token
+        private byte[] bytes;
+        private int cursor;
+        private int end;
+        private int tokenStart;
+        private int tokenEnd;
+
+        @SuppressWarnings("unchecked")
+        Parser(GraphBuilder<L> builder) {
+            this.builder = builder;
+            this.labels = format == Format.CSV
+                    ? new StringLabels((GraphBuilder<String>) builder)
+                    : new IntLabels((GraphBuilder<Integer>) builder);
+        }
+
+        private IOException error(String message) {
+            return new IOException("Line " + linesRead + ": " + message);
+        }
+
+        private boolean separator(byte b) {
+            return format == Format.CSV ? b == ',' : b == ' ' || b == '\t';
+        }
+
+        /**
+         * Move to the next token of the line.
+         *
+         * @return false if the line has no more token
+         */
+        private boolean next() {
+            if(format == Format.CSV) {
+                if(cursor > end)
+                    return false;
+                int start = cursor;
+                while(cursor < end && bytes[cursor] != ',')
+                    cursor++;
+                tokenStart = start;
+                tokenEnd = cursor++;
+                // trim the spaces around the field
+                while(tokenStart < tokenEnd && bytes[tokenStart] == ' ')
+                    tokenStart++;
+                while(tokenEnd > tokenStart && bytes[tokenEnd - 1] == ' ')
+                    tokenEnd--;
+                return true;
+            }
+
+            while(cursor < end && separator(bytes[cursor]))
+                cursor++;
+            if(cursor == end)
+                return false;
+            tokenStart = cursor;
+            while(cursor < end && !separator(bytes[cursor]))
+                cursor++;
+            tokenEnd = cursor;
+            return true;
+        }
+
+        private int vertex() throws IOException {
+            if(!next() || tokenStart == tokenEnd)
+                throw error("expected a vertex");
+            int id = labels.id(bytes, tokenStart, tokenEnd);
+            if(id < 0)
+                throw error("invalid vertex " + token());
+            return id;
+        }
+
+        private double weight() throws IOException {
+            double weight = parseDouble(bytes, tokenStart, tokenEnd);
+            if(Double.isNaN(weight))
+                throw error("invalid weight " + token());
+            return weight;
+        }
+
+        private String token() {
+            return new String(bytes, tokenStart, tokenEnd - tokenStart, StandardCharsets.UTF_8);
+        }
+
+        void line(byte[] bytes, int from, int to) throws IOException {
+            linesRead++;
+            if(to > from && bytes[to - 1] == '\r')
+                to--;
+            this.bytes = bytes;
+            this.cursor = from;
+            this.end = to;
+
+            // blank lines are skipped in every format
+            int first = from;
+            while(first < to && (bytes[first] == ' ' || bytes[first] == '\t'))
+                first++;
+            if(first == to)
+                return;
+
+            switch(format) {
+            case SNAP:
+                if(bytes[first] == '#')
+                    return;
+                break;
+            case DIMACS:
+                if(bytes[first] == 'c' || bytes[first] == 'p')
+                    return;
+                if(bytes[first] != 'a' || first + 1 == to || !separator(bytes[first + 1]))
+                    throw error("expected an arc line");
+                cursor = first + 1;
+                break;
+            case CSV:
+                if(skipHeader) {
+                    skipHeader = false;
+                    return;
+                }
+                break;
+            }
+
+            int source = vertex();
+            int target = vertex();
+            double weight = 1;
+            if(next() && (format != Format.CSV || tokenStart < tokenEnd))
+                weight = weight();
+            else if(format == Format.DIMACS)
+                throw error("expected a weight");
+            if(next())
+                throw error("unexpected " + token());
+
+            sources[size] = source;
+            targets[size] = target;
+            weights[size++] = weight;
+            edgesRead++;
+            if(size == chunkSize)
+                flush();
+        }
+
+        void flush() {
+            if(size == chunkSize) {
+                builder.addEdges(sources, targets, weights);
+            } else if(size > 0) {
+                builder.addEdges(Arrays.copyOf(sources, size), Arrays.copyOf(targets, size),
+                        Arrays.copyOf(weights, size));
+            }
+            size = 0;
+            elapsedNanos = System.nanoTime() - startTime;
+            if(progress != null)
+                progress.accept(EdgeListImporter.this);
+        }
+    }
+
+    /**
+     * Parse a decimal number, without allocation when it has at most 15
+     * significant digits and a small exponent, the result is then exact.
+     *
+     * @return the number, or NaN if the bytes are not a number
+     */
+    static double parseDouble(byte[] bytes, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if(i < to && (bytes[i] == '-' || bytes[i] == '+'))
+            negative = bytes[i++] == '-';
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        for(; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++, any = true) {
+            if(digits < 18) {
+                mantissa = mantissa * 10 + (bytes[i] - '0');
+                if(mantissa != 0)
+                    digits++;
+            } else {
+                exponent++;
+            }
+        }
+        if(i < to && bytes[i] == '.') {
+            for(i++; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++, any = true) {
+                if(digits < 18) {
+                    mantissa = mantissa * 10 + (bytes[i] - '0');
+                    if(mantissa != 0)
+                        digits++;
+                    exponent--;
+                }
+            }
+        }
+        if(!any)
+            return slowParseDouble(bytes, from, to);
+        if(i < to && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            int sign = 1;
+            int value = 0;
+            boolean expDigits = false;
+            i++;
+            if(i < to && (bytes[i] == '-' || bytes[i] == '+'))
+                sign = bytes[i++] == '-' ? -1 : 1;
+            for(; i < to && bytes[i] >= '0' && bytes[i] <= '9'; i++, expDigits = true)
+                value = Math.min(value * 10 + (bytes[i] - '0'), 100000);
+            if(!expDigits)
+                return Double.NaN;
+            exponent += sign * value;
+        }
+        if(i != to)
+            return slowParseDouble(bytes, from, to);
+
+        // both the mantissa and the power of ten are exact doubles
+        if(digits <= 15 && Math.abs(exponent) <= 22) {
+            double value = exponent < 0 ? mantissa / POWERS[-exponent] : mantissa * POWERS[exponent];
+            return negative ? -value : value;
+        }
+        return slowParseDouble(bytes, from, to);
+    }
+
+    private static final double[] POWERS = new double[23];
+
+    static {
+        POWERS[0] = 1;
+        for(int i = 1; i < POWERS.length; i++)
+            POWERS[i] = POWERS[i - 1] * 10;
+    }
+
+    private static double slowParseDouble(byte[] bytes, int from, int to) {
+        try {
+            return Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.US_ASCII));
+        } catch(NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Interns labels given as bytes into the ids of a builder.
+     */
+    private interface Labels {
+        /**
+         * @return the id of the label in bytes[from, to), or -1 if the bytes
+         *         are not a valid label
+         */
+        int id(byte[] bytes, int from, int to);
+    }
+
+    /**
+     * Integer labels, mapped to ids by an open addressing table of ints.
+     */
+    private static final class IntLabels implements Labels {
+        private final GraphBuilder<Integer> builder;
+        private int[] keys = new int[1024];
+        private int[] ids = new int[1024];
+        private int size;
+
+        IntLabels(GraphBuilder<Integer> builder) {
+            this.builder = builder;
+            Arrays.fill(ids, -1);
+        }
+
+        private static int slot(int key, int mask) {
+            int h = key * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        @Override
+        public int id(byte[] bytes, int from, int to) {
+            int i = from;
+            boolean negative = bytes[i] == '-';
+            if(negative || bytes[i] == '+')
+                i++;
+            if(i == to)
+                return -1;
+            long value = 0;
+            for(; i < to; i++) {
+                int digit = bytes[i] - '0';
+                if(digit < 0 || digit > 9)
+                    return -1;
+                value = value * 10 + digit;
+                if(value > Integer.MAX_VALUE + 1L)
+                    return -1;
+            }
+            value = negative ? -value : value;
+            if(value > Integer.MAX_VALUE)
+                return -1;
+            int key = (int) value;
+
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while(ids[slot] >= 0) {
+                if(keys[slot] == key)
+                    return ids[slot];
+                slot = (slot + 1) & mask;
+            }
+
+            int id = builder.addVertex(key);
+            keys[slot] = key;
+            ids[slot] = id;
+            if(++size * 2 > keys.length)
+                grow();
+            return id;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldIds = ids;
+            keys = new int[oldKeys.length * 2];
+            ids = new int[oldKeys.length * 2];
+            Arrays.fill(ids, -1);
+            int mask = keys.length - 1;
+            for(int i = 0; i < oldKeys.length; i++) {
+                if(oldIds[i] < 0)
+                    continue;
+                int slot = slot(oldKeys[i], mask);
+                while(ids[slot] >= 0)
+                    slot = (slot + 1) & mask;
+                keys[slot] = oldKeys[i];
+                ids[slot] = oldIds[i];
+            }
+        }
+    }
+
+    /**
+     * String labels, mapped to ids by an open addressing table keyed by the
+     * UTF-8 bytes of the labels, which are kept in one byte pool. A String is
+     * only created for a label seen for the first time.
+     */
+    private static final class StringLabels implements Labels {
+        private final GraphBuilder<String> builder;
+        private int[] table = new int[1024];
+        // for every entry: start and end in the pool, hash and id
+        private int[] starts = new int[512];
+        private int[] ends = new int[512];
+        private int[] hashes = new int[512];
+        private int[] ids = new int[512];
+        private byte[] pool = new byte[1 << 14];
+        private int size;
+        private int poolSize;
+
+        StringLabels(GraphBuilder<String> builder) {
+            this.builder = builder;
+            Arrays.fill(table, -1);
+        }
+
+        private static int hash(byte[] bytes, int from, int to) {
+            int h = 0;
+            for(int i = from; i < to; i++)
+                h = 31 * h + bytes[i];
+            return h ^ (h >>> 16);
+        }
+
+        private boolean matches(int entry, byte[] bytes, int from, int to) {
+            if(ends[entry] - starts[entry] != to - from)
+                return false;
+            for(int i = from, j = starts[entry]; i < to; i++, j++) {
+                if(pool[j] != bytes[i])
+                    return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int id(byte[] bytes, int from, int to) {
+            int hash = hash(bytes, from, to);
+            int mask = table.length - 1;
+            int slot = hash & mask;
+            while(table[slot] >= 0) {
+                int entry = table[slot];
+                if(hashes[entry] == hash && matches(entry, bytes, from, to))
+                    return ids[entry];
+                slot = (slot + 1) & mask;
+            }
+
+            int id = builder.addVertex(new String(bytes, from, to - from, StandardCharsets.UTF_8));
+            if(size == ids.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                hashes = Arrays.copyOf(hashes, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            if(poolSize + to - from > pool.length)
+                pool = Arrays.copyOf(pool, Math.max(pool.length * 2, poolSize + to - from));
+            System.arraycopy(bytes, from, pool, poolSize, to - from);
+            starts[size] = poolSize;
+            ends[size] = poolSize += to - from;
+            hashes[size] = hash;
+            ids[size] = id;
+            table[slot] = size++;
+            if(size * 2 > table.length)
+                grow();
+            return id;
+        }
+
+        private void grow() {
+            table = new int[table.length * 2];
+            Arrays.fill(table, -1);
+            int mask = table.length - 1;
+            for(int entry = 0; entry < size; entry++) {
+                int slot = hashes[entry] & mask;
+                while(table[slot] >= 0)
+                    slot = (slot + 1) & mask;
+                table[slot] = entry;
+            }
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package graph;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 /**
  * A mutable weighted directed graph with labeled vertices.
@@ -47,12 +49,50 @@ public interface Graph<L> {
      */
     boolean remove(L vertex);
     
+    /**
+     * Add or change every edge of edges, in iteration order, as
+     * {@link #set(Object, Object, double)} does. Implementations amortize the
+     * work shared by the edges of a batch.
+     *
+     * @param edges edges to set, their vertices are added if they do not exist
+     */
+    default void setAll(Iterable<Edge<L>> edges) {
+        for(Edge<L> edge : edges)
+            set(edge.source(), edge.target(), edge.weight());
+    }
+
+    /**
+     * Remove every vertex of vertices with its edges, as {@link #remove(Object)}
+     * does. Implementations amortize the work shared by the vertices of a batch.
+     *
+     * @param vertices labels of the vertices to remove
+     * @return true if this graph included one of the vertices; otherwise false
+     *         (and this graph is not modified)
+     */
+    default boolean removeAll(Collection<L> vertices) {
+        boolean modified = false;
+        for(L vertex : vertices)
+            modified |= remove(vertex);
+        return modified;
+    }
+
     /**
      * Get all the vertices in this graph.
      * 
      * @return the set of labels of vertices in this graph
      */
     Set<L> vertices();
+
+    /**
+     * Get this graph with its vertices mapped to dense integer ids, to walk it
+     * with primitive cursors, see {@link IndexedGraph}. Read only graphs
+     * return themselves, others a {@link CsrGraph} snapshot.
+     *
+     * @return an indexed form of this graph, not updated by later modifications
+     */
+    default IndexedGraph<L> indexed() {
+        return CsrGraph.of(this);
+    }
     
     /**
      * Get the source vertices with directed edges to a target vertex and the
@@ -117,9 +157,24 @@ public interface Graph<L> {
      *
      * @param func Function to map a Vertex to a unique integer id to be used in UnionFind
      * @retun The cost of the minimum spanning tree
+     * @deprecated the cost is truncated to an int and the edges are not returned.
+     *             Use {@link #minimumSpanningForest()}
      */
+    @Deprecated
     int minimumSpanningTree(Function<L, Integer> func);
 
+    /**
+     * Minimum spanning tree of every connected part of the graph, edges being taken as
+     * undirected. Computed by parallel Boruvka on the common
+     * {@link java.util.concurrent.ForkJoinPool}, over a {@link CsrGraph} snapshot of
+     * this graph. Vertices are indexed internally
+     *
+     * @return the edges of the forest and the exact sum of their weights
+     */
+    default MinimumSpanningForest<L> minimumSpanningForest() {
+        return MinimumSpanningForest.of(this);
+    }
+
 
     /**
      * @Precondition Non negative edges
@@ -131,4 +186,160 @@ public interface Graph<L> {
      * @return Map associating a vertex to the cost of the shortest path to it
      */
     Map<L, Double>dijkstra(L src);
+
+    /**
+     * @Precondition Non negative edges
+     *
+     * Find the cheapest path from src to dst. The search stops as soon as dst
+     * is settled, vertices farther from src than dst are not explored
+     *
+     * @param src Vertex from which the path starts
+     * @param dst Vertex at which the path ends
+     * @return the shortest path from src to dst, or null if dst is not reachable
+     *         from src or one of them is not in the graph
+     */
+    Path<L> shortestPath(L src, L dst);
+
+    /**
+     * @Precondition Non negative edges
+     *
+     * Same as {@link #shortestPath(Object, Object)} but searches forward from src
+     * and backward from dst (following {@link #sources(Object)}) at the same time.
+     * Each search only has to cover about half the distance, which settles far
+     * fewer vertices on large graphs
+     *
+     * @param src Vertex from which the path starts
+     * @param dst Vertex at which the path ends
+     * @return the shortest path from src to dst, or null if dst is not reachable
+     *         from src or one of them is not in the graph
+     */
+    Path<L> bidirectionalShortestPath(L src, L dst);
+
+    /**
+     * @Precondition Non negative edges
+     *
+     * A* search from src to dst. Vertices are settled by increasing cost from src
+     * plus the heuristic estimate of their cost to dst, so the search heads toward
+     * dst instead of growing in every direction. See {@link Heuristics} for
+     * heuristics over vertex coordinates
+     *
+     * @param src Vertex from which the path starts
+     * @param dst Vertex at which the path ends
+     * @param heuristic estimate of the cost from a vertex to dst. Must be
+     *        consistent: never larger than the weight of an edge plus the estimate
+     *        at the other end of the edge, and zero at dst
+     * @return the shortest path from src to dst, or null if dst is not reachable
+     *         from src or one of them is not in the graph
+     */
+    Path<L> aStar(L src, L dst, ToDoubleFunction<L> heuristic);
+
+    /**
+     * @Precondition Non negative edges
+     *
+     * Cost of the shortest path from every source to every target. The searches
+     * run in parallel on the common {@link java.util.concurrent.ForkJoinPool},
+     * over a {@link CsrGraph} snapshot of this graph. See {@link DistanceMatrix}
+     * to use another pool
+     *
+     * @param sources Vertices of the rows, in iteration order
+     * @param targets Vertices of the columns, in iteration order
+     * @return matrix m where m[i][j] is the cost of the shortest path from the i-th
+     *         source to the j-th target, positive infinity if there is no such path
+     */
+    default double[][] distanceMatrix(Collection<L> sources, Collection<L> targets) {
+        return DistanceMatrix.compute(CsrGraph.of(this), sources, targets);
+    }
+
+    /**
+     * @Precondition Non negative edges
+     *
+     * Same result as {@link #dijkstra(Object)}, computed by parallel delta-stepping
+     * on the common {@link java.util.concurrent.ForkJoinPool}, over a
+     * {@link CsrGraph} snapshot of this graph. See {@link DeltaStepping}
+     *
+     * @param src Vertex from which shortest path is computed
+     * @param delta Width of the distance buckets, positive. The average edge
+     *        weight is a reasonable start
+     * @return Map associating a vertex to the cost of the shortest path to it
+     */
+    default Map<L, Double> deltaStepping(L src, double delta) {
+        return DeltaStepping.dijkstra(CsrGraph.of(this), src, delta);
+    }
+
+    /**
+     * Number of edges on the shortest path from src to every vertex reachable
+     * from it. Computed by a parallel direction optimizing breadth first search
+     * on the common {@link java.util.concurrent.ForkJoinPool}, over a
+     * {@link CsrGraph} snapshot of this graph. See {@link ParallelBfs} for the
+     * BFS parents
+     *
+     * @param src Vertex the search starts from
+     * @return Map associating a vertex to its hop distance from src
+     */
+    default Map<L, Integer> hops(L src) {
+        return ParallelBfs.hops(CsrGraph.of(this), src);
+    }
+
+    /**
+     * Split the vertices into weakly connected components: two vertices are in the
+     * same component if they are linked by a path that ignores the direction of the
+     * edges. Computed in parallel over the edges on the common
+     * {@link java.util.concurrent.ForkJoinPool}, over a {@link CsrGraph} snapshot
+     * of this graph
+     *
+     * @return the dense component id of every vertex
+     */
+    default Components<L> weaklyConnectedComponents() {
+        return Components.weak(this);
+    }
+
+    /**
+     * Split the vertices into strongly connected components: two vertices are in the
+     * same component if each one can be reached from the other. Computed by an
+     * iterative Tarjan over a {@link CsrGraph} snapshot of this graph, so deep graphs
+     * do not overflow the stack. See {@link Components#strong(Graph, java.util.concurrent.ForkJoinPool)}
+     * for the parallel version
+     *
+     * @return the dense component id of every vertex
+     */
+    default Components<L> stronglyConnectedComponents() {
+        return Components.strong(this);
+    }
+
+    /**
+     * Order the vertices so that every edge goes from a vertex to a later one
+     *
+     * @return the topological order of this graph, or one of its cycles if it has one
+     */
+    default TopologicalOrder<L> topologicalOrder() {
+        return TopologicalOrder.of(this);
+    }
+
+    /**
+     * @Precondition Non negative edges
+     *
+     * Rank the vertices by PageRank, edge weights being the transition
+     * probabilities, with a damping of 0.85. Computed by parallel power
+     * iteration on the common {@link java.util.concurrent.ForkJoinPool}, over a
+     * {@link CsrGraph} snapshot of this graph. See {@link PageRank} for the
+     * settings and to start from previous ranks
+     *
+     * @return the rank of every vertex, summing to 1
+     */
+    default Ranks<L> pageRank() {
+        return new PageRank().rank(this);
+    }
+
+    /**
+     * @Precondition Non negative edges
+     *
+     * Same as {@link #pageRank()} with teleports landing on the vertices in
+     * proportion to their weight in teleport
+     *
+     * @param teleport non negative weight of vertices, not all 0
+     * @return the rank of every vertex, summing to 1
+     */
+    default Ranks<L> personalizedPageRank(Map<L, Double> teleport) {
+        return new PageRank().personalized(this, teleport);
+    }
 }
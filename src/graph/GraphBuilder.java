@@ -0,0 +1,278 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Bulk loader for graphs with many edges.
+ *
+ * Labels are interned to dense ids as they come and edges are appended to
+ * three growing primitive arrays, so adding an edge neither hashes the
+ * adjacency of its vertices nor allocates. The graph is only laid out when
+ * it is built: edges are bucketed by source with a counting sort, each row is
+ * sorted by target and deduplicated in parallel, keeping the weight of the
+ * last edge added as {@link Graph#set(Object, Object, double)} would, and the
+ * result is either an immutable {@link CsrGraph} or an {@link AdjListGraph}
+ * whose maps are created with their final size.
+ *
+ * The builder can keep growing after a build, later builds include every
+ * edge added so far. It is not thread safe.
+ *
+ * @param <L> type of vertex labels. Must be immutable
+ */
+public final class GraphBuilder<L> {
+    /** Number of edges deduplicated by one task */
+    private static final int GRAIN = 1 << 16;
+
+    private final VertexIndex<L> index;
+    private int[] sources;
+    private int[] targets;
+    private double[] weights;
+    private int size;
+
+    public GraphBuilder() {
+        this(16, 16);
+    }
+
+    /**
+     * @param expectedVertices number of vertices the arrays are sized for
+     * @param expectedEdges number of edges the arrays are sized for
+     */
+    public GraphBuilder(int expectedVertices, int expectedEdges) {
+        index = new VertexIndex<>(expectedVertices);
+        sources = new int[Math.max(expectedEdges, 1)];
+        targets = new int[sources.length];
+        weights = new double[sources.length];
+    }
+
+    /**
+     * Add a vertex if it is not already in the builder.
+     *
+     * @return the id of vertex, to be used with {@link #addEdges(int[], int[], double[])}
+     */
+    public int addVertex(L vertex) {
+        return index.intern(vertex);
+    }
+
+    /**
+     * @return the number of edges added so far, duplicates included
+     */
+    public int edgeCount() {
+        return size;
+    }
+
+    public int vertexCount() {
+        return index.size();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(capacity <= sources.length)
+            return;
+        int length = Math.max(capacity, sources.length + (sources.length >> 1) + 1);
+        sources = Arrays.copyOf(sources, length);
+        targets = Arrays.copyOf(targets, length);
+        weights = Arrays.copyOf(weights, length);
+    }
+
+    /**
+     * Add an edge, and its vertices if they are not in the builder. If the
+     * edge is added several times, the last weight is kept.
+     */
+    public void addEdge(L source, L target, double weight) {
+        int s = index.intern(source);
+        int t = index.intern(target);
+        ensureCapacity(size + 1);
+        sources[size] = s;
+        targets[size] = t;
+        weights[size++] = weight;
+    }
+
+    /**
+     * Add the edges sources[i] -> targets[i] of weight weights[i], between
+     * vertices given by the ids returned by {@link #addVertex(Object)}.
+     *
+     * @throws IllegalArgumentException if the arrays have different lengths or
+     *         an id is not the id of a vertex. No edge is added then
+     */
+    public void addEdges(int[] sources, int[] targets, double[] weights) {
+        if(sources.length != targets.length || sources.length != weights.length)
+            throw new IllegalArgumentException("Lengths differ: " + sources.length + ", "
+                    + targets.length + ", " + weights.length);
+        int n = index.size();
+        for(int i = 0; i < sources.length; i++) {
+            if(sources[i] < 0 || sources[i] >= n || targets[i] < 0 || targets[i] >= n)
+                throw new IllegalArgumentException("No vertex with id " + sources[i] + " or " + targets[i]);
+        }
+
+        ensureCapacity(size + sources.length);
+        System.arraycopy(sources, 0, this.sources, size, sources.length);
+        System.arraycopy(targets, 0, this.targets, size, targets.length);
+        System.arraycopy(weights, 0, this.weights, size, weights.length);
+        size += sources.length;
+    }
+
+    /**
+     * Add every edge of edges in encounter order, see {@link #addEdge(Object, Object, double)}.
+     */
+    public void addEdges(Stream<Edge<L>> edges) {
+        edges.forEachOrdered(edge -> addEdge(edge.source(), edge.target(), edge.weight()));
+    }
+
+    /**
+     * Build on the common pool.
+     *
+     * @see #buildCsrGraph(ForkJoinPool)
+     */
+    public CsrGraph<L> buildCsrGraph() {
+        return buildCsrGraph(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Build an immutable graph holding the vertices and edges added so far.
+     * Vertex ids are the ones returned by {@link #addVertex(Object)} and the
+     * out edges of a vertex are sorted by target id.
+     *
+     * @param pool deduplicates the rows
+     */
+    public CsrGraph<L> buildCsrGraph(ForkJoinPool pool) {
+        int n = index.size();
+
+        // bucket the edges by source, keeping the order they were added in
+        int[] offsets = new int[n + 1];
+        for(int e = 0; e < size; e++)
+            offsets[sources[e] + 1]++;
+        for(int v = 0; v < n; v++)
+            offsets[v + 1] += offsets[v];
+        int[] rowTargets = new int[size];
+        double[] rowWeights = new double[size];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for(int e = 0; e < size; e++) {
+            int i = fill[sources[e]]++;
+            rowTargets[i] = targets[e];
+            rowWeights[i] = weights[e];
+        }
+
+        // sort and deduplicate every row in place, degrees[v] is the new length of row v
+        int[] degrees = new int[n];
+        pool.invoke(new Dedup(offsets, rowTargets, rowWeights, degrees, 0, n));
+
+        int[] compactOffsets = new int[n + 1];
+        for(int v = 0; v < n; v++)
+            compactOffsets[v + 1] = compactOffsets[v] + degrees[v];
+        int m = compactOffsets[n];
+        int[] compactTargets = new int[m];
+        double[] compactWeights = new double[m];
+        for(int v = 0; v < n; v++) {
+            System.arraycopy(rowTargets, offsets[v], compactTargets, compactOffsets[v], degrees[v]);
+            System.arraycopy(rowWeights, offsets[v], compactWeights, compactOffsets[v], degrees[v]);
+        }
+
+        // in edges, ordered by source
+        int[] reverseOffsets = new int[n + 1];
+        for(int e = 0; e < m; e++)
+            reverseOffsets[compactTargets[e] + 1]++;
+        for(int v = 0; v < n; v++)
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        int[] reverseTargets = new int[m];
+        double[] reverseWeights = new double[m];
+        fill = Arrays.copyOf(reverseOffsets, n);
+        for(int v = 0; v < n; v++) {
+            for(int e = compactOffsets[v]; e < compactOffsets[v + 1]; e++) {
+                int i = fill[compactTargets[e]]++;
+                reverseTargets[i] = v;
+                reverseWeights[i] = compactWeights[e];
+            }
+        }
+
+        // the builder keeps its own index so that it can still grow
+        return new CsrGraph<>(VertexIndex.of(index.labels()), compactOffsets, compactTargets, compactWeights,
+                reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    /**
+     * Build on the common pool.
+     *
+     * @see #buildAdjListGraph(ForkJoinPool)
+     */
+    public AdjListGraph<L> buildAdjListGraph() {
+        return buildAdjListGraph(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Build a mutable graph holding the vertices and edges added so far. Every
+     * map of the graph is created with its final size, see
+     * {@link AdjListGraph#AdjListGraph(Graph)}.
+     *
+     * @param pool deduplicates the rows
+     */
+    public AdjListGraph<L> buildAdjListGraph(ForkJoinPool pool) {
+        return new AdjListGraph<>(buildCsrGraph(pool));
+    }
+
+    /**
+     * Sort the rows of a range of vertices by target and keep the last
+     * weight of every target.
+     */
+    private static class Dedup extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] offsets;
+        private final int[] targets;
+        private final double[] weights;
+        private final int[] degrees;
+        private final int from;
+        private final int to;
+
+        Dedup(int[] offsets, int[] targets, double[] weights, int[] degrees, int from, int to) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.degrees = degrees;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > 1 && offsets[to] - offsets[from] > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Dedup(offsets, targets, weights, degrees, from, middle),
+                        new Dedup(offsets, targets, weights, degrees, middle, to));
+                return;
+            }
+
+            long[] keys = new long[0];
+            double[] row = new double[0];
+            for(int v = from; v < to; v++) {
+                int begin = offsets[v];
+                int length = offsets[v + 1] - begin;
+                if(length < 2) {
+                    degrees[v] = length;
+                    continue;
+                }
+                if(keys.length < length) {
+                    keys = new long[length];
+                    row = new double[length];
+                }
+
+                // target in the high bits, position in the low bits: equal targets stay in order
+                for(int i = 0; i < length; i++)
+                    keys[i] = (long) targets[begin + i] << 32 | i;
+                System.arraycopy(weights, begin, row, 0, length);
+                Arrays.sort(keys, 0, length);
+
+                int degree = 0;
+                for(int i = 0; i < length; i++) {
+                    int target = (int) (keys[i] >>> 32);
+                    if(i + 1 < length && (int) (keys[i + 1] >>> 32) == target)
+                        continue;
+                    targets[begin + degree] = target;
+                    weights[begin + degree++] = row[(int) keys[i]];
+                }
+                degrees[v] = degree;
+            }
+        }
+    }
+}
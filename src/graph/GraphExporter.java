@@ -0,0 +1,234 @@
+package graph;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Streaming writer of graphs to text formats.
+ *
+ * Supported formats:
+ * <ul>
+ * <li>DOT: a {@code digraph} with every vertex and its out edges labelled by
+ * their weight, readable by Graphviz;</li>
+ * <li>GraphML: directed graph with a {@code weight} key of type double;</li>
+ * <li>JSON: {@code {"directed":true,"nodes":[...],"edges":[...]}} with
+ * {@code {"id":...}} nodes and {@code {"source":...,"target":...,"weight":...}}
+ * edges. Non finite weights are written as the strings "NaN", "Infinity"
+ * and "-Infinity".</li>
+ * </ul>
+ * Vertices are identified by the toString() of their labels. The graph is
+ * walked vertex by vertex through {@link Graph#targets(Object)} and written
+ * through a small buffer: no model of the document is built, so memory does
+ * not grow with the graph. The graph must not be modified while it is
+ * written. An exporter holds no state and can be shared.
+ */
+public final class GraphExporter {
+    private static final int BUFFER = 1 << 16;
+
+    private enum Format { DOT, GRAPHML, JSON }
+
+    private final Format format;
+
+    private GraphExporter(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * @return an exporter to the Graphviz DOT language
+     */
+    public static GraphExporter dot() {
+        return new GraphExporter(Format.DOT);
+    }
+
+    /**
+     * @return an exporter to GraphML
+     */
+    public static GraphExporter graphml() {
+        return new GraphExporter(Format.GRAPHML);
+    }
+
+    /**
+     * @return an exporter to JSON
+     */
+    public static GraphExporter json() {
+        return new GraphExporter(Format.JSON);
+    }
+
+    /**
+     * Write graph to file, in UTF-8.
+     *
+     * @param graph to write
+     * @param file created or overwritten
+     * @throws IOException if the file cannot be written
+     */
+    public <L> void write(Graph<L> graph, File file) throws IOException {
+        try(OutputStream out = new FileOutputStream(file)) {
+            write(graph, out);
+        }
+    }
+
+    /**
+     * Write graph to out, in UTF-8. out is flushed but not closed.
+     *
+     * @param graph to write
+     * @param out receives the document
+     * @throws IOException if out fails
+     */
+    public <L> void write(Graph<L> graph, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER);
+        switch(format) {
+            case DOT:
+                writeDot(graph, writer);
+                break;
+            case GRAPHML:
+                writeGraphml(graph, writer);
+                break;
+            default:
+                writeJson(graph, writer);
+        }
+        writer.flush();
+    }
+
+    private static <L> void writeDot(Graph<L> graph, Writer out) throws IOException {
+        out.write("digraph {\n");
+        for(L source : graph.vertices()) {
+            String id = dotId(source);
+            out.write("  ");
+            out.write(id);
+            out.write(";\n");
+            for(Map.Entry<L, Double> edge : graph.targets(source).entrySet()) {
+                out.write("  ");
+                out.write(id);
+                out.write(" -> ");
+                out.write(dotId(edge.getKey()));
+                out.write(" [label=\"");
+                out.write(edge.getValue().toString());
+                out.write("\"];\n");
+            }
+        }
+        out.write("}\n");
+    }
+
+    private static String dotId(Object label) {
+        String id = label.toString();
+        StringBuilder quoted = new StringBuilder(id.length() + 2).append('"');
+        for(int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if(c == '"' || c == '\\')
+                quoted.append('\\').append(c);
+            else if(c == '\n')
+                quoted.append("\\n");
+            else if(c != '\r')
+                quoted.append(c);
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static <L> void writeGraphml(Graph<L> graph, Writer out) throws IOException {
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n");
+        out.write("  <key id=\"weight\" for=\"edge\" attr.name=\"weight\" attr.type=\"double\"/>\n");
+        out.write("  <graph id=\"G\" edgedefault=\"directed\">\n");
+        for(L source : graph.vertices()) {
+            String id = xml(source.toString());
+            out.write("    <node id=\"");
+            out.write(id);
+            out.write("\"/>\n");
+            for(Map.Entry<L, Double> edge : graph.targets(source).entrySet()) {
+                out.write("    <edge source=\"");
+                out.write(id);
+                out.write("\" target=\"");
+                out.write(xml(edge.getKey().toString()));
+                out.write("\"><data key=\"weight\">");
+                out.write(edge.getValue().toString());
+                out.write("</data></edge>\n");
+            }
+        }
+        out.write("  </graph>\n");
+        out.write("</graphml>\n");
+    }
+
+    private static String xml(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for(int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch(c) {
+                case '&': escaped.append("&amp;"); break;
+                case '<': escaped.append("&lt;"); break;
+                case '>': escaped.append("&gt;"); break;
+                case '"': escaped.append("&quot;"); break;
+                case '\'': escaped.append("&apos;"); break;
+                case '\t':
+                case '\n':
+                case '\r':
+                    // referenced so that attribute normalization keeps them
+                    escaped.append("&#").append((int) c).append(';');
+                    break;
+                default:
+                    if(Character.isHighSurrogate(c) && i + 1 < text.length()
+                            && Character.isLowSurrogate(text.charAt(i + 1))) {
+                        escaped.append(c).append(text.charAt(++i));
+                    } else if(c < 0x20 || c == '\uFFFE' || c == '\uFFFF' || Character.isSurrogate(c)) {
+                        // XML 1.0 allows no other control character, non
+                        // character or unpaired surrogate, even referenced
+                        escaped.append('\uFFFD');
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static <L> void writeJson(Graph<L> graph, Writer out) throws IOException {
+        out.write("{\"directed\":true,\"nodes\":[");
+        boolean first = true;
+        for(L vertex : graph.vertices()) {
+            out.write(first ? "\n" : ",\n");
+            first = false;
+            out.write("{\"id\":");
+            out.write(json(vertex.toString()));
+            out.write('}');
+        }
+        out.write("],\"edges\":[");
+        first = true;
+        for(L source : graph.vertices()) {
+            String id = json(source.toString());
+            for(Map.Entry<L, Double> edge : graph.targets(source).entrySet()) {
+                out.write(first ? "\n" : ",\n");
+                first = false;
+                out.write("{\"source\":");
+                out.write(id);
+                out.write(",\"target\":");
+                out.write(json(edge.getKey().toString()));
+                out.write(",\"weight\":");
+                double weight = edge.getValue();
+                out.write(Double.isNaN(weight) || Double.isInfinite(weight)
+                        ? json(Double.toString(weight)) : Double.toString(weight));
+                out.write('}');
+            }
+        }
+        out.write("]}\n");
+    }
+
+    private static String json(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for(int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if(c == '"' || c == '\\')
+                quoted.append('\\').append(c);
+            else if(c < 0x20)
+                quoted.append(String.format("\\u%04x", (int) c));
+            else
+                quoted.append(c);
+        }
+        return quoted.append('"').toString();
+    }
+}
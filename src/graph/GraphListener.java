@@ -0,0 +1,43 @@
+package graph;
+
+/**
+ * Receives the modifications of a graph, see
+ * {@link AdjListGraph#addListener(GraphListener)}. Every callback is called
+ * once the modification is applied, so the graph seen from a callback is
+ * already modified. Callbacks run on the thread modifying the graph and must
+ * not modify it. Every callback does nothing by default.
+ *
+ * @param <L> type of vertex labels
+ */
+public interface GraphListener<L> {
+
+    /**
+     * A vertex with no edge was added.
+     */
+    default void vertexAdded(L vertex) {
+    }
+
+    /**
+     * The edge from source to target was added or its weight changed.
+     *
+     * @param previous weight before the change, or NaN if the edge is new
+     * @param weight weight after the change
+     */
+    default void edgeSet(L source, L target, double previous, double weight) {
+    }
+
+    /**
+     * The edge from source to target was removed, because one of its ends
+     * was removed.
+     *
+     * @param weight weight the edge had
+     */
+    default void edgeRemoved(L source, L target, double weight) {
+    }
+
+    /**
+     * A vertex was removed. The removal of its edges is reported before.
+     */
+    default void vertexRemoved(L vertex) {
+    }
+}
@@ -0,0 +1,236 @@
+package graph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import guru.nidi.graphviz.engine.Format;
+import guru.nidi.graphviz.engine.Graphviz;
+
+/**
+ * Draws graphs to PNG or SVG images with the Graphviz library.
+ *
+ * The layout takes time and memory well beyond linear in the size of the
+ * graph, so a renderer refuses graphs with more vertices than its limit.
+ * Large graphs are drawn through a part of them:
+ * {@link #neighbourhood(Graph, Object, int)} keeps the vertices a few hops
+ * away from a vertex and {@link #sample(Graph, int, long)} keeps random
+ * vertices. The graph is passed to Graphviz as DOT text written by
+ * {@link GraphExporter#dot()}, without building a Graphviz model.
+ *
+ * {@link #renderAsync(Graph, File, Executor)} writes the DOT text on the
+ * calling thread and leaves the layout to an executor. A renderer holds
+ * only its settings and can be shared.
+ */
+public final class GraphRenderer {
+    private final Format format;
+    private int width = 500;
+    private int maxVertices = 1000;
+
+    private GraphRenderer(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * @return a renderer to PNG images
+     */
+    public static GraphRenderer png() {
+        return new GraphRenderer(Format.PNG);
+    }
+
+    /**
+     * @return a renderer to standalone SVG documents
+     */
+    public static GraphRenderer svg() {
+        return new GraphRenderer(Format.SVG_STANDALONE);
+    }
+
+    /**
+     * @param pixels width of the image, 500 by default
+     * @return this renderer
+     */
+    public GraphRenderer width(int pixels) {
+        if(pixels < 1)
+            throw new IllegalArgumentException("Width must be positive: " + pixels);
+        this.width = pixels;
+        return this;
+    }
+
+    /**
+     * @param vertices largest number of vertices rendered, 1000 by default
+     * @return this renderer
+     */
+    public GraphRenderer maxVertices(int vertices) {
+        if(vertices < 0)
+            throw new IllegalArgumentException("Vertex limit must not be negative: " + vertices);
+        this.maxVertices = vertices;
+        return this;
+    }
+
+    /**
+     * @return the DOT text of graph
+     * @throws IllegalArgumentException if graph has more vertices than the limit
+     */
+    private <L> String dot(Graph<L> graph) {
+        int vertices = graph.vertices().size();
+        if(vertices > maxVertices)
+            throw new IllegalArgumentException("Graph has " + vertices + " vertices, more than the limit of "
+                    + maxVertices + ": render a neighbourhood or a sample");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            GraphExporter.dot().write(graph, out);
+        } catch(IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private Graphviz graphviz(String dot) {
+        return Graphviz.fromString(dot).width(width);
+    }
+
+    /**
+     * Draw graph to file. The extension of the format is appended to the name
+     * of file if it has none.
+     *
+     * @param graph to draw
+     * @param file created or overwritten, with its parent directories
+     * @throws IllegalArgumentException if graph has more vertices than the limit
+     * @throws IOException if the file cannot be written
+     */
+    public <L> void render(Graph<L> graph, File file) throws IOException {
+        graphviz(dot(graph)).render(format).toFile(file);
+    }
+
+    /**
+     * Draw graph to out, which is not closed.
+     *
+     * @param graph to draw
+     * @param out receives the image
+     * @throws IllegalArgumentException if graph has more vertices than the limit
+     * @throws IOException if out fails
+     */
+    public <L> void render(Graph<L> graph, OutputStream out) throws IOException {
+        graphviz(dot(graph)).render(format).toOutputStream(out);
+    }
+
+    /**
+     * Draw graph to file on executor. graph is read before this method
+     * returns and can be modified afterwards.
+     *
+     * @param graph to draw
+     * @param file created or overwritten, see {@link #render(Graph, File)}
+     * @param executor runs the layout
+     * @return completed when the file is written, or exceptionally with an
+     *         UncheckedIOException if it cannot be
+     * @throws IllegalArgumentException if graph has more vertices than the limit
+     */
+    public <L> CompletableFuture<Void> renderAsync(Graph<L> graph, File file, Executor executor) {
+        Graphviz graphviz = graphviz(dot(graph));
+        return CompletableFuture.runAsync(() -> {
+            try {
+                graphviz.render(format).toFile(file);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Return the subgraph of the vertices at most hops edges away from vertex,
+     * following edges in both directions, with every edge between them.
+     *
+     * @param graph to read
+     * @param vertex center of the neighbourhood
+     * @param hops largest distance in edges
+     * @return a new graph, empty if vertex is not in graph
+     */
+    public static <L> AdjListGraph<L> neighbourhood(Graph<L> graph, L vertex, int hops) {
+        if(hops < 0)
+            throw new IllegalArgumentException("Hops must not be negative: " + hops);
+        if(graph.targets(vertex) == null)
+            return new AdjListGraph<>();
+
+        Map<L, Integer> depth = new HashMap<>();
+        Queue<L> queue = new ArrayDeque<>();
+        depth.put(vertex, 0);
+        queue.add(vertex);
+        while(!queue.isEmpty()) {
+            L current = queue.remove();
+            int next = depth.get(current) + 1;
+            if(next > hops)
+                continue;
+            for(L neighbour : graph.targets(current).keySet()) {
+                if(depth.putIfAbsent(neighbour, next) == null)
+                    queue.add(neighbour);
+            }
+            Map<L, Double> sources = graph.sources(current);
+            if(sources == null)
+                continue;
+            for(L neighbour : sources.keySet()) {
+                if(depth.putIfAbsent(neighbour, next) == null)
+                    queue.add(neighbour);
+            }
+        }
+        return induced(graph, depth.keySet());
+    }
+
+    /**
+     * Return the subgraph of a uniform sample of the vertices of graph, with
+     * every edge between them. The vertices are drawn by reservoir sampling in
+     * one pass.
+     *
+     * @param graph to read
+     * @param vertices size of the sample
+     * @param seed of the random draw, the same seed gives the same sample of
+     *        the same graph
+     * @return a new graph, equal to graph if it has at most vertices vertices
+     */
+    public static <L> AdjListGraph<L> sample(Graph<L> graph, int vertices, long seed) {
+        if(vertices < 0)
+            throw new IllegalArgumentException("Sample size must not be negative: " + vertices);
+        Random random = new Random(seed);
+        List<L> reservoir = new ArrayList<>();
+        int seen = 0;
+        for(L vertex : graph.vertices()) {
+            seen++;
+            if(reservoir.size() < vertices) {
+                reservoir.add(vertex);
+            } else {
+                int slot = random.nextInt(seen);
+                if(slot < vertices)
+                    reservoir.set(slot, vertex);
+            }
+        }
+        return induced(graph, reservoir);
+    }
+
+    private static <L> AdjListGraph<L> induced(Graph<L> graph, Collection<L> vertices) {
+        Set<L> kept = new HashSet<>(vertices);
+        AdjListGraph<L> subgraph = new AdjListGraph<>();
+        for(L vertex : vertices)
+            subgraph.add(vertex);
+        for(L source : vertices) {
+            for(Map.Entry<L, Double> edge : graph.targets(source).entrySet()) {
+                if(kept.contains(edge.getKey()))
+                    subgraph.set(source, edge.getKey(), edge.getValue());
+            }
+        }
+        return subgraph;
+    }
+}
@@ -0,0 +1,78 @@
+package graph;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Heuristics for {@link Graph#aStar} over vertices that carry coordinates.
+ * Each one estimates the remaining cost from a vertex to a fixed target as
+ * a straight line distance multiplied by a scale. The estimate is admissible
+ * and consistent as long as the weight of every edge is at least scale times
+ * the distance between its two ends, e.g. with weights in meters and scale 1,
+ * or with weights in seconds and scale 1 / (maximum speed in m/s).
+ */
+public final class Heuristics {
+    /** Mean earth radius in meters */
+    public static final double EARTH_RADIUS = 6_371_008.8;
+
+    private Heuristics() {
+    }
+
+    /**
+     * @return a heuristic that estimates nothing. A* then behaves like Dijkstra
+     */
+    public static <L> ToDoubleFunction<L> zero() {
+        return vertex -> 0;
+    }
+
+    /**
+     * Euclidean distance in the plane.
+     *
+     * @param target vertex the search is heading to
+     * @param x abscissa of a vertex
+     * @param y ordinate of a vertex
+     */
+    public static <L> ToDoubleFunction<L> euclidean(L target, ToDoubleFunction<L> x, ToDoubleFunction<L> y) {
+        return euclidean(target, x, y, 1);
+    }
+
+    /**
+     * Euclidean distance in the plane multiplied by scale.
+     */
+    public static <L> ToDoubleFunction<L> euclidean(L target, ToDoubleFunction<L> x, ToDoubleFunction<L> y, double scale) {
+        double tx = x.applyAsDouble(target);
+        double ty = y.applyAsDouble(target);
+        return vertex -> {
+            double dx = x.applyAsDouble(vertex) - tx;
+            double dy = y.applyAsDouble(vertex) - ty;
+            return scale * Math.sqrt(dx * dx + dy * dy);
+        };
+    }
+
+    /**
+     * Great circle distance in meters on a spherical earth.
+     *
+     * @param target vertex the search is heading to
+     * @param latitude latitude of a vertex in degrees
+     * @param longitude longitude of a vertex in degrees
+     */
+    public static <L> ToDoubleFunction<L> haversine(L target, ToDoubleFunction<L> latitude, ToDoubleFunction<L> longitude) {
+        return haversine(target, latitude, longitude, 1);
+    }
+
+    /**
+     * Great circle distance in meters on a spherical earth multiplied by scale.
+     */
+    public static <L> ToDoubleFunction<L> haversine(L target, ToDoubleFunction<L> latitude, ToDoubleFunction<L> longitude, double scale) {
+        double lat = Math.toRadians(latitude.applyAsDouble(target));
+        double lon = Math.toRadians(longitude.applyAsDouble(target));
+        double cos_lat = Math.cos(lat);
+        return vertex -> {
+            double vertex_lat = Math.toRadians(latitude.applyAsDouble(vertex));
+            double vertex_lon = Math.toRadians(longitude.applyAsDouble(vertex));
+            double sin_lat = Math.sin((vertex_lat - lat) / 2);
+            double sin_lon = Math.sin((vertex_lon - lon) / 2);
+            double a = sin_lat * sin_lat + cos_lat * Math.cos(vertex_lat) * sin_lon * sin_lon;
+            return scale * 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min priority queue of integer items in [0, capacity) with double keys.
+ * Each item is at most once in the heap and knows its position, so its key
+ * can be lowered in place instead of pushing a duplicate entry. A d-ary
+ * layout makes the tree shallower than a binary heap, which speeds up
+ * decreaseKey at the cost of more comparisons in pop.
+ */
+public final class IndexedDHeap {
+    private static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    // heap[i] is the item at position i
+    private int[] heap;
+    // position[item] is the index of item in heap, or -1 if absent
+    private int[] position;
+    private double[] keys;
+    private int size;
+
+    public IndexedDHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * @param capacity items must be in [0, capacity)
+     * @param arity number of children per node, at least 2
+     */
+    public IndexedDHeap(int capacity, int arity) {
+        if(arity < 2)
+            throw new IllegalArgumentException("arity must be at least 2: " + arity);
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Grow the heap so that it accepts items in [0, capacity). Does nothing
+     * if it is already large enough.
+     */
+    public void ensureCapacity(int capacity) {
+        int old = position.length;
+        if(capacity <= old)
+            return;
+
+        capacity = Math.max(capacity, old + (old >> 1));
+        heap = Arrays.copyOf(heap, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        position = Arrays.copyOf(position, capacity);
+        Arrays.fill(position, old, capacity, -1);
+    }
+
+    public int capacity() {
+        return position.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int item) {
+        return position[item] >= 0;
+    }
+
+    /**
+     * @param item an item of the heap
+     * @return the current key of item
+     */
+    public double key(int item) {
+        if(position[item] < 0)
+            throw new NoSuchElementException("Item not in heap: " + item);
+        return keys[item];
+    }
+
+    /**
+     * @param item absent from the heap
+     * @param key priority of item
+     */
+    public void insert(int item, double key) {
+        if(position[item] >= 0)
+            throw new IllegalArgumentException("Item already in heap: " + item);
+        keys[item] = key;
+        siftUp(size++, item);
+    }
+
+    /**
+     * Lower the key of an item of the heap.
+     *
+     * @return false if key is not lower than the current key (the heap is not
+     *         modified)
+     */
+    public boolean decreaseKey(int item, double key) {
+        int i = position[item];
+        if(i < 0)
+            throw new NoSuchElementException("Item not in heap: " + item);
+        if(!(key < keys[item]))
+            return false;
+        keys[item] = key;
+        siftUp(i, item);
+        return true;
+    }
+
+    /**
+     * @return the item with the smallest key
+     */
+    public int peek() {
+        if(size == 0)
+            throw new NoSuchElementException("Heap is empty");
+        return heap[0];
+    }
+
+    /**
+     * @return the smallest key
+     */
+    public double peekKey() {
+        return keys[peek()];
+    }
+
+    /**
+     * Remove and return the item with the smallest key.
+     */
+    public int pop() {
+        int top = peek();
+        position[top] = -1;
+        int last = heap[--size];
+        if(size > 0)
+            siftDown(0, last);
+        return top;
+    }
+
+    /**
+     * Remove every item. Runs in the number of items left in the heap.
+     */
+    public void clear() {
+        for(int i = 0; i < size; i++)
+            position[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i, int item) {
+        double key = keys[item];
+        while(i > 0) {
+            int parent = (i - 1) / arity;
+            int p = heap[parent];
+            if(keys[p] <= key)
+                break;
+            heap[i] = p;
+            position[p] = i;
+            i = parent;
+        }
+        heap[i] = item;
+        position[item] = i;
+    }
+
+    private void siftDown(int i, int item) {
+        double key = keys[item];
+        while(true) {
+            int first = i * arity + 1;
+            if(first >= size)
+                break;
+
+            // find the smallest child
+            int last = Math.min(first + arity, size);
+            int child = first;
+            double childKey = keys[heap[first]];
+            for(int c = first + 1; c < last; c++) {
+                double k = keys[heap[c]];
+                if(k < childKey) {
+                    child = c;
+                    childKey = k;
+                }
+            }
+
+            if(childKey >= key)
+                break;
+            int c = heap[child];
+            heap[i] = c;
+            position[c] = i;
+            i = child;
+        }
+        heap[i] = item;
+        position[item] = i;
+    }
+}
@@ -0,0 +1,82 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * A graph seen through the dense ids of its {@link VertexIndex}: labels are
+ * mapped to ids once with {@link #id(Object)}, then edges are walked with an
+ * {@link EdgeCursor} and distances are computed over primitive arrays, so
+ * no label is hashed and no weight is boxed. {@link Graph#indexed()} gives
+ * the indexed form of any graph.
+ *
+ * The id based queries have names of their own rather than overloads of
+ * the label based ones: on a graph of Integer labels, dijkstra(5) must not
+ * silently change from the label 5 to the id 5.
+ *
+ * @param <L> type of vertex labels
+ */
+public interface IndexedGraph<L> extends IntGraph {
+
+    /**
+     * @return the index mapping the labels of this graph to vertex ids
+     */
+    VertexIndex<L> index();
+
+    /**
+     * @return the id of label, or -1 if label is not a vertex of this graph
+     */
+    default int id(L label) {
+        return index().id(label);
+    }
+
+    /**
+     * @param id a vertex id
+     * @return the label of the vertex
+     */
+    default L label(int id) {
+        return index().label(id);
+    }
+
+    @Override
+    IndexedGraph<L> reverse();
+
+    /**
+     * @param vertex a vertex id
+     * @return a new cursor over the out edges of vertex
+     */
+    default EdgeCursor outEdges(int vertex) {
+        return new EdgeCursor().reset(this, vertex);
+    }
+
+    /**
+     * @param vertex a vertex id
+     * @return a new cursor over the in edges of vertex, whose targets are
+     *         the sources of the edges
+     */
+    default EdgeCursor inEdges(int vertex) {
+        return new EdgeCursor().reset(reverse(), vertex);
+    }
+
+    /**
+     * @Precondition Non negative edges
+     *
+     * Same as {@link Graph#dijkstra(Object)} from a vertex id.
+     *
+     * @param source a vertex id
+     * @return array d where d[v] is the cost of the shortest path from source
+     *         to v, positive infinity if v is not reachable
+     */
+    default double[] distances(int source) {
+        double[] distances = new double[vertexCount()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        long start = QueryMetrics.start();
+        DijkstraEngine engine = DijkstraEngine.local(vertexCount());
+        engine.run(this, source);
+        QueryMetrics.report("dijkstra", engine, start);
+        for(int i = 0; i < engine.reachedCount(); i++) {
+            int v = engine.reachedVertex(i);
+            distances[v] = engine.distance(v);
+        }
+        return distances;
+    }
+}
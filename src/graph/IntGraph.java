@@ -0,0 +1,50 @@
+package graph;
+
+/**
+ * Read only view of a weighted directed graph whose vertices are the dense
+ * integer ids [0, vertexCount()). Out edges of a vertex v are the edge
+ * indices in [begin(v), end(v)). This is the representation the primitive
+ * algorithms work on: no label hashing and no boxed weights.
+ */
+public interface IntGraph {
+
+    /**
+     * @return the number of vertices. Vertex ids are in [0, vertexCount())
+     */
+    int vertexCount();
+
+    /**
+     * @return the number of edges. Edge indices are in [0, edgeCount())
+     */
+    int edgeCount();
+
+    /**
+     * @param vertex a vertex id
+     * @return index of the first out edge of vertex
+     */
+    int begin(int vertex);
+
+    /**
+     * @param vertex a vertex id
+     * @return index following the last out edge of vertex
+     */
+    int end(int vertex);
+
+    /**
+     * @param edge an edge index
+     * @return id of the vertex the edge points to
+     */
+    int target(int edge);
+
+    /**
+     * @param edge an edge index
+     * @return weight of the edge
+     */
+    double weight(int edge);
+
+    /**
+     * @return the same graph with every edge reversed. Out edges of a vertex
+     *         in the reversed graph are the in edges of that vertex in this one
+     */
+    IntGraph reverse();
+}
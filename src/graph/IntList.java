@@ -0,0 +1,95 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints. Used as a list, a stack or a queue by
+ * the algorithms working on vertex ids so that they never box an id.
+ */
+public final class IntList {
+    private int[] items;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int capacity) {
+        items = new int[Math.max(capacity, 1)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(int item) {
+        if(size == items.length)
+            items = Arrays.copyOf(items, size + (size >> 1) + 1);
+        items[size++] = item;
+    }
+
+    public int get(int i) {
+        if(i >= size)
+            throw new IndexOutOfBoundsException(i + " >= " + size);
+        return items[i];
+    }
+
+    public void set(int i, int item) {
+        if(i >= size)
+            throw new IndexOutOfBoundsException(i + " >= " + size);
+        items[i] = item;
+    }
+
+    /**
+     * Remove and return the last item.
+     */
+    public int pop() {
+        if(size == 0)
+            throw new IndexOutOfBoundsException("List is empty");
+        return items[--size];
+    }
+
+    /**
+     * @return the last item
+     */
+    public int peek() {
+        if(size == 0)
+            throw new IndexOutOfBoundsException("List is empty");
+        return items[size - 1];
+    }
+
+    /**
+     * Keep only the first size items.
+     */
+    public void truncate(int size) {
+        if(size < 0 || size > this.size)
+            throw new IndexOutOfBoundsException(size + " not in [0, " + this.size + "]");
+        this.size = size;
+    }
+
+    /**
+     * Remove every item. The capacity is kept.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Reverse the order of the items in [from, to).
+     */
+    public void reverse(int from, int to) {
+        for(int i = from, j = to - 1; i < j; i++, j--) {
+            int tmp = items[i];
+            items[i] = items[j];
+            items[j] = tmp;
+        }
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(items, size);
+    }
+}
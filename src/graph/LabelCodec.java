@@ -0,0 +1,89 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts vertex labels to bytes and back, to store the label dictionary of
+ * a graph file, see {@link MappedGraph}.
+ *
+ * @param <L> type of vertex labels
+ */
+public interface LabelCodec<L> {
+
+    /**
+     * @return the bytes of label. Distinct labels must give distinct bytes
+     */
+    byte[] encode(L label);
+
+    /**
+     * Read a label written by {@link #encode(Object)}. The position of buffer
+     * must not be changed.
+     *
+     * @param buffer holds the bytes, in little endian order
+     * @param offset index of the first byte of the label in buffer
+     * @param length number of bytes of the label
+     * @throws IllegalArgumentException if the bytes are not a label written
+     *         by this codec
+     */
+    L decode(ByteBuffer buffer, int offset, int length);
+
+    /**
+     * @return a codec storing strings in UTF-8
+     */
+    static LabelCodec<String> strings() {
+        return new LabelCodec<String>() {
+            @Override
+            public byte[] encode(String label) {
+                return label.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(ByteBuffer buffer, int offset, int length) {
+                byte[] bytes = new byte[length];
+                for(int i = 0; i < length; i++)
+                    bytes[i] = buffer.get(offset + i);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * @return a codec storing integers on 4 bytes
+     */
+    static LabelCodec<Integer> integers() {
+        return new LabelCodec<Integer>() {
+            @Override
+            public byte[] encode(Integer label) {
+                return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(label).array();
+            }
+
+            @Override
+            public Integer decode(ByteBuffer buffer, int offset, int length) {
+                if(length != 4)
+                    throw new IllegalArgumentException("An integer label has 4 bytes, not " + length);
+                return buffer.getInt(offset);
+            }
+        };
+    }
+
+    /**
+     * @return a codec storing longs on 8 bytes
+     */
+    static LabelCodec<Long> longs() {
+        return new LabelCodec<Long>() {
+            @Override
+            public byte[] encode(Long label) {
+                return ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(label).array();
+            }
+
+            @Override
+            public Long decode(ByteBuffer buffer, int offset, int length) {
+                if(length != 8)
+                    throw new IllegalArgumentException("A long label has 8 bytes, not " + length);
+                return buffer.getLong(offset);
+            }
+        };
+    }
+}
@@ -0,0 +1,189 @@
+package graph;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * ALT index (A*, Landmarks, Triangle inequality) over a snapshot of a graph.
+ *
+ * A few landmark vertices are chosen and the distances from every landmark
+ * to every vertex and from every vertex to every landmark are stored in
+ * primitive arrays. For any landmark l and vertices v, t the triangle
+ * inequality gives two lower bounds of d(v, t):
+ * d(v, l) - d(t, l) and d(l, t) - d(l, v). Their maximum over all landmarks
+ * is a consistent A* heuristic which is usually far tighter than a
+ * geometric one, so queries settle only a small part of the graph.
+ *
+ * The index is built once for a static graph. It holds a {@link CsrGraph}
+ * snapshot: modifications of the original graph require a new index.
+ * The index is serializable so that it can be built offline and loaded by
+ * the services answering queries.
+ *
+ * @param <L> type of vertex labels
+ */
+public final class LandmarkIndex<L> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final CsrGraph<L> graph;
+    private final int[] landmarks;
+    // from[i * n + v] is the distance from landmark i to v
+    private final double[] from;
+    // to[i * n + v] is the distance from v to landmark i
+    private final double[] to;
+
+    private LandmarkIndex(CsrGraph<L> graph, int[] landmarks, double[] from, double[] to) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Choose count landmarks and compute their distances. Landmarks are
+     * picked one at a time, each one being the vertex the farthest from the
+     * landmarks already chosen; vertices that no landmark reaches yet are
+     * picked first so that every weakly connected part of the graph gets a
+     * landmark. Building runs 2 * count Dijkstra searches over the whole graph.
+     *
+     * @Precondition Non negative edges
+     *
+     * @param graph to index. A snapshot is taken, see {@link CsrGraph#of(Graph)}
+     * @param count number of landmarks, usually between 4 and 16
+     * @return the index
+     * @throws IllegalArgumentException if count is negative, or count times
+     *         the number of vertices does not fit in an array
+     */
+    public static <L> LandmarkIndex<L> build(Graph<L> graph, int count) {
+        CsrGraph<L> csr = CsrGraph.of(graph);
+        int n = csr.vertexCount();
+        count = Math.min(count, n);
+        if(count < 0)
+            throw new IllegalArgumentException("Negative landmark count: " + count);
+        if((long) count * n > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Too many distances to store: " + count + " landmarks of " + n + " vertices");
+
+        int[] landmarks = new int[count];
+        double[] from = new double[count * n];
+        double[] to = new double[count * n];
+        // smallest distance between each vertex and the chosen landmarks
+        double[] closest = new double[n];
+        Arrays.fill(closest, Double.POSITIVE_INFINITY);
+
+        DijkstraEngine engine = DijkstraEngine.local(n);
+        int next = 0;
+        for(int i = 0; i < count; i++) {
+            landmarks[i] = next;
+            fill(engine, csr, next, from, i * n);
+            fill(engine, csr.reverse(), next, to, i * n);
+
+            next = -1;
+            double farthest = -1;
+            for(int v = 0; v < n; v++) {
+                double d = Math.min(from[i * n + v], to[i * n + v]);
+                if(d < closest[v])
+                    closest[v] = d;
+                if(closest[v] > farthest) {
+                    farthest = closest[v];
+                    next = v;
+                }
+            }
+        }
+
+        return new LandmarkIndex<>(csr, landmarks, from, to);
+    }
+
+    private static void fill(DijkstraEngine engine, IntGraph graph, int source, double[] distances, int offset) {
+        engine.run(graph, source);
+        for(int v = 0; v < graph.vertexCount(); v++)
+            distances[offset + v] = engine.distance(v);
+    }
+
+    /**
+     * @return the graph snapshot the index was built on
+     */
+    public CsrGraph<L> graph() {
+        return graph;
+    }
+
+    /**
+     * @return the labels of the landmarks
+     */
+    public List<L> landmarks() {
+        List<L> labels = new ArrayList<>(landmarks.length);
+        for(int landmark : landmarks)
+            labels.add(graph.index().label(landmark));
+        return labels;
+    }
+
+    /**
+     * Lower bound of the distance from vertex to target given by the
+     * landmarks. Positive infinity means that the landmarks prove that target
+     * is not reachable from vertex.
+     *
+     * @param vertex a vertex id
+     * @param target a vertex id
+     */
+    private double bound(int vertex, int target) {
+        int n = graph.vertexCount();
+        double bound = 0;
+        for(int i = 0, offset = 0; i < landmarks.length; i++, offset += n) {
+            // d(vertex, target) >= d(vertex, l) - d(target, l)
+            double target_to = to[offset + target];
+            if(target_to != Double.POSITIVE_INFINITY) {
+                double vertex_to = to[offset + vertex];
+                if(vertex_to == Double.POSITIVE_INFINITY)
+                    return Double.POSITIVE_INFINITY;
+                bound = Math.max(bound, vertex_to - target_to);
+            }
+
+            // d(vertex, target) >= d(l, target) - d(l, vertex)
+            double vertex_from = from[offset + vertex];
+            if(vertex_from != Double.POSITIVE_INFINITY) {
+                double target_from = from[offset + target];
+                if(target_from == Double.POSITIVE_INFINITY)
+                    return Double.POSITIVE_INFINITY;
+                bound = Math.max(bound, target_from - vertex_from);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * @return the landmark lower bound of the distance from vertex to target,
+     *         positive infinity if the landmarks prove that target is not
+     *         reachable from vertex, or 0 if one of them is not in the graph
+     */
+    public double lowerBound(L vertex, L target) {
+        int v = graph.index().id(vertex);
+        int t = graph.index().id(target);
+        return v < 0 || t < 0 ? 0 : bound(v, t);
+    }
+
+    /**
+     * A* search from src to dst guided by the landmarks. The number of
+     * vertices settled by the query is reported by {@link Path#settled()}.
+     *
+     * @param src Vertex from which the path starts
+     * @param dst Vertex at which the path ends
+     * @return the shortest path from src to dst, or null if dst is not reachable
+     *         from src or one of them is not in the graph
+     */
+    public Path<L> shortestPath(L src, L dst) {
+        int source = graph.index().id(src);
+        int target = graph.index().id(dst);
+        if(source < 0 || target < 0)
+            return null;
+
+        DijkstraEngine engine = DijkstraEngine.local(graph.vertexCount());
+        IntToDoubleFunction potential = v -> bound(v, target);
+        if(!engine.run(graph, source, target, potential))
+            return null;
+
+        IntList path = new IntList();
+        engine.pathTo(target, path);
+        return graph.toPath(path, engine.distance(target), engine.settledCount());
+    }
+}
@@ -0,0 +1,286 @@
+package graph;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read only graph served from a memory mapped file.
+ *
+ * The file holds the compressed sparse row arrays of a {@link CsrGraph}, in
+ * both directions, and the label dictionary. {@link #load(File, LabelCodec)}
+ * maps the arrays with {@link FileChannel#map} and queries read them in
+ * place: nothing is copied to the heap but the labels, so loading takes the
+ * time of decoding the labels whatever the number of edges, and the pages
+ * of the file are shared by every process that maps it.
+ *
+ * File format, little endian, every section starting on a multiple of 8 bytes:
+ * <pre>
+ * header          int magic "GRAF", int format version, int vertex count n,
+ *                 int edge count m, long size of the label data, long 0
+ * offsets         int[n + 1]   out edges of v are [offsets[v], offsets[v + 1])
+ * targets         int[m]
+ * weights         double[m]
+ * reverse offsets int[n + 1]   same for the in edges
+ * reverse targets int[m]
+ * reverse weights double[m]
+ * label offsets   int[n + 1]   bytes of the label of v are [labels[v], labels[v + 1])
+ * label data      byte[]       labels encoded by a {@link LabelCodec}
+ * </pre>
+ * Every section is mapped on its own and must be smaller than 2 GB, which
+ * allows about 268 million edges.
+ *
+ * @param <L> type of vertex labels in this graph. Must be immutable
+ */
+public final class MappedGraph<L> extends BufferGraph<L> {
+    /** "GRAF" */
+    static final int MAGIC = 0x46415247;
+    /** Version of the file format written by {@link #write(Graph, LabelCodec, File)} */
+    public static final int FORMAT_VERSION = 1;
+    private static final int HEADER = 32;
+
+    private MappedGraph(VertexIndex<L> index, IntBuffer offsets, IntBuffer targets, DoubleBuffer weights,
+                        IntBuffer reverseOffsets, IntBuffer reverseTargets, DoubleBuffer reverseWeights) {
+        super(index, offsets, targets, weights, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * Buffered writes of little endian primitives to a file.
+     */
+    private static final class Output implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        private long written;
+
+        Output(File file) throws IOException {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if(buffer.remaining() < bytes)
+                flush();
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(8);
+            buffer.putDouble(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            for(int i = 0; i < bytes.length; ) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - i);
+                buffer.put(bytes, i, length);
+                i += length;
+            }
+        }
+
+        /**
+         * Pad with zeros up to the next multiple of 8 bytes.
+         */
+        void align() throws IOException {
+            while(((written + buffer.position()) & 7) != 0) {
+                ensure(1);
+                buffer.put((byte) 0);
+            }
+        }
+
+        void flush() throws IOException {
+            ((Buffer) buffer).flip();
+            while(buffer.hasRemaining())
+                written += channel.write(buffer);
+            ((Buffer) buffer).clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Write graph to file in the format read by {@link #load(File, LabelCodec)}.
+     * The out edges of every vertex keep their iteration order.
+     *
+     * @param graph to write. A snapshot is taken, see {@link CsrGraph#of(Graph)}
+     * @param codec converts the labels to bytes
+     * @param file created or overwritten
+     * @throws IllegalArgumentException if graph has too many edges for the format
+     * @throws IOException if the file cannot be written
+     */
+    public static <L> void write(Graph<L> graph, LabelCodec<L> codec, File file) throws IOException {
+        if(graph instanceof BufferGraph) {
+            BufferGraph<L> buffers = (BufferGraph<L>) graph;
+            write(buffers, buffers.index, codec, file);
+        } else {
+            CsrGraph<L> csr = CsrGraph.of(graph);
+            write(csr, csr.index(), codec, file);
+        }
+    }
+
+    private static <L> void write(IntGraph graph, VertexIndex<L> index, LabelCodec<L> codec, File file)
+            throws IOException {
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        if(8L * m > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many edges for a graph file: " + m);
+
+        byte[][] labels = new byte[n][];
+        long labelBytes = 0;
+        for(int v = 0; v < n; v++) {
+            labels[v] = codec.encode(index.label(v));
+            labelBytes += labels[v].length;
+        }
+        if(labelBytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Labels too large for a graph file: " + labelBytes + " bytes");
+
+        try(Output out = new Output(file)) {
+            out.putInt(MAGIC);
+            out.putInt(FORMAT_VERSION);
+            out.putInt(n);
+            out.putInt(m);
+            out.putLong(labelBytes);
+            out.putLong(0);
+
+            IntGraph[] directions = {graph, graph.reverse()};
+            for(IntGraph direction : directions) {
+                for(int v = 0; v < n; v++)
+                    out.putInt(direction.begin(v));
+                out.putInt(m);
+                out.align();
+                for(int v = 0; v < n; v++) {
+                    for(int e = direction.begin(v); e < direction.end(v); e++)
+                        out.putInt(direction.target(e));
+                }
+                out.align();
+                for(int v = 0; v < n; v++) {
+                    for(int e = direction.begin(v); e < direction.end(v); e++)
+                        out.putDouble(direction.weight(e));
+                }
+            }
+
+            int offset = 0;
+            for(int v = 0; v < n; v++) {
+                out.putInt(offset);
+                offset += labels[v].length;
+            }
+            out.putInt(offset);
+            out.align();
+            for(byte[] label : labels)
+                out.put(label);
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Map a file written by {@link #write(Graph, LabelCodec, File)}. The arrays
+     * are not read, only the labels are decoded. The mapping stays valid after
+     * the file is closed; the file must not be modified while it is mapped.
+     *
+     * @param file to map
+     * @param codec converts the bytes back to labels, as they were written
+     * @return a read only graph over the file
+     * @throws IOException if the file cannot be read, is not a graph file,
+     *         has another format version, is truncated, its label
+     *         dictionary is corrupt or codec cannot decode a label
+     */
+    public static <L> MappedGraph<L> load(File file, LabelCodec<L> codec) throws IOException {
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size < HEADER)
+                throw new IOException("Not a graph file: " + file);
+            ByteBuffer header = map(channel, 0, HEADER);
+            if(header.getInt(0) != MAGIC)
+                throw new IOException("Not a graph file: " + file);
+            int version = header.getInt(4);
+            if(version != FORMAT_VERSION)
+                throw new IOException("Unsupported graph file version " + version + ", expected " + FORMAT_VERSION);
+
+            int n = header.getInt(8);
+            int m = header.getInt(12);
+            long labelBytes = header.getLong(16);
+            long rows = align(4L * (n + 1));
+            long edges = align(4L * m) + 8L * m;
+            long labels = HEADER + 2 * (rows + edges);
+            if(labelBytes > Integer.MAX_VALUE)
+                throw new IOException("Label dictionary of " + labelBytes + " bytes is too large in graph file: " + file);
+            if(n < 0 || m < 0 || labelBytes < 0 || size < labels + rows + labelBytes)
+                throw new IOException("Truncated graph file: " + file);
+
+            IntBuffer[] offsets = new IntBuffer[2];
+            IntBuffer[] targets = new IntBuffer[2];
+            DoubleBuffer[] weights = new DoubleBuffer[2];
+            long position = HEADER;
+            for(int d = 0; d < 2; d++) {
+                offsets[d] = map(channel, position, 4L * (n + 1)).asIntBuffer();
+                position += rows;
+                targets[d] = map(channel, position, 4L * m).asIntBuffer();
+                position += align(4L * m);
+                weights[d] = map(channel, position, 8L * m).asDoubleBuffer();
+                position += 8L * m;
+            }
+
+            ByteBuffer labelOffsets = map(channel, labels, 4L * (n + 1));
+            ByteBuffer labelData = map(channel, labels + rows, labelBytes);
+            VertexIndex<L> index = new VertexIndex<>(n);
+            for(int v = 0; v < n; v++) {
+                int from = labelOffsets.getInt(4 * v);
+                int to = labelOffsets.getInt(4 * v + 4);
+                if(from < 0 || to < from || to > labelBytes)
+                    throw new IOException("Corrupt label offsets in graph file: " + file);
+                L label;
+                try {
+                    label = codec.decode(labelData, from, to - from);
+                } catch(RuntimeException e) {
+                    throw new IOException("Corrupt label " + v + " in graph file: " + file, e);
+                }
+                if(index.intern(label) != v)
+                    throw new IOException("Duplicate label in graph file: " + file);
+            }
+
+            return new MappedGraph<>(index, offsets[0], targets[0], weights[0], offsets[1], targets[1], weights[1]);
+        }
+    }
+
+    @Override
+    MappedGraph<L> transpose() {
+        return new MappedGraph<>(index, reverseOffsets, reverseTargets, reverseWeights, offsets, targets, weights);
+    }
+
+    /**
+     * @return the transposed graph. It shares the mapped buffers of this graph
+     */
+    @Override
+    public MappedGraph<L> reverse() {
+        return (MappedGraph<L>) super.reverse();
+    }
+}
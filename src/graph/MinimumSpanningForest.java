@@ -0,0 +1,203 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Minimum spanning forest of a graph whose edges are taken as undirected:
+ * a minimum spanning tree of every connected part of the graph.
+ *
+ * Computed by parallel Boruvka over the primitive arrays of a
+ * {@link CsrGraph} snapshot. Every round, the edges are scanned in parallel
+ * and each component keeps its cheapest edge leaving it, with a compare and
+ * set of the edge index in an {@link AtomicIntegerArray}. Edges are ordered
+ * by weight then by index, so the chosen edges never close a cycle. The
+ * chosen edges then merge the components in a {@link UnionFind}. Every round
+ * at least halves the number of components that still have edges leaving
+ * them, so there are at most log2(vertices) rounds.
+ *
+ * @param <L> type of vertex labels
+ */
+public final class MinimumSpanningForest<L> {
+    /** Number of vertices whose edges are scanned by one task */
+    private static final int GRAIN = 4096;
+
+    private final List<Edge<L>> edges;
+    private final double cost;
+
+    private MinimumSpanningForest(List<Edge<L>> edges, double cost) {
+        this.edges = Collections.unmodifiableList(edges);
+        this.cost = cost;
+    }
+
+    /**
+     * Compute the forest on the common pool.
+     *
+     * @see #of(Graph, ForkJoinPool)
+     */
+    public static <L> MinimumSpanningForest<L> of(Graph<L> graph) {
+        return of(graph, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param graph whose forest is computed. A snapshot is taken, see
+     *        {@link CsrGraph#of(Graph)}
+     * @param pool runs the edge scans
+     * @return the minimum spanning forest of graph
+     */
+    public static <L> MinimumSpanningForest<L> of(Graph<L> graph, ForkJoinPool pool) {
+        CsrGraph<L> csr = CsrGraph.of(graph);
+        int[] chosen = edges(csr, pool);
+
+        List<Edge<L>> edges = new ArrayList<>(chosen.length);
+        double cost = 0;
+        for(int e : chosen) {
+            L source = csr.index().label(source(csr, e));
+            L target = csr.index().label(csr.target(e));
+            edges.add(new Edge<>(source, target, csr.weight(e)));
+            cost += csr.weight(e);
+        }
+        return new MinimumSpanningForest<>(edges, cost);
+    }
+
+    /**
+     * Sources of the chosen edges are found by a binary search over
+     * {@link IntGraph#begin(int)}, so the edges of graph must be numbered row
+     * by row as in a {@link CsrGraph}.
+     *
+     * @Precondition The out edges of vertex v are [begin(v), end(v)), and
+     *               begin(v + 1) == end(v)
+     *
+     * @param graph whose forest is computed
+     * @param pool runs the edge scans
+     * @return the indices of the edges of the minimum spanning forest of graph
+     */
+    public static int[] edges(IntGraph graph, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        UnionFind unionFind = new UnionFind(n);
+        int[] component = new int[n];
+        for(int v = 0; v < n; v++)
+            component[v] = v;
+        AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+        IntList chosen = new IntList();
+
+        boolean merged = true;
+        while(merged) {
+            for(int c = 0; c < n; c++)
+                cheapest.set(c, -1);
+            pool.invoke(new Cheapest(graph, component, cheapest, 0, n));
+
+            merged = false;
+            for(int c = 0; c < n; c++) {
+                int e = cheapest.get(c);
+                if(e < 0)
+                    continue;
+                int u = source(graph, e);
+                int v = graph.target(e);
+                // two components may choose the same edge, or each other's
+                if(!unionFind.find(u, v)) {
+                    unionFind.union(u, v);
+                    chosen.add(e);
+                    merged = true;
+                }
+            }
+
+            for(int v = 0; v < n; v++)
+                component[v] = unionFind.root(v);
+        }
+        return chosen.toArray();
+    }
+
+    /**
+     * @return the vertex edge leaves
+     */
+    private static int source(IntGraph graph, int edge) {
+        // largest vertex whose first edge is at or before edge
+        int low = 0;
+        int high = graph.vertexCount() - 1;
+        while(low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if(graph.begin(middle) <= edge)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        return low;
+    }
+
+    /**
+     * @return the edges of the forest, each one in the direction it has in the graph
+     */
+    public List<Edge<L>> edges() {
+        return edges;
+    }
+
+    /**
+     * @return the sum of the weights of the edges of the forest
+     */
+    public double cost() {
+        return cost;
+    }
+
+    /**
+     * Scan the out edges of the vertices [from, to) and offer each edge
+     * between two components to both of them.
+     */
+    private static final class Cheapest extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntGraph graph;
+        private final int[] component;
+        private final AtomicIntegerArray cheapest;
+        private final int from;
+        private final int to;
+
+        Cheapest(IntGraph graph, int[] component, AtomicIntegerArray cheapest, int from, int to) {
+            this.graph = graph;
+            this.component = component;
+            this.cheapest = cheapest;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Cheapest(graph, component, cheapest, from, middle),
+                          new Cheapest(graph, component, cheapest, middle, to));
+                return;
+            }
+
+            for(int u = from; u < to; u++) {
+                int cu = component[u];
+                for(int e = graph.begin(u); e < graph.end(u); e++) {
+                    int cv = component[graph.target(e)];
+                    if(cu != cv) {
+                        offer(cu, e);
+                        offer(cv, e);
+                    }
+                }
+            }
+        }
+
+        private void offer(int c, int e) {
+            int current = cheapest.get(c);
+            while(current < 0 || lighter(e, current)) {
+                if(cheapest.compareAndSet(c, current, e))
+                    return;
+                current = cheapest.get(c);
+            }
+        }
+
+        private boolean lighter(int a, int b) {
+            double wa = graph.weight(a);
+            double wb = graph.weight(b);
+            return wa < wb || (wa == wb && a < b);
+        }
+    }
+}
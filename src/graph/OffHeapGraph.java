@@ -0,0 +1,164 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.Map;
+
+/**
+ * Read only graph whose edges are stored outside of the Java heap, for graphs
+ * larger than the heap.
+ *
+ * The compressed sparse row arrays of both directions are held in direct
+ * {@link ByteBuffer}s in native byte order; only the {@link VertexIndex} of
+ * the labels stays on the heap. {@link #targets(Object)} and
+ * {@link #sources(Object)} return views over the buffers, as for a
+ * {@link CsrGraph}, and the garbage collector never scans or moves the edges.
+ *
+ * The native memory is released when the graph and its reverse are garbage
+ * collected. Every array is a buffer of its own and must be smaller than
+ * 2 GB, which allows about 268 million edges. The JVM caps direct memory with
+ * -XX:MaxDirectMemorySize.
+ *
+ * @param <L> type of vertex labels in this graph. Must be immutable
+ */
+public final class OffHeapGraph<L> extends BufferGraph<L> {
+
+    private OffHeapGraph(VertexIndex<L> index, IntBuffer offsets, IntBuffer targets, DoubleBuffer weights,
+                         IntBuffer reverseOffsets, IntBuffer reverseTargets, DoubleBuffer reverseWeights) {
+        super(index, offsets, targets, weights, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    private static ByteBuffer allocate(long bytes) {
+        if(bytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many edges for an off heap graph: " + bytes + " bytes");
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private static IntBuffer ints(long length) {
+        return allocate(4L * length).asIntBuffer();
+    }
+
+    private static DoubleBuffer doubles(long length) {
+        return allocate(8L * length).asDoubleBuffer();
+    }
+
+    /**
+     * Copy graph off the heap. The out edges of every vertex keep their
+     * iteration order. A {@link CsrGraph}, a {@link BufferGraph} or a
+     * {@link ConcurrentAdjListGraph} snapshot is copied array by array; other
+     * graphs are read twice through their maps, without a heap copy of the
+     * edges, and must not be modified during the copy.
+     *
+     * @param graph to copy
+     * @return a read only graph with the vertices and edges of graph
+     * @throws IllegalArgumentException if graph has too many edges
+     */
+    public static <L> OffHeapGraph<L> of(Graph<L> graph) {
+        if(graph instanceof OffHeapGraph)
+            return (OffHeapGraph<L>) graph;
+        if(graph instanceof BufferGraph)
+            return copy((BufferGraph<L>) graph, ((BufferGraph<L>) graph).index);
+        if(graph instanceof CsrGraph || graph instanceof ConcurrentAdjListGraph) {
+            CsrGraph<L> csr = CsrGraph.of(graph);
+            return copy(csr, csr.index());
+        }
+
+        VertexIndex<L> index = VertexIndex.of(graph.vertices());
+        int n = index.size();
+
+        // Count out and in degrees to size the rows
+        IntBuffer offsets = ints(n + 1);
+        IntBuffer reverseOffsets = ints(n + 1);
+        int[] fill = new int[n];
+        long m = 0;
+        for(int v = 0; v < n; v++) {
+            Map<L, Double> out = graph.targets(index.label(v));
+            if(out == null)
+                continue;
+            offsets.put(v + 1, out.size());
+            m += out.size();
+            for(L target : out.keySet())
+                fill[index.id(target)]++;
+        }
+        for(int v = 0; v < n; v++) {
+            offsets.put(v + 1, offsets.get(v + 1) + offsets.get(v));
+            reverseOffsets.put(v + 1, reverseOffsets.get(v) + fill[v]);
+            fill[v] = reverseOffsets.get(v);
+        }
+
+        IntBuffer targets = ints(m);
+        DoubleBuffer weights = doubles(m);
+        IntBuffer reverseTargets = ints(m);
+        DoubleBuffer reverseWeights = doubles(m);
+
+        int e = 0;
+        for(int v = 0; v < n; v++) {
+            Map<L, Double> out = graph.targets(index.label(v));
+            if(out == null)
+                continue;
+            for(Map.Entry<L, Double> edge : out.entrySet()) {
+                int target = index.id(edge.getKey());
+                double weight = edge.getValue();
+                targets.put(e, target);
+                weights.put(e++, weight);
+                reverseTargets.put(fill[target], v);
+                reverseWeights.put(fill[target]++, weight);
+            }
+        }
+
+        return new OffHeapGraph<>(index, offsets, targets, weights, reverseOffsets, reverseTargets, reverseWeights);
+    }
+
+    /**
+     * Copy the arrays of graph, in both directions, to new direct buffers. The
+     * index is shared: it is not modified once a graph is built.
+     */
+    private static <L> OffHeapGraph<L> copy(IntGraph graph, VertexIndex<L> index) {
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        IntBuffer[] offsets = new IntBuffer[2];
+        IntBuffer[] targets = new IntBuffer[2];
+        DoubleBuffer[] weights = new DoubleBuffer[2];
+        IntGraph[] directions = {graph, graph.reverse()};
+        for(int d = 0; d < 2; d++) {
+            IntGraph direction = directions[d];
+            offsets[d] = ints(n + 1);
+            targets[d] = ints(m);
+            weights[d] = doubles(m);
+            for(int v = 0; v < n; v++)
+                offsets[d].put(v, direction.begin(v));
+            offsets[d].put(n, m);
+            for(int e = 0; e < m; e++) {
+                targets[d].put(e, direction.target(e));
+                weights[d].put(e, direction.weight(e));
+            }
+        }
+        return new OffHeapGraph<>(index, offsets[0], targets[0], weights[0], offsets[1], targets[1], weights[1]);
+    }
+
+    @Override
+    OffHeapGraph<L> transpose() {
+        return new OffHeapGraph<>(index, reverseOffsets, reverseTargets, reverseWeights, offsets, targets, weights);
+    }
+
+    /**
+     * @return the transposed graph. It shares the buffers of this graph
+     */
+    @Override
+    public OffHeapGraph<L> reverse() {
+        return (OffHeapGraph<L>) super.reverse();
+    }
+
+    /**
+     * @return the exact number of bytes of native memory held by the buffers
+     *         of this graph, shared with its reverse. The label index on the
+     *         heap is not counted
+     */
+    public long nativeBytes() {
+        long rows = 4L * offsets.capacity() + 4L * reverseOffsets.capacity();
+        long edges = 4L * targets.capacity() + 8L * weights.capacity();
+        return rows + edges + 4L * reverseTargets.capacity() + 8L * reverseWeights.capacity();
+    }
+}
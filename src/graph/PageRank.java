@@ -0,0 +1,317 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * PageRank and personalized PageRank by parallel power iteration.
+ *
+ * A random surfer follows an out edge of its vertex with a probability
+ * proportional to the weight of the edge, or teleports with probability
+ * 1 - damping. A vertex with no out edge of positive weight is dangling: its
+ * surfer always teleports. Teleports land uniformly on the vertices, or in
+ * proportion to the weights of a personalization map. The rank of a vertex
+ * is the probability of finding the surfer there.
+ *
+ * Each iteration pulls the rank of every vertex from its in edges, over the
+ * reverse of a {@link CsrGraph} snapshot, so every vertex is written by one
+ * task only and no update is atomic. The ranks are double arrays split in
+ * ranges of vertices on a {@link ForkJoinPool}. Iterations stop when the sum
+ * of the absolute changes of the ranks is under the tolerance, or at the
+ * iteration limit.
+ *
+ * The iterations converge from any distribution, so after a few updates of
+ * the graph the previous ranks are a close start:
+ * {@link #update(Graph, Ranks)} usually needs far fewer iterations than a
+ * computation from the uniform distribution.
+ *
+ * A PageRank holds only its settings and can be shared.
+ *
+ * @Precondition Finite non negative edges
+ */
+public final class PageRank {
+    /** Number of vertices handled by one task */
+    private static final int GRAIN = 1024;
+
+    private double damping = 0.85;
+    private double tolerance = 1e-9;
+    private int maxIterations = 100;
+
+    /**
+     * @param probability of following an edge rather than teleporting, in
+     *        [0, 1). 0.85 by default
+     * @return this PageRank
+     */
+    public PageRank damping(double probability) {
+        if(!(probability >= 0 && probability < 1))
+            throw new IllegalArgumentException("Damping must be in [0, 1): " + probability);
+        this.damping = probability;
+        return this;
+    }
+
+    /**
+     * @param change largest sum of the absolute changes of the ranks in an
+     *        iteration at which the iterations stop, positive. 1e-9 by default
+     * @return this PageRank
+     */
+    public PageRank tolerance(double change) {
+        if(!(change > 0))
+            throw new IllegalArgumentException("Tolerance must be positive: " + change);
+        this.tolerance = change;
+        return this;
+    }
+
+    /**
+     * @param iterations largest number of iterations, positive. 100 by default
+     * @return this PageRank
+     */
+    public PageRank maxIterations(int iterations) {
+        if(iterations < 1)
+            throw new IllegalArgumentException("Iteration limit must be positive: " + iterations);
+        this.maxIterations = iterations;
+        return this;
+    }
+
+    /**
+     * PageRank with uniform teleports on the common pool.
+     *
+     * @see #rank(Graph, Map, Ranks, ForkJoinPool)
+     */
+    public <L> Ranks<L> rank(Graph<L> graph) {
+        return rank(graph, null, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Personalized PageRank on the common pool.
+     *
+     * @see #rank(Graph, Map, Ranks, ForkJoinPool)
+     */
+    public <L> Ranks<L> personalized(Graph<L> graph, Map<L, Double> teleport) {
+        return rank(graph, teleport, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Ranks of graph after modifications, starting from the previous ranks
+     * and with their teleport weights, on the common pool.
+     *
+     * @see #rank(Graph, Map, Ranks, ForkJoinPool)
+     */
+    public <L> Ranks<L> update(Graph<L> graph, Ranks<L> previous) {
+        return rank(graph, previous.teleport(), previous, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param graph to rank. A snapshot is taken, see {@link CsrGraph#of(Graph)}
+     * @param teleport non negative weight of every vertex as a teleport
+     *        destination, null for uniform teleports. Missing vertices have
+     *        weight 0, labels that are not in graph are ignored
+     * @param start ranks the iterations start from, null for the teleport
+     *        distribution. Vertices added since get the uniform rank, then
+     *        the start is scaled to sum to 1
+     * @param pool runs the iterations
+     * @return the rank of every vertex of graph
+     * @throws IllegalArgumentException if graph has a negative or infinite
+     *         edge, or the teleport weights are negative or infinite or have no
+     *         weight on a non empty graph
+     */
+    public <L> Ranks<L> rank(Graph<L> graph, Map<L, Double> teleport, Ranks<L> start, ForkJoinPool pool) {
+        CsrGraph<L> csr = CsrGraph.of(graph);
+        VertexIndex<L> index = csr.index();
+        int n = csr.vertexCount();
+        double[] jump = teleport == null ? uniform(n) : weights(index, teleport);
+        double[] ranks;
+        if(start == null) {
+            ranks = jump.clone();
+        } else {
+            ranks = new double[n];
+            for(int v = 0; v < n; v++) {
+                int previous = start.index().id(index.label(v));
+                ranks[v] = previous < 0 ? 1.0 / n : start.ranks()[previous];
+            }
+            if(!normalize(ranks))
+                ranks = jump.clone();
+        }
+
+        Iteration iteration = new Iteration(csr, jump, ranks, pool);
+        int iterations = 0;
+        double residual = n == 0 ? 0 : Double.POSITIVE_INFINITY;
+        while(residual > tolerance && iterations < maxIterations) {
+            residual = iteration.step();
+            iterations++;
+        }
+        Map<L, Double> kept = teleport == null ? null : Collections.unmodifiableMap(new HashMap<>(teleport));
+        return new Ranks<>(index, iteration.ranks, kept, iterations, residual, residual <= tolerance);
+    }
+
+    private static double[] uniform(int n) {
+        double[] uniform = new double[n];
+        Arrays.fill(uniform, 1.0 / n);
+        return uniform;
+    }
+
+    private static <L> double[] weights(VertexIndex<L> index, Map<L, Double> teleport) {
+        double[] weights = new double[index.size()];
+        for(Map.Entry<L, Double> entry : teleport.entrySet()) {
+            double weight = entry.getValue();
+            if(!(weight >= 0 && weight < Double.POSITIVE_INFINITY))
+                throw new IllegalArgumentException("Teleport weight of " + entry.getKey() + " must be finite and non negative: " + weight);
+            int id = index.id(entry.getKey());
+            if(id >= 0)
+                weights[id] = weight;
+        }
+        if(!normalize(weights) && weights.length > 0)
+            throw new IllegalArgumentException("Teleport weights have no weight on the vertices of the graph");
+        return weights;
+    }
+
+    /**
+     * Scale values to sum to 1.
+     *
+     * @return false if they sum to 0
+     */
+    private static boolean normalize(double[] values) {
+        double sum = 0;
+        for(double value : values)
+            sum += value;
+        if(!(sum > 0))
+            return false;
+        for(int i = 0; i < values.length; i++)
+            values[i] /= sum;
+        return true;
+    }
+
+    /**
+     * The rank arrays of one computation, swapped at every step.
+     */
+    private final class Iteration {
+        private final IntGraph reverse;
+        private final double[] jump;
+        private final ForkJoinPool pool;
+        // total weight of the out edges of every vertex, 0 if it is dangling
+        private final double[] out;
+        // rank of every vertex divided by its out weight
+        private final double[] share;
+        private double[] ranks;
+        private double[] next;
+
+        Iteration(IntGraph graph, double[] jump, double[] ranks, ForkJoinPool pool) {
+            this.reverse = graph.reverse();
+            this.jump = jump;
+            this.ranks = ranks;
+            this.pool = pool;
+            int n = graph.vertexCount();
+            out = new double[n];
+            for(int u = 0; u < n; u++) {
+                for(int e = graph.begin(u); e < graph.end(u); e++) {
+                    double weight = graph.weight(e);
+                    if(!(weight >= 0 && weight < Double.POSITIVE_INFINITY))
+                        throw new IllegalArgumentException("PageRank needs finite non negative edges: " + weight);
+                    out[u] += weight;
+                }
+            }
+            share = new double[n];
+            next = new double[n];
+        }
+
+        /**
+         * @return the sum of the absolute changes of the ranks
+         */
+        double step() {
+            double dangling = run(new Share(0, ranks.length));
+            double residual = run(new Pull(0, ranks.length, (1 - damping) + damping * dangling));
+            double[] previous = ranks;
+            ranks = next;
+            next = previous;
+            return residual;
+        }
+
+        private double run(RecursiveTask<Double> task) {
+            return ranks.length <= GRAIN ? task.invoke() : pool.invoke(task);
+        }
+
+        /**
+         * Fill share for the vertices [from, to).
+         *
+         * @return the rank of the dangling vertices
+         */
+        private final class Share extends RecursiveTask<Double> {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            Share(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected Double compute() {
+                if(to - from > GRAIN) {
+                    int middle = (from + to) >>> 1;
+                    Share left = new Share(from, middle);
+                    left.fork();
+                    double right = new Share(middle, to).compute();
+                    return left.join() + right;
+                }
+
+                double dangling = 0;
+                for(int u = from; u < to; u++) {
+                    if(out[u] > 0) {
+                        share[u] = ranks[u] / out[u];
+                    } else {
+                        share[u] = 0;
+                        dangling += ranks[u];
+                    }
+                }
+                return dangling;
+            }
+        }
+
+        /**
+         * Pull the next rank of the vertices [from, to) from their in edges.
+         *
+         * @return the sum of the absolute changes of their ranks
+         */
+        private final class Pull extends RecursiveTask<Double> {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+            // probability of a teleport, from the damping and the dangling vertices
+            private final double teleport;
+
+            Pull(int from, int to, double teleport) {
+                this.from = from;
+                this.to = to;
+                this.teleport = teleport;
+            }
+
+            @Override
+            protected Double compute() {
+                if(to - from > GRAIN) {
+                    int middle = (from + to) >>> 1;
+                    Pull left = new Pull(from, middle, teleport);
+                    left.fork();
+                    double right = new Pull(middle, to, teleport).compute();
+                    return left.join() + right;
+                }
+
+                double change = 0;
+                for(int v = from; v < to; v++) {
+                    double pulled = 0;
+                    for(int e = reverse.begin(v); e < reverse.end(v); e++)
+                        pulled += share[reverse.target(e)] * reverse.weight(e);
+                    double rank = teleport * jump[v] + damping * pulled;
+                    change += Math.abs(rank - ranks[v]);
+                    next[v] = rank;
+                }
+                return change;
+            }
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel level synchronous breadth first search over an {@link IntGraph},
+ * direction optimizing (Beamer, Asanovic and Patterson).
+ *
+ * A level is expanded either top-down, each frontier vertex claiming its
+ * unvisited targets, or bottom-up, each unvisited vertex looking through its
+ * in edges for a parent in the frontier and stopping at the first one.
+ * Top-down is cheaper while the frontier is small. Once the edges leaving the
+ * frontier outnumber a fraction of the edges left to check, bottom-up is
+ * cheaper since most unvisited vertices find a parent after a few edges; it
+ * switches back to top-down when the frontier shrinks again.
+ *
+ * Visited vertices are a bitset. Top-down claims a vertex with a compare and
+ * set of its word; bottom-up splits the vertices on word boundaries so that
+ * each task owns the words it writes.
+ *
+ * The result gives the hop depth and the BFS parent of every vertex.
+ */
+public final class ParallelBfs {
+    // switch to bottom-up when the frontier edges exceed 1 / ALPHA of the unexplored edges
+    private static final int ALPHA = 14;
+    // switch back to top-down when the frontier has less than 1 / BETA of the vertices
+    private static final int BETA = 24;
+    /** Number of vertices handled by one task, a multiple of 64 */
+    private static final int GRAIN = 1024;
+
+    private final IntGraph graph;
+    private final IntGraph reverse;
+    private final ForkJoinPool pool;
+    private final int[] depth;
+    private final int[] parent;
+    private final AtomicLongArray visited;
+    // vertices claimed by each task of the current top-down level
+    private IntList[] claimed = new IntList[0];
+    private int levels;
+    private int reachedCount;
+
+    private ParallelBfs(IntGraph graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.reverse = graph.reverse();
+        this.pool = pool;
+        int n = graph.vertexCount();
+        depth = new int[n];
+        parent = new int[n];
+        Arrays.fill(depth, -1);
+        Arrays.fill(parent, -1);
+        visited = new AtomicLongArray(words(n));
+    }
+
+    /**
+     * Run on the common pool.
+     *
+     * @see #run(IntGraph, int, ForkJoinPool)
+     */
+    public static ParallelBfs run(IntGraph graph, int source) {
+        return run(graph, source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param graph to search
+     * @param source id of the vertex the search starts from
+     * @param pool runs the expansion of the levels
+     * @return the depth and parent of the vertices reached from source
+     */
+    public static ParallelBfs run(IntGraph graph, int source, ForkJoinPool pool) {
+        ParallelBfs bfs = new ParallelBfs(graph, pool);
+        bfs.search(source);
+        return bfs;
+    }
+
+    /**
+     * Number of edges on the shortest path from src to every vertex reachable
+     * from it, computed on the common pool.
+     *
+     * @param graph to search
+     * @param src Vertex the search starts from
+     * @return Map associating a vertex to its hop distance from src
+     */
+    public static <L> Map<L, Integer> hops(CsrGraph<L> graph, L src) {
+        int source = graph.index().id(src);
+        if(source < 0)
+            return new HashMap<>();
+
+        ParallelBfs bfs = run(graph, source);
+        Map<L, Integer> hops = new HashMap<>((int) (bfs.reachedCount / 0.75f) + 1);
+        for(int v = 0; v < bfs.depth.length; v++) {
+            if(bfs.depth[v] >= 0)
+                hops.put(graph.index().label(v), bfs.depth[v]);
+        }
+        return hops;
+    }
+
+    /**
+     * @return hop depth of every vertex indexed by id, -1 for the vertices
+     *         not reached. The array is not copied
+     */
+    public int[] depth() {
+        return depth;
+    }
+
+    /**
+     * @return BFS parent of every vertex indexed by id, -1 for the source and
+     *         the vertices not reached. The array is not copied
+     */
+    public int[] parent() {
+        return parent;
+    }
+
+    /**
+     * @return the number of levels, 1 + the largest depth
+     */
+    public int levels() {
+        return levels;
+    }
+
+    /**
+     * @return the number of vertices reached, source included
+     */
+    public int reachedCount() {
+        return reachedCount;
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private int degree(int v) {
+        return graph.end(v) - graph.begin(v);
+    }
+
+    /**
+     * @return the sum of the out degrees of the vertices in bits
+     */
+    private long edges(long[] bits) {
+        long edges = 0;
+        for(int w = 0; w < bits.length; w++) {
+            for(long word = bits[w]; word != 0; word &= word - 1)
+                edges += degree((w << 6) + Long.numberOfTrailingZeros(word));
+        }
+        return edges;
+    }
+
+    private void search(int source) {
+        int n = graph.vertexCount();
+        depth[source] = 0;
+        visited.set(source >>> 6, 1L << source);
+
+        IntList frontier = new IntList();
+        frontier.add(source);
+        // out edges of the vertices whose level is not expanded yet
+        long unexplored = graph.edgeCount();
+        // out edges of the frontier
+        long scout = degree(source);
+        // a level is expanded top-down after a bottom-up phase, as the phase
+        // only ends when the frontier is small
+        boolean leftBottomUp = false;
+        int level = 0;
+
+        while(!frontier.isEmpty()) {
+            if(!leftBottomUp && scout > unexplored / ALPHA) {
+                long[] front = new long[words(n)];
+                long[] next = new long[words(n)];
+                for(int i = 0; i < frontier.size(); i++)
+                    front[frontier.get(i) >>> 6] |= 1L << frontier.get(i);
+
+                unexplored -= scout;
+                int awake = frontier.size();
+                while(true) {
+                    int previous = awake;
+                    Arrays.fill(next, 0);
+                    awake = pool.invoke(new BottomUp(front, next, level, 0, n));
+                    level++;
+                    long[] swap = front;
+                    front = next;
+                    next = swap;
+                    scout = edges(front);
+                    if(!(awake > 0 && (awake >= previous || awake > n / BETA)))
+                        break;
+                    // the vertices reached are expanded by the next level
+                    unexplored -= scout;
+                }
+
+                frontier.clear();
+                for(int w = 0; w < front.length; w++) {
+                    for(long bits = front[w]; bits != 0; bits &= bits - 1)
+                        frontier.add((w << 6) + Long.numberOfTrailingZeros(bits));
+                }
+                leftBottomUp = true;
+            } else {
+                unexplored -= scout;
+                scout = topDown(frontier, level);
+                frontier = collect();
+                level++;
+                leftBottomUp = false;
+            }
+        }
+
+        for(int v = 0; v < n; v++) {
+            if(depth[v] >= 0) {
+                reachedCount++;
+                levels = Math.max(levels, depth[v] + 1);
+            }
+        }
+    }
+
+    /**
+     * Expand the frontier top-down into claimed.
+     *
+     * @return the sum of the out degrees of the claimed vertices
+     */
+    private long topDown(IntList frontier, int level) {
+        int tasks = (frontier.size() + GRAIN - 1) / GRAIN;
+        if(claimed.length < tasks) {
+            int old = claimed.length;
+            claimed = Arrays.copyOf(claimed, tasks);
+            for(int i = old; i < tasks; i++)
+                claimed[i] = new IntList();
+        }
+
+        TopDown task = new TopDown(frontier, level, 0, tasks);
+        return tasks == 1 ? task.compute() : pool.invoke(task);
+    }
+
+    private IntList collect() {
+        int size = 0;
+        for(IntList list : claimed)
+            size += list.size();
+
+        IntList frontier = new IntList(size);
+        for(IntList list : claimed) {
+            for(int i = 0; i < list.size(); i++)
+                frontier.add(list.get(i));
+            list.clear();
+        }
+        return frontier;
+    }
+
+    /**
+     * Task i claims the unvisited targets of the frontier vertices
+     * [i * GRAIN, (i + 1) * GRAIN) into claimed[i].
+     */
+    private final class TopDown extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final IntList frontier;
+        private final int level;
+        private final int from;
+        private final int to;
+
+        TopDown(IntList frontier, int level, int from, int to) {
+            this.frontier = frontier;
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if(to - from > 1) {
+                int middle = (from + to) >>> 1;
+                TopDown right = new TopDown(frontier, level, middle, to);
+                right.fork();
+                long left = new TopDown(frontier, level, from, middle).compute();
+                return left + right.join();
+            }
+
+            IntList out = claimed[from];
+            long scout = 0;
+            int end = Math.min(frontier.size(), (from + 1) * GRAIN);
+            for(int i = from * GRAIN; i < end; i++) {
+                int u = frontier.get(i);
+                for(int e = graph.begin(u); e < graph.end(u); e++) {
+                    int v = graph.target(e);
+                    if(claim(v)) {
+                        depth[v] = level + 1;
+                        parent[v] = u;
+                        out.add(v);
+                        scout += degree(v);
+                    }
+                }
+            }
+            return scout;
+        }
+
+        private boolean claim(int v) {
+            int word = v >>> 6;
+            long bit = 1L << v;
+            long bits = visited.get(word);
+            while((bits & bit) == 0) {
+                if(visited.compareAndSet(word, bits, bits | bit))
+                    return true;
+                bits = visited.get(word);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Every unvisited vertex of [from, to) looks for a parent in front and is
+     * added to next if it finds one. Bounds other than the graph end are
+     * multiples of 64 so that the words written belong to this task only.
+     */
+    private final class BottomUp extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] front;
+        private final long[] next;
+        private final int level;
+        private final int from;
+        private final int to;
+
+        BottomUp(long[] front, long[] next, int level, int from, int to) {
+            this.front = front;
+            this.next = next;
+            this.level = level;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if(to - from > GRAIN) {
+                int middle = from + Math.max(1, (to - from) / GRAIN / 2) * GRAIN;
+                BottomUp right = new BottomUp(front, next, level, middle, to);
+                right.fork();
+                int left = new BottomUp(front, next, level, from, middle).compute();
+                return left + right.join();
+            }
+
+            int awake = 0;
+            for(int v = from; v < to; v++) {
+                int word = v >>> 6;
+                long bit = 1L << v;
+                if((visited.get(word) & bit) != 0)
+                    continue;
+
+                for(int e = reverse.begin(v); e < reverse.end(v); e++) {
+                    int u = reverse.target(e);
+                    if((front[u >>> 6] & (1L << u)) != 0) {
+                        depth[v] = level + 1;
+                        parent[v] = u;
+                        visited.set(word, visited.get(word) | bit);
+                        next[word] |= bit;
+                        awake++;
+                        break;
+                    }
+                }
+            }
+            return awake;
+        }
+    }
+}
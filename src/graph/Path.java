@@ -0,0 +1,66 @@
+package graph;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A path found by a shortest path search: the vertices from source to
+ * target and the total cost of the edges between them. Also records how
+ * many vertices the search settled to find it, which measures the work
+ * done by the query.
+ *
+ * @param <L> type of vertex labels
+ */
+public final class Path<L> {
+    private final List<L> vertices;
+    private final double cost;
+    private final int settled;
+
+    /**
+     * @param vertices non empty list of vertices, from source to target
+     * @param cost sum of the weights of the edges of the path
+     * @param settled number of vertices settled by the search
+     */
+    public Path(List<L> vertices, double cost, int settled) {
+        if(vertices.isEmpty())
+            throw new IllegalArgumentException("A path has at least one vertex");
+        this.vertices = Collections.unmodifiableList(vertices);
+        this.cost = cost;
+        this.settled = settled;
+    }
+
+    /**
+     * @return the vertices of the path, source first and target last
+     */
+    public List<L> vertices() {
+        return vertices;
+    }
+
+    public L source() {
+        return vertices.get(0);
+    }
+
+    public L target() {
+        return vertices.get(vertices.size() - 1);
+    }
+
+    /**
+     * @return the sum of the weights of the edges of the path
+     */
+    public double cost() {
+        return cost;
+    }
+
+    /**
+     * @return the number of vertices whose distance was made final by the
+     *         search that produced this path
+     */
+    public int settled() {
+        return settled;
+    }
+
+    @Override
+    public String toString() {
+        return vertices + " (" + cost + ")";
+    }
+}
@@ -0,0 +1,12 @@
+package graph;
+
+/**
+ * Receives the statistics of every shortest path query once it completes,
+ * see {@link QueryMetrics#addListener(QueryListener)}. Called on the thread
+ * that ran the query, so it must be thread safe and fast.
+ */
+@FunctionalInterface
+public interface QueryListener {
+
+    void queryCompleted(QueryStats stats);
+}
@@ -0,0 +1,98 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Opt-in instrumentation of the shortest path queries of every graph:
+ * dijkstra, shortestPath, aStar and bidirectionalShortestPath.
+ *
+ * Queries count their work in local variables or in fields of their search
+ * state whether instrumentation is on or not. While no listener is
+ * registered, a query only reads one volatile field before and after its
+ * search: no clock is read and no {@link QueryStats} is created. Once a
+ * listener is registered, every query reads the clock twice and reports its
+ * counters to every listener.
+ *
+ * {@link QueryStatistics} aggregates the statistics and publishes them as a
+ * JMX MBean. Other metrics libraries are plugged in with a listener.
+ */
+public final class QueryMetrics {
+    private static final QueryListener[] NONE = {};
+
+    // copy on write, so reporting does not lock
+    private static volatile QueryListener[] listeners = NONE;
+
+    private QueryMetrics() {
+    }
+
+    /**
+     * Report every query completed from now on to listener.
+     */
+    public static synchronized void addListener(QueryListener listener) {
+        QueryListener[] current = listeners;
+        QueryListener[] added = Arrays.copyOf(current, current.length + 1);
+        added[current.length] = listener;
+        listeners = added;
+    }
+
+    /**
+     * @return true if listener was registered
+     */
+    public static synchronized boolean removeListener(QueryListener listener) {
+        QueryListener[] current = listeners;
+        for(int i = 0; i < current.length; i++) {
+            if(current[i] == listener) {
+                QueryListener[] removed = new QueryListener[current.length - 1];
+                System.arraycopy(current, 0, removed, 0, i);
+                System.arraycopy(current, i + 1, removed, i, current.length - i - 1);
+                listeners = removed;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if at least one listener is registered
+     */
+    public static boolean enabled() {
+        return listeners.length > 0;
+    }
+
+    /**
+     * @return the clock to pass to the report of a query starting now, or 0
+     *         if instrumentation is off
+     */
+    static long start() {
+        // never 0 when on, 1 ns at most is lost
+        return enabled() ? System.nanoTime() | 1 : 0;
+    }
+
+    static void report(String algorithm, int settled, long relaxed, long pushes, long pops, int peak,
+                       long start) {
+        QueryListener[] current = listeners;
+        if(current.length == 0 || start == 0)
+            return;
+        QueryStats stats = new QueryStats(algorithm, settled, relaxed, pushes, pops, peak, System.nanoTime() - start);
+        for(QueryListener listener : current)
+            listener.queryCompleted(stats);
+    }
+
+    /**
+     * Report a query that ran on engine.
+     */
+    static void report(String algorithm, DijkstraEngine engine, long start) {
+        if(start != 0)
+            report(algorithm, engine.settledCount(), engine.relaxedCount(), engine.reachedCount(),
+                    engine.settledCount(), engine.peakQueueSize(), start);
+    }
+
+    /**
+     * Report a query that ran on search.
+     */
+    static void report(String algorithm, BidirectionalDijkstra search, long start) {
+        if(start != 0)
+            report(algorithm, search.settledCount(), search.relaxedCount(), search.reachedCount(),
+                    search.settledCount(), search.peakQueueSize(), start);
+    }
+}
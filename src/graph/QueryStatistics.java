@@ -0,0 +1,157 @@
+package graph;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Totals of the {@link QueryStats} of the queries of one algorithm, or of
+ * every query. Thread safe: queries from several threads are added without
+ * locking.
+ *
+ * {@link #register(String)} starts counting and publishes the totals as the
+ * MBean graph:type=QueryStatistics,algorithm=name, visible in JConsole or
+ * any JMX client.
+ */
+public final class QueryStatistics implements QueryListener, QueryStatisticsMBean {
+    private final String algorithm;
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder settled = new LongAdder();
+    private final LongAdder relaxed = new LongAdder();
+    private final LongAdder pushes = new LongAdder();
+    private final LongAdder pops = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final AtomicLong peakQueueSize = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private ObjectName name;
+
+    /**
+     * @param algorithm name of the {@link Graph} method whose queries are
+     *        counted, see {@link QueryStats#algorithm()}, or null to count
+     *        every query. Does not listen to queries: see
+     *        {@link QueryMetrics#addListener(QueryListener)}
+     */
+    public QueryStatistics(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Count the queries of algorithm from now on and publish the totals
+     * through JMX.
+     *
+     * @param algorithm counted, or null to count every query
+     * @return the registered statistics
+     * @throws IllegalStateException if statistics of algorithm are already
+     *         registered
+     */
+    public static QueryStatistics register(String algorithm) {
+        QueryStatistics statistics = new QueryStatistics(algorithm);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName("graph:type=QueryStatistics,algorithm="
+                    + (algorithm == null ? "all" : algorithm));
+            server.registerMBean(statistics, name);
+            statistics.name = name;
+        } catch(JMException e) {
+            throw new IllegalStateException("Cannot register query statistics of " + algorithm, e);
+        }
+        QueryMetrics.addListener(statistics);
+        return statistics;
+    }
+
+    /**
+     * Stop counting and remove the MBean published by {@link #register(String)}.
+     */
+    public void unregister() {
+        QueryMetrics.removeListener(this);
+        if(name == null)
+            return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch(JMException e) {
+            throw new IllegalStateException("Cannot unregister " + name, e);
+        }
+        name = null;
+    }
+
+    @Override
+    public void queryCompleted(QueryStats stats) {
+        if(algorithm != null && !algorithm.equals(stats.algorithm()))
+            return;
+        queries.increment();
+        settled.add(stats.verticesSettled());
+        relaxed.add(stats.edgesRelaxed());
+        pushes.add(stats.heapPushes());
+        pops.add(stats.heapPops());
+        nanos.add(stats.nanos());
+        peakQueueSize.accumulateAndGet(stats.peakQueueSize(), Math::max);
+        maxNanos.accumulateAndGet(stats.nanos(), Math::max);
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    @Override
+    public long getVerticesSettled() {
+        return settled.sum();
+    }
+
+    @Override
+    public long getEdgesRelaxed() {
+        return relaxed.sum();
+    }
+
+    @Override
+    public long getHeapPushes() {
+        return pushes.sum();
+    }
+
+    @Override
+    public long getHeapPops() {
+        return pops.sum();
+    }
+
+    @Override
+    public int getPeakQueueSize() {
+        return (int) peakQueueSize.get();
+    }
+
+    @Override
+    public long getTotalTimeNanos() {
+        return nanos.sum();
+    }
+
+    @Override
+    public long getMaxTimeNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public double getMeanTimeMillis() {
+        long count = queries.sum();
+        return count == 0 ? 0 : nanos.sum() / 1e6 / count;
+    }
+
+    @Override
+    public void reset() {
+        queries.reset();
+        settled.reset();
+        relaxed.reset();
+        pushes.reset();
+        pops.reset();
+        nanos.reset();
+        peakQueueSize.set(0);
+        maxNanos.set(0);
+    }
+}
@@ -0,0 +1,38 @@
+package graph;
+
+/**
+ * JMX view of a {@link QueryStatistics}.
+ */
+public interface QueryStatisticsMBean {
+
+    /**
+     * @return the algorithm counted, or null if every query is
+     */
+    String getAlgorithm();
+
+    long getQueries();
+
+    long getVerticesSettled();
+
+    long getEdgesRelaxed();
+
+    long getHeapPushes();
+
+    long getHeapPops();
+
+    /**
+     * @return the largest queue of a single query
+     */
+    int getPeakQueueSize();
+
+    long getTotalTimeNanos();
+
+    long getMaxTimeNanos();
+
+    double getMeanTimeMillis();
+
+    /**
+     * Set every counter back to 0.
+     */
+    void reset();
+}
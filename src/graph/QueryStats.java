@@ -0,0 +1,85 @@
+package graph;
+
+/**
+ * Work done by one shortest path query, reported to the
+ * {@link QueryListener}s registered with {@link QueryMetrics}.
+ */
+public final class QueryStats {
+    private final String algorithm;
+    private final int verticesSettled;
+    private final long edgesRelaxed;
+    private final long heapPushes;
+    private final long heapPops;
+    private final int peakQueueSize;
+    private final long nanos;
+
+    QueryStats(String algorithm, int verticesSettled, long edgesRelaxed, long heapPushes, long heapPops,
+               int peakQueueSize, long nanos) {
+        this.algorithm = algorithm;
+        this.verticesSettled = verticesSettled;
+        this.edgesRelaxed = edgesRelaxed;
+        this.heapPushes = heapPushes;
+        this.heapPops = heapPops;
+        this.peakQueueSize = peakQueueSize;
+        this.nanos = nanos;
+    }
+
+    /**
+     * @return the name of the {@link Graph} method that ran the query:
+     *         dijkstra, shortestPath, aStar or bidirectionalShortestPath
+     */
+    public String algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the number of vertices whose distance was made final
+     */
+    public int verticesSettled() {
+        return verticesSettled;
+    }
+
+    /**
+     * @return the number of edges scanned from settled vertices
+     */
+    public long edgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    /**
+     * @return the number of entries added to the priority queue. A queue with
+     *         decrease-key counts one push per reached vertex
+     */
+    public long heapPushes() {
+        return heapPushes;
+    }
+
+    /**
+     * @return the number of entries removed from the priority queue,
+     *         including stale entries skipped by a queue without decrease-key
+     */
+    public long heapPops() {
+        return heapPops;
+    }
+
+    /**
+     * @return the largest number of entries in the priority queue at once
+     */
+    public int peakQueueSize() {
+        return peakQueueSize;
+    }
+
+    /**
+     * @return the wall time of the query
+     */
+    public long nanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + ": " + verticesSettled + " settled, " + edgesRelaxed + " relaxed, "
+                + heapPushes + " pushes, " + heapPops + " pops, peak queue " + peakQueueSize
+                + ", " + nanos / 1e6 + " ms";
+    }
+}
@@ -0,0 +1,106 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PageRank of the vertices of a graph, computed by {@link PageRank}. The
+ * ranks sum to 1 and are stored in an array indexed by the vertex ids of a
+ * {@link CsrGraph} snapshot.
+ *
+ * A result can start the computation on a later version of the graph, see
+ * {@link PageRank#update(Graph, Ranks)}.
+ *
+ * @param <L> type of vertex labels
+ */
+public final class Ranks<L> {
+    private final VertexIndex<L> index;
+    private final double[] ranks;
+    private final Map<L, Double> teleport;
+    private final int iterations;
+    private final double residual;
+    private final boolean converged;
+
+    Ranks(VertexIndex<L> index, double[] ranks, Map<L, Double> teleport, int iterations, double residual,
+            boolean converged) {
+        this.index = index;
+        this.ranks = ranks;
+        this.teleport = teleport;
+        this.iterations = iterations;
+        this.residual = residual;
+        this.converged = converged;
+    }
+
+    /**
+     * @return the rank of vertex, 0 if vertex is not in the graph
+     */
+    public double rank(L vertex) {
+        int id = index.id(vertex);
+        return id < 0 ? 0 : ranks[id];
+    }
+
+    /**
+     * @return the rank of every vertex indexed by the ids of {@link #index()}.
+     *         The array is not copied
+     */
+    public double[] ranks() {
+        return ranks;
+    }
+
+    /**
+     * @return the index giving the ids of the vertices
+     */
+    public VertexIndex<L> index() {
+        return index;
+    }
+
+    /**
+     * @return the teleport weights of a personalized PageRank, null if the
+     *         random surfer teleports uniformly
+     */
+    public Map<L, Double> teleport() {
+        return teleport;
+    }
+
+    /**
+     * @return the number of power iterations run
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * @return the sum of the absolute changes of the ranks in the last
+     *         iteration
+     */
+    public double residual() {
+        return residual;
+    }
+
+    /**
+     * @return false if the iterations stopped at their limit before the
+     *         residual went under the tolerance
+     */
+    public boolean converged() {
+        return converged;
+    }
+
+    /**
+     * @param count largest number of vertices returned
+     * @return the vertices of highest rank, by decreasing rank
+     */
+    public List<L> top(int count) {
+        List<Integer> ids = new ArrayList<>(ranks.length);
+        for(int v = 0; v < ranks.length; v++)
+            ids.add(v);
+        ids.sort(Comparator.comparingDouble((Integer v) -> ranks[v]).reversed());
+
+        List<L> top = new ArrayList<>(Math.min(count, ranks.length));
+        for(int i = 0; i < ranks.length && i < count; i++)
+            top.add(index.label(ids.get(i)));
+        return Collections.unmodifiableList(top);
+    }
+}
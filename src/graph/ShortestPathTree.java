@@ -0,0 +1,248 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Shortest paths from one source kept up to date while an
+ * {@link AdjListGraph} changes.
+ *
+ * The tree registers itself as a {@link GraphListener} and repairs its
+ * distances after every modification, in the style of Ramalingam and Reps,
+ * instead of running Dijkstra again over the whole graph:
+ * <ul>
+ * <li>an edge that is added or made cheaper can only shorten paths: if it
+ * improves its target, a Dijkstra search starts from the target and only
+ * goes through the vertices it improves;</li>
+ * <li>a tree edge that is removed or made more expensive can only lengthen
+ * the paths of the subtree below it: the subtree is detached, every vertex of
+ * it gets the best distance offered by an in edge from outside the subtree,
+ * and a Dijkstra search restricted to the subtree settles the final ones;</li>
+ * <li>any other change does not move any distance.</li>
+ * </ul>
+ * The work done by an update is proportional to the edges of the vertices
+ * whose distance changes, which is usually a small part of the graph.
+ *
+ * @Precondition Non negative edges
+ *
+ * @param <L> type of vertex labels
+ */
+public final class ShortestPathTree<L> implements GraphListener<L> {
+    private final AdjListGraph<L> graph;
+    private final L source;
+    private final Map<L, Double> distances = new HashMap<>();
+    private final Map<L, L> parents = new HashMap<>();
+    private final Map<L, Set<L>> children = new HashMap<>();
+
+    private class Pair {
+        final L vertex;
+        final double cost;
+
+        Pair(L vertex, double cost) {
+            this.vertex = vertex;
+            this.cost = cost;
+        }
+    }
+
+    /**
+     * Compute the shortest paths from source and register the tree with graph.
+     * Use {@link AdjListGraph#shortestPathTree(Object)}.
+     */
+    ShortestPathTree(AdjListGraph<L> graph, L source) {
+        this.graph = graph;
+        this.source = source;
+        if(graph.vertices().contains(source)) {
+            distances.put(source, 0.0);
+            propagate(source);
+        }
+        graph.addListener(this);
+    }
+
+    /**
+     * Stop following the modifications of the graph. The distances are then
+     * the ones of the graph at the time of the call.
+     */
+    public void close() {
+        graph.removeListener(this);
+    }
+
+    public L source() {
+        return source;
+    }
+
+    /**
+     * @return the cost of the shortest path from the source to vertex, positive
+     *         infinity if vertex is not reachable
+     */
+    public double distance(L vertex) {
+        return distances.getOrDefault(vertex, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @return Map associating every vertex reachable from the source to the cost
+     *         of the shortest path to it, as {@link Graph#dijkstra(Object)}. The
+     *         map is a read only view that follows the updates
+     */
+    public Map<L, Double> distances() {
+        return Collections.unmodifiableMap(distances);
+    }
+
+    /**
+     * @return the shortest path from the source to vertex, or null if vertex is
+     *         not reachable. {@link Path#settled()} is 0: no search runs
+     */
+    public Path<L> path(L vertex) {
+        Double cost = distances.get(vertex);
+        if(cost == null)
+            return null;
+
+        List<L> path = new ArrayList<>();
+        for(L v = vertex; v != null; v = parents.get(v))
+            path.add(v);
+        Collections.reverse(path);
+        return new Path<>(path, cost, 0);
+    }
+
+    @Override
+    public void vertexAdded(L vertex) {
+        if(vertex.equals(source))
+            distances.put(source, 0.0);
+    }
+
+    @Override
+    public void edgeSet(L from, L to, double previous, double weight) {
+        Double cost = distances.get(from);
+        if(cost == null)
+            return;
+
+        if(cost + weight < distance(to)) {
+            link(from, to, cost + weight);
+            propagate(to);
+        } else if(weight > previous && from.equals(parents.get(to))) {
+            repair(to);
+        }
+    }
+
+    @Override
+    public void edgeRemoved(L from, L to, double weight) {
+        if(from.equals(parents.get(to)))
+            repair(to);
+    }
+
+    @Override
+    public void vertexRemoved(L vertex) {
+        if(vertex.equals(source)) {
+            distances.clear();
+            parents.clear();
+            children.clear();
+        }
+    }
+
+    private void link(L parent, L vertex, double cost) {
+        unlink(vertex);
+        distances.put(vertex, cost);
+        parents.put(vertex, parent);
+        children.computeIfAbsent(parent, k -> new HashSet<>()).add(vertex);
+    }
+
+    private void unlink(L vertex) {
+        L parent = parents.remove(vertex);
+        Set<L> siblings = parent == null ? null : children.get(parent);
+        if(siblings != null) {
+            siblings.remove(vertex);
+            if(siblings.isEmpty())
+                children.remove(parent);
+        }
+    }
+
+    /**
+     * Dijkstra search from start, whose distance just decreased, through the
+     * vertices whose distance decreases.
+     */
+    private void propagate(L start) {
+        PriorityQueue<Pair> next = new PriorityQueue<>(Comparator.comparingDouble(e -> e.cost));
+        next.add(new Pair(start, distances.get(start)));
+        while(!next.isEmpty()) {
+            Pair pair = next.poll();
+            if(pair.cost > distances.get(pair.vertex))
+                continue;
+
+            for(Map.Entry<L, Double> edge : graph.targets(pair.vertex).entrySet()) {
+                double cost = pair.cost + edge.getValue();
+                if(cost < distance(edge.getKey())) {
+                    link(pair.vertex, edge.getKey(), cost);
+                    next.add(new Pair(edge.getKey(), cost));
+                }
+            }
+        }
+    }
+
+    /**
+     * Recompute the distances of the subtree of root, whose path may have
+     * become longer.
+     */
+    private void repair(L root) {
+        // detach the subtree
+        List<L> subtree = new ArrayList<>();
+        subtree.add(root);
+        for(int i = 0; i < subtree.size(); i++) {
+            Set<L> below = children.remove(subtree.get(i));
+            if(below != null)
+                subtree.addAll(below);
+        }
+        Set<L> affected = new HashSet<>(subtree);
+        for(L vertex : subtree) {
+            unlink(vertex);
+            distances.remove(vertex);
+        }
+
+        // best path to every affected vertex through a vertex that is not affected
+        Map<L, Double> tentative = new HashMap<>();
+        Map<L, L> via = new HashMap<>();
+        PriorityQueue<Pair> next = new PriorityQueue<>(Comparator.comparingDouble(e -> e.cost));
+        for(L vertex : subtree) {
+            Map<L, Double> in = graph.sources(vertex);
+            if(in == null)
+                continue;
+            for(Map.Entry<L, Double> edge : in.entrySet()) {
+                Double from = distances.get(edge.getKey());
+                if(from == null)
+                    continue;
+                double cost = from + edge.getValue();
+                if(cost < tentative.getOrDefault(vertex, Double.POSITIVE_INFINITY)) {
+                    tentative.put(vertex, cost);
+                    via.put(vertex, edge.getKey());
+                }
+            }
+            if(tentative.containsKey(vertex))
+                next.add(new Pair(vertex, tentative.get(vertex)));
+        }
+
+        // Dijkstra restricted to the affected vertices
+        while(!next.isEmpty()) {
+            Pair pair = next.poll();
+            if(distances.containsKey(pair.vertex) || pair.cost > tentative.get(pair.vertex))
+                continue;
+
+            link(via.get(pair.vertex), pair.vertex, pair.cost);
+            for(Map.Entry<L, Double> edge : graph.targets(pair.vertex).entrySet()) {
+                L target = edge.getKey();
+                if(!affected.contains(target) || distances.containsKey(target))
+                    continue;
+                double cost = pair.cost + edge.getValue();
+                if(cost < tentative.getOrDefault(target, Double.POSITIVE_INFINITY)) {
+                    tentative.put(target, cost);
+                    via.put(target, pair.vertex);
+                    next.add(new Pair(target, cost));
+                }
+            }
+        }
+    }
+}
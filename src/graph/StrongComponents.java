@@ -0,0 +1,349 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strongly connected components of an {@link IntGraph}: two vertices are in
+ * the same component if each one can be reached from the other.
+ *
+ * {@link #tarjan(IntGraph, int[])} is Tarjan's algorithm with the recursion
+ * replaced by primitive stacks, so deep graphs do not overflow the thread
+ * stack.
+ *
+ * {@link #forwardBackward(IntGraph, int[], ForkJoinPool)} is the parallel
+ * forward-backward algorithm (Fleischer, Hendrickson and Pinar). Vertices
+ * with no in or no out edge left are first trimmed as components of their
+ * own. Then, for a set of vertices and a pivot in it, the vertices both
+ * reachable from the pivot and reaching it are the component of the pivot;
+ * the vertices only reachable, only reaching and neither are three
+ * independent sets that are split again in parallel. A task keeps
+ * splitting the largest of the three sets itself and forks the two others,
+ * which have at most half of the vertices, so the depth of the tasks is
+ * logarithmic. Every set is a color in a shared array, each task only
+ * writes the colors of its own vertices. Small sets are finished with
+ * Tarjan, and so are sets from which a pivot splits off only a small part,
+ * as in a graph of many small components.
+ */
+public final class StrongComponents {
+    /** Size below which a set is split by Tarjan instead of forward-backward */
+    private static final int SEQUENTIAL = 4096;
+    /** A set is finished by Tarjan when a pivot splits off less than 1 / SHRINK of it */
+    private static final int SHRINK = 16;
+
+    private StrongComponents() {
+    }
+
+    /**
+     * @param graph to split
+     * @param component receives the component of every vertex. Components
+     *        are numbered from 0 in the order Tarjan completes them: if there
+     *        is an edge from a component to another, the other one has the
+     *        smaller number
+     * @return the number of components
+     */
+    public static int tarjan(IntGraph graph, int[] component) {
+        int n = graph.vertexCount();
+        int[] members = new int[n];
+        for(int v = 0; v < n; v++)
+            members[v] = v;
+
+        AtomicInteger count = new AtomicInteger();
+        new Tarjan(graph, members, null, 0, new int[n], component, count).run();
+        return count.get();
+    }
+
+    /**
+     * Forward-backward on the common pool.
+     *
+     * @see #forwardBackward(IntGraph, int[], ForkJoinPool)
+     */
+    public static int forwardBackward(IntGraph graph, int[] component) {
+        return forwardBackward(graph, component, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param graph to split
+     * @param component receives the component of every vertex. Components
+     *        are numbered from 0 in the order of their smallest vertex
+     * @param pool splits the sets of vertices
+     * @return the number of components
+     */
+    public static int forwardBackward(IntGraph graph, int[] component, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        // color 0 is the set of the vertices left after trimming
+        int[] color = new int[n];
+        AtomicInteger colors = new AtomicInteger(1);
+
+        IntList rest = trim(graph, color, colors);
+        if(!rest.isEmpty())
+            pool.invoke(new Split(graph, graph.reverse(), rest.toArray(), color, new int[n], colors, 0));
+
+        int[] ids = new int[colors.get()];
+        Arrays.fill(ids, -1);
+        int count = 0;
+        for(int v = 0; v < n; v++) {
+            if(ids[color[v]] < 0)
+                ids[color[v]] = count++;
+            component[v] = ids[color[v]];
+        }
+        return count;
+    }
+
+    /**
+     * Give a color of its own to every vertex that has no in edge or no out
+     * edge from the vertices not trimmed yet, until there is none.
+     *
+     * @return the vertices left
+     */
+    private static IntList trim(IntGraph graph, int[] color, AtomicInteger colors) {
+        int n = graph.vertexCount();
+        IntGraph reverse = graph.reverse();
+        int[] in = new int[n];
+        int[] out = new int[n];
+        IntList trimmed = new IntList();
+        for(int v = 0; v < n; v++) {
+            in[v] = reverse.end(v) - reverse.begin(v);
+            out[v] = graph.end(v) - graph.begin(v);
+            if(in[v] == 0 || out[v] == 0) {
+                color[v] = colors.getAndIncrement();
+                trimmed.add(v);
+            }
+        }
+
+        for(int i = 0; i < trimmed.size(); i++) {
+            int v = trimmed.get(i);
+            for(int e = graph.begin(v); e < graph.end(v); e++) {
+                int w = graph.target(e);
+                if(color[w] == 0 && --in[w] == 0) {
+                    color[w] = colors.getAndIncrement();
+                    trimmed.add(w);
+                }
+            }
+            for(int e = reverse.begin(v); e < reverse.end(v); e++) {
+                int u = reverse.target(e);
+                if(color[u] == 0 && --out[u] == 0) {
+                    color[u] = colors.getAndIncrement();
+                    trimmed.add(u);
+                }
+            }
+        }
+
+        IntList rest = new IntList(n - trimmed.size());
+        for(int v = 0; v < n; v++) {
+            if(color[v] == 0)
+                rest.add(v);
+        }
+        return rest;
+    }
+
+    /**
+     * Iterative Tarjan over a set of vertices. Vertices are numbered locally by
+     * their position in members so that the scratch arrays have the size of
+     * the set.
+     */
+    private static final class Tarjan {
+        private final IntGraph graph;
+        private final int[] members;
+        // color of the set, or null when members is the whole graph
+        private final int[] color;
+        private final int set;
+        // position of every member in members, shared by all the sets
+        private final int[] position;
+        private final int[] component;
+        private final AtomicInteger count;
+
+        Tarjan(IntGraph graph, int[] members, int[] color, int set, int[] position, int[] component, AtomicInteger count) {
+            this.graph = graph;
+            this.members = members;
+            this.color = color;
+            this.set = set;
+            this.position = position;
+            this.component = component;
+            this.count = count;
+        }
+
+        private boolean inSet(int v) {
+            return color == null || color[v] == set;
+        }
+
+        void run() {
+            int size = members.length;
+            for(int i = 0; i < size; i++)
+                position[members[i]] = i;
+
+            // order[i] is the visit order of members[i], -1 if not visited
+            int[] order = new int[size];
+            int[] low = new int[size];
+            int[] cursor = new int[size];
+            boolean[] onStack = new boolean[size];
+            Arrays.fill(order, -1);
+            IntList stack = new IntList();
+            IntList calls = new IntList();
+            int visited = 0;
+
+            for(int root = 0; root < size; root++) {
+                if(order[root] >= 0)
+                    continue;
+
+                order[root] = low[root] = visited++;
+                cursor[root] = graph.begin(members[root]);
+                stack.add(root);
+                onStack[root] = true;
+                calls.add(root);
+
+                while(!calls.isEmpty()) {
+                    int i = calls.peek();
+                    int v = members[i];
+                    if(cursor[i] < graph.end(v)) {
+                        int w = graph.target(cursor[i]++);
+                        if(!inSet(w))
+                            continue;
+                        int j = position[w];
+                        if(order[j] < 0) {
+                            order[j] = low[j] = visited++;
+                            cursor[j] = graph.begin(w);
+                            stack.add(j);
+                            onStack[j] = true;
+                            calls.add(j);
+                        } else if(onStack[j]) {
+                            low[i] = Math.min(low[i], order[j]);
+                        }
+                        continue;
+                    }
+
+                    calls.pop();
+                    if(low[i] == order[i]) {
+                        int id = count.getAndIncrement();
+                        int j;
+                        do {
+                            j = stack.pop();
+                            onStack[j] = false;
+                            component[members[j]] = id;
+                        } while(j != i);
+                    }
+                    if(!calls.isEmpty()) {
+                        int parent = calls.peek();
+                        low[parent] = Math.min(low[parent], low[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Split the set of vertices members, all of color set.
+     */
+    private static final class Split extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IntGraph graph;
+        private final IntGraph reverse;
+        private final int[] members;
+        private final int[] color;
+        private final int[] position;
+        private final AtomicInteger colors;
+        private final int set;
+
+        Split(IntGraph graph, IntGraph reverse, int[] members, int[] color, int[] position, AtomicInteger colors, int set) {
+            this.graph = graph;
+            this.reverse = reverse;
+            this.members = members;
+            this.color = color;
+            this.position = position;
+            this.colors = colors;
+            this.set = set;
+        }
+
+        @Override
+        protected void compute() {
+            List<Split> tasks = new ArrayList<>();
+            int[] vertices = members;
+            int current = set;
+            while(vertices.length > SEQUENTIAL) {
+                int pivot = vertices[0];
+                int forward = colors.getAndIncrement();
+                int backward = colors.getAndIncrement();
+                int both = colors.getAndIncrement();
+
+                // vertices of the set reachable from pivot
+                IntList queue = new IntList();
+                color[pivot] = forward;
+                queue.add(pivot);
+                for(int head = 0; head < queue.size(); head++) {
+                    int v = queue.get(head);
+                    for(int e = graph.begin(v); e < graph.end(v); e++) {
+                        int w = graph.target(e);
+                        if(color[w] == current) {
+                            color[w] = forward;
+                            queue.add(w);
+                        }
+                    }
+                }
+
+                // vertices of the set reaching pivot, through reachable ones or not
+                queue.clear();
+                color[pivot] = both;
+                queue.add(pivot);
+                for(int head = 0; head < queue.size(); head++) {
+                    int v = queue.get(head);
+                    for(int e = reverse.begin(v); e < reverse.end(v); e++) {
+                        int u = reverse.target(e);
+                        if(color[u] == forward) {
+                            color[u] = both;
+                            queue.add(u);
+                        } else if(color[u] == current) {
+                            color[u] = backward;
+                            queue.add(u);
+                        }
+                    }
+                }
+
+                IntList[] parts = {new IntList(), new IntList(), new IntList()};
+                int[] partColors = {forward, backward, current};
+                for(int v : vertices) {
+                    for(int i = 0; i < parts.length; i++) {
+                        if(color[v] == partColors[i])
+                            parts[i].add(v);
+                    }
+                }
+
+                // the two smaller parts have at most half of the set each, so
+                // the depth of the tasks is logarithmic
+                int largest = 0;
+                for(int i = 1; i < parts.length; i++) {
+                    if(parts[i].size() > parts[largest].size())
+                        largest = i;
+                }
+                for(int i = 0; i < parts.length; i++) {
+                    if(i != largest && !parts[i].isEmpty()) {
+                        Split task = split(parts[i], partColors[i]);
+                        task.fork();
+                        tasks.add(task);
+                    }
+                }
+
+                int removed = vertices.length - parts[largest].size();
+                vertices = parts[largest].toArray();
+                current = partColors[largest];
+                // the pivot split off too little, as in a chain or a crowd of
+                // small components: one pivot per component would be quadratic
+                if(removed < (vertices.length + removed) / SHRINK)
+                    break;
+            }
+
+            // Tarjan writes the component colors directly in color
+            new Tarjan(graph, vertices, color, current, position, color, colors).run();
+            for(int i = tasks.size() - 1; i >= 0; i--)
+                tasks.get(i).join();
+        }
+
+        private Split split(IntList vertices, int set) {
+            return new Split(graph, reverse, vertices.toArray(), color, position, colors, set);
+        }
+    }
+}
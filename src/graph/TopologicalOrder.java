@@ -0,0 +1,123 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Topological order of the vertices of a graph: every edge goes from a vertex
+ * to a vertex that comes after it. Only acyclic graphs have one, for the
+ * others a cycle is reported instead.
+ *
+ * Computed by Kahn's algorithm over the primitive arrays of a
+ * {@link CsrGraph} snapshot: vertices with no in edge left are output and
+ * their out edges removed. If vertices remain, each one has an in edge from
+ * another remaining vertex, so walking these edges backward closes a cycle.
+ *
+ * @param <L> type of vertex labels
+ */
+public final class TopologicalOrder<L> {
+    private final List<L> order;
+    private final List<L> cycle;
+
+    private TopologicalOrder(List<L> order, List<L> cycle) {
+        this.order = order;
+        this.cycle = cycle;
+    }
+
+    /**
+     * @param graph to sort. A snapshot is taken, see {@link CsrGraph#of(Graph)}
+     * @return the topological order of graph, or one of its cycles
+     */
+    public static <L> TopologicalOrder<L> of(Graph<L> graph) {
+        CsrGraph<L> csr = CsrGraph.of(graph);
+        IntList cycle = new IntList();
+        int[] order = sort(csr, cycle);
+        if(order == null)
+            return new TopologicalOrder<>(null, labels(csr, cycle.toArray()));
+        return new TopologicalOrder<>(labels(csr, order), Collections.emptyList());
+    }
+
+    private static <L> List<L> labels(CsrGraph<L> graph, int[] ids) {
+        List<L> labels = new ArrayList<>(ids.length);
+        for(int id : ids)
+            labels.add(graph.index().label(id));
+        return Collections.unmodifiableList(labels);
+    }
+
+    /**
+     * @param graph to sort
+     * @param cycle receives the vertices of a cycle, in the direction of its
+     *        edges, if graph has one
+     * @return the vertex ids in topological order, or null if graph has a cycle
+     */
+    public static int[] sort(IntGraph graph, IntList cycle) {
+        int n = graph.vertexCount();
+        IntGraph reverse = graph.reverse();
+        int[] in = new int[n];
+        int[] order = new int[n];
+        int size = 0;
+        for(int v = 0; v < n; v++) {
+            in[v] = reverse.end(v) - reverse.begin(v);
+            if(in[v] == 0)
+                order[size++] = v;
+        }
+
+        for(int head = 0; head < size; head++) {
+            int v = order[head];
+            for(int e = graph.begin(v); e < graph.end(v); e++) {
+                int w = graph.target(e);
+                if(--in[w] == 0)
+                    order[size++] = w;
+            }
+        }
+        if(size == n)
+            return order;
+
+        // walk back from a remaining vertex until a vertex repeats
+        int v = 0;
+        while(in[v] == 0)
+            v++;
+        // step[v] is 1 + the position of v in the walk, 0 if not walked
+        int[] step = new int[n];
+        IntList walk = new IntList();
+        while(step[v] == 0) {
+            walk.add(v);
+            step[v] = walk.size();
+            for(int e = reverse.begin(v); e < reverse.end(v); e++) {
+                if(in[reverse.target(e)] > 0) {
+                    v = reverse.target(e);
+                    break;
+                }
+            }
+        }
+
+        cycle.clear();
+        for(int i = walk.size() - 1; i >= step[v] - 1; i--)
+            cycle.add(walk.get(i));
+        return null;
+    }
+
+    /**
+     * @return true if the graph has no cycle
+     */
+    public boolean isAcyclic() {
+        return order != null;
+    }
+
+    /**
+     * @return the vertices in topological order, or null if the graph has a cycle
+     */
+    public List<L> order() {
+        return order;
+    }
+
+    /**
+     * @return the vertices of a cycle of the graph in the direction of its
+     *         edges, the edge back to the first one closing it. Empty if the
+     *         graph is acyclic
+     */
+    public List<L> cycle() {
+        return cycle;
+    }
+}
@@ -0,0 +1,384 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Depth first and breadth first traversals over the integer ids of an
+ * {@link IntGraph}, either pulled one vertex at a time through an iterator or
+ * pushed to a {@link Visitor} that can skip subtrees and stop early.
+ *
+ * A traversal owns its stack, queue and visited marks and reuses them for
+ * every search. Marks are not cleared between searches: every search gets a
+ * new epoch and a vertex is only visited if its stamp equals the current
+ * epoch, as in {@link DijkstraEngine}. Once the buffers have grown to the
+ * size of the graph, a search allocates nothing.
+ *
+ * Depth first order is the order of a recursive walk: the out edges of a
+ * vertex are followed in order and a vertex is visited when it is first
+ * reached. Every vertex is visited at most once per search.
+ *
+ * Starting a search invalidates the iterator of the previous one. A
+ * traversal is not thread safe.
+ */
+public final class Traversal {
+
+    /**
+     * What the traversal does after a {@link Visitor} callback.
+     */
+    public enum Action {
+        /** Go on */
+        CONTINUE,
+        /** Do not follow the out edges of the vertex, or this edge */
+        SKIP_SUBTREE,
+        /** End the search */
+        STOP
+    }
+
+    /**
+     * Callbacks of {@link #dfs(IntGraph, int, Visitor)} and
+     * {@link #bfs(IntGraph, int, Visitor)}. Every callback continues by
+     * default.
+     */
+    public interface Visitor {
+
+        /**
+         * Called when vertex is visited, before its out edges.
+         * SKIP_SUBTREE does not follow its out edges.
+         */
+        default Action preVisit(int vertex) {
+            return Action.CONTINUE;
+        }
+
+        /**
+         * Called for every out edge of a visited vertex, whether target was
+         * visited before or not. SKIP_SUBTREE does not follow this edge.
+         *
+         * @param source vertex the edge leaves
+         * @param target vertex the edge points to
+         * @param edge index of the edge in the graph
+         */
+        default Action edge(int source, int target, int edge) {
+            return Action.CONTINUE;
+        }
+
+        /**
+         * Called once all the out edges of vertex are handled. In a depth
+         * first search the vertices reached from it are visited before.
+         * SKIP_SUBTREE is the same as CONTINUE.
+         */
+        default Action postVisit(int vertex) {
+            return Action.CONTINUE;
+        }
+    }
+
+    private final Cursor cursor = new Cursor();
+    private IntGraph graph;
+    // marked[v] == epoch when v was reached by the current search
+    private int[] marked;
+    private int epoch;
+    // dfs: vertices of the current path, bfs: queue
+    private int[] vertices;
+    // dfs: next out edge of each vertex of the current path
+    private int[] edges;
+    private int size;
+    private int head;
+    private boolean depthFirst;
+    // next vertex to start from when the search covers the whole graph, -1 otherwise
+    private int nextRoot;
+
+    public Traversal() {
+        this(0);
+    }
+
+    public Traversal(int capacity) {
+        marked = new int[capacity];
+        vertices = new int[capacity];
+        edges = new int[capacity];
+    }
+
+    /**
+     * Grow the buffers so that graphs with capacity vertices can be searched.
+     */
+    public void ensureCapacity(int capacity) {
+        int old = marked.length;
+        if(capacity <= old)
+            return;
+
+        capacity = Math.max(capacity, old + (old >> 1));
+        marked = Arrays.copyOf(marked, capacity);
+        vertices = Arrays.copyOf(vertices, capacity);
+        edges = Arrays.copyOf(edges, capacity);
+    }
+
+    private void reset(IntGraph graph, boolean depthFirst, int nextRoot) {
+        ensureCapacity(graph.vertexCount());
+        this.graph = graph;
+        this.depthFirst = depthFirst;
+        this.nextRoot = nextRoot;
+        size = 0;
+        head = 0;
+        if(++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(marked, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * @return true if vertex was reached by the last search
+     */
+    public boolean visited(int vertex) {
+        return vertex < marked.length && marked[vertex] == epoch;
+    }
+
+    private boolean mark(int vertex) {
+        if(marked[vertex] == epoch)
+            return false;
+        marked[vertex] = epoch;
+        return true;
+    }
+
+    /**
+     * @return the next unvisited vertex, in id order, to start from when the
+     *         search covers the whole graph, -1 if there is none
+     */
+    private int root() {
+        if(nextRoot < 0)
+            return -1;
+        while(nextRoot < graph.vertexCount()) {
+            int v = nextRoot++;
+            if(mark(v))
+                return v;
+        }
+        return -1;
+    }
+
+    /**
+     * Vertices reachable from start in depth first order, start first.
+     */
+    public PrimitiveIterator.OfInt dfs(IntGraph graph, int start) {
+        reset(graph, true, -1);
+        mark(start);
+        return cursor.start(start);
+    }
+
+    /**
+     * Every vertex of graph in depth first order. Once the vertices reachable
+     * from a vertex are exhausted, the search goes on from the unvisited
+     * vertex with the smallest id.
+     */
+    public PrimitiveIterator.OfInt dfs(IntGraph graph) {
+        reset(graph, true, 0);
+        return cursor.start(root());
+    }
+
+    /**
+     * Vertices reachable from start in breadth first order, start first.
+     */
+    public PrimitiveIterator.OfInt bfs(IntGraph graph, int start) {
+        reset(graph, false, -1);
+        mark(start);
+        return cursor.start(start);
+    }
+
+    /**
+     * Every vertex of graph in breadth first order. Once the vertices
+     * reachable from a vertex are exhausted, the search goes on from the
+     * unvisited vertex with the smallest id.
+     */
+    public PrimitiveIterator.OfInt bfs(IntGraph graph) {
+        reset(graph, false, 0);
+        return cursor.start(root());
+    }
+
+    /**
+     * Iterator over the vertices of the current search, one vertex ahead of
+     * the caller: nextInt() finds the following vertex before it returns, so
+     * hasNext() needs no work. In breadth first order this expands all the
+     * out edges of the returned vertex; in depth first order it follows them
+     * only up to the first unvisited target.
+     */
+    private final class Cursor implements PrimitiveIterator.OfInt {
+        private int next;
+
+        Cursor start(int vertex) {
+            next = vertex;
+            if(vertex >= 0) {
+                if(depthFirst)
+                    push(vertex);
+                else
+                    vertices[size++] = vertex;
+            }
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if(next < 0)
+                throw new NoSuchElementException();
+            int vertex = next;
+            next = depthFirst ? advanceDepthFirst() : advanceBreadthFirst();
+            return vertex;
+        }
+
+        private int advanceDepthFirst() {
+            while(size > 0) {
+                int top = vertices[size - 1];
+                if(edges[size - 1] < graph.end(top)) {
+                    int v = graph.target(edges[size - 1]++);
+                    if(mark(v)) {
+                        push(v);
+                        return v;
+                    }
+                } else {
+                    size--;
+                }
+            }
+            int root = root();
+            if(root >= 0)
+                push(root);
+            return root;
+        }
+
+        private int advanceBreadthFirst() {
+            // the vertex returned last is at head, expand it now
+            int u = vertices[head++];
+            for(int e = graph.begin(u); e < graph.end(u); e++) {
+                int v = graph.target(e);
+                if(mark(v))
+                    vertices[size++] = v;
+            }
+            if(head < size)
+                return vertices[head];
+
+            int root = root();
+            if(root >= 0)
+                vertices[size++] = root;
+            return root;
+        }
+    }
+
+    private void push(int vertex) {
+        vertices[size] = vertex;
+        edges[size] = graph.begin(vertex);
+        size++;
+    }
+
+    /**
+     * Depth first search from start.
+     *
+     * @return false if the visitor stopped the search
+     */
+    public boolean dfs(IntGraph graph, int start, Visitor visitor) {
+        reset(graph, true, -1);
+        return depthFirst(start, visitor);
+    }
+
+    /**
+     * Depth first search of every vertex of graph, starting again from the
+     * unvisited vertex with the smallest id until every vertex is visited.
+     *
+     * @return false if the visitor stopped the search
+     */
+    public boolean dfs(IntGraph graph, Visitor visitor) {
+        reset(graph, true, -1);
+        for(int v = 0; v < graph.vertexCount(); v++) {
+            if(marked[v] != epoch && !depthFirst(v, visitor))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Breadth first search from start. Vertices are visited when they leave
+     * the queue.
+     *
+     * @return false if the visitor stopped the search
+     */
+    public boolean bfs(IntGraph graph, int start, Visitor visitor) {
+        reset(graph, false, -1);
+        return breadthFirst(start, visitor);
+    }
+
+    /**
+     * Breadth first search of every vertex of graph, starting again from the
+     * unvisited vertex with the smallest id until every vertex is visited.
+     *
+     * @return false if the visitor stopped the search
+     */
+    public boolean bfs(IntGraph graph, Visitor visitor) {
+        reset(graph, false, -1);
+        for(int v = 0; v < graph.vertexCount(); v++) {
+            if(marked[v] != epoch && !breadthFirst(v, visitor))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean enter(int vertex, Visitor visitor) {
+        mark(vertex);
+        Action action = visitor.preVisit(vertex);
+        if(action == Action.STOP)
+            return false;
+        push(vertex);
+        if(action == Action.SKIP_SUBTREE)
+            edges[size - 1] = graph.end(vertex);
+        return true;
+    }
+
+    private boolean depthFirst(int start, Visitor visitor) {
+        if(!enter(start, visitor))
+            return false;
+
+        while(size > 0) {
+            int top = vertices[size - 1];
+            int e = edges[size - 1];
+            if(e < graph.end(top)) {
+                edges[size - 1]++;
+                int v = graph.target(e);
+                Action action = visitor.edge(top, v, e);
+                if(action == Action.STOP)
+                    return false;
+                if(action == Action.CONTINUE && marked[v] != epoch && !enter(v, visitor))
+                    return false;
+            } else {
+                size--;
+                if(visitor.postVisit(top) == Action.STOP)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean breadthFirst(int start, Visitor visitor) {
+        mark(start);
+        vertices[size++] = start;
+        while(head < size) {
+            int u = vertices[head++];
+            Action action = visitor.preVisit(u);
+            if(action == Action.STOP)
+                return false;
+
+            if(action == Action.CONTINUE) {
+                for(int e = graph.begin(u); e < graph.end(u); e++) {
+                    int v = graph.target(e);
+                    action = visitor.edge(u, v, e);
+                    if(action == Action.STOP)
+                        return false;
+                    if(action == Action.CONTINUE && mark(v))
+                        vertices[size++] = v;
+                }
+            }
+
+            if(visitor.postVisit(u) == Action.STOP)
+                return false;
+        }
+        return true;
+    }
+}
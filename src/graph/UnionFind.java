@@ -14,7 +14,7 @@ public class UnionFind {
         }
     }
 
-    private int root(int e) {
+    int root(int e) {
         while(sets[e] != e) {
             // make node to point to his grand parent to flatten the tree
             sets[e] = sets[sets[e]];
@@ -0,0 +1,129 @@
+package graph;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Bidirectional mapping between vertex labels and dense integer ids.
+ * Ids are assigned in interning order, starting from 0, and never change.
+ * Lookups from id to label are array accesses, lookups from label to id
+ * hash the label once.
+ *
+ * @param <L> type of vertex labels. Must be immutable
+ */
+public final class VertexIndex<L> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Object[] labels;
+    private HashMap<L, Integer> ids;
+    private int size;
+
+    public VertexIndex() {
+        this(16);
+    }
+
+    public VertexIndex(int capacity) {
+        this.labels = new Object[Math.max(capacity, 1)];
+        this.ids = new HashMap<>((int) (capacity / 0.75f) + 1);
+    }
+
+    /**
+     * Build an index over the given labels. Ids follow the iteration order
+     * of the collection.
+     *
+     * @param labels distinct labels to index
+     * @return a new index
+     */
+    public static <L> VertexIndex<L> of(Collection<L> labels) {
+        VertexIndex<L> index = new VertexIndex<>(labels.size());
+        for(L label : labels)
+            index.intern(label);
+        return index;
+    }
+
+    /**
+     * Return the id of label, assigning the next free id if it is not
+     * already indexed.
+     *
+     * @param label to intern
+     * @return the id of label
+     */
+    int intern(L label) {
+        Integer id = ids.get(label);
+        if(id != null)
+            return id;
+
+        if(size == labels.length)
+            labels = Arrays.copyOf(labels, size + (size >> 1) + 1);
+        labels[size] = label;
+        ids.put(label, size);
+        return size++;
+    }
+
+    /**
+     * @param label a label
+     * @return the id of label or -1 if label is not indexed
+     */
+    public int id(L label) {
+        Integer id = ids.get(label);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id a valid id in [0, size())
+     * @return the label associated to id
+     */
+    @SuppressWarnings("unchecked")
+    public L label(int id) {
+        if(id < 0 || id >= size)
+            throw new IndexOutOfBoundsException("No vertex with id " + id);
+        return (L) labels[id];
+    }
+
+    public boolean contains(L label) {
+        return ids.containsKey(label);
+    }
+
+    /**
+     * @return the number of indexed labels
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return an unmodifiable view of the indexed labels, iterated in id order
+     */
+    public Set<L> labels() {
+        return new AbstractSet<L>() {
+            @Override
+            public Iterator<L> iterator() {
+                return new Iterator<L>() {
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public L next() {
+                        if(next >= size)
+                            throw new NoSuchElementException();
+                        return label(next++);
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return ids.containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -2,6 +2,12 @@ package graph;
 
 import org.junit.Test;
 
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
 public class AdjListGraphTest extends GraphInstanceTest {
     
     public <T> Graph<T> emptyInstance() {
@@ -9,21 +15,21 @@ public class AdjListGraphTest extends GraphInstanceTest {
     }
     
     @Test
-    public void printNodeAlone() {
+    public void printNodeAlone() throws IOException {
         AdjListGraph<Integer> graph = new AdjListGraph<>();
         graph.add(10);
         graph.writeToPng("output/alone");
     }
     
     @Test
-    public void printLoop() {
+    public void printLoop() throws IOException {
         AdjListGraph<String> graph = new AdjListGraph<>();
         graph.set("a", "a", 1000);
         graph.writeToPng("output/printsloop");
     }
     
     @Test
-    public void printBidirectional() {
+    public void printBidirectional() throws IOException {
         AdjListGraph<String> graph = new AdjListGraph<>();
         graph.set("a", "b", 2);
         graph.set("b", "a", 6);
@@ -32,7 +38,7 @@ public class AdjListGraphTest extends GraphInstanceTest {
     }
     
     @Test
-    public void printMix() {
+    public void printMix() throws IOException {
         AdjListGraph<String> graph = new AdjListGraph<>();
         graph.set("a", "a", 1000);
         graph.set("a", "b", 2);
@@ -44,4 +50,57 @@ public class AdjListGraphTest extends GraphInstanceTest {
         graph.add("alone");
         graph.writeToPng("output/mix");
     }
+
+    @Test
+    public void repeatedDijkstraSeesModifications() {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 1);
+        assertEquals(2.0, graph.dijkstra("a").get("c"), 0);
+        // on the snapshot from now on
+        assertEquals(2.0, graph.dijkstra("a").get("c"), 0);
+        assertEquals(2.0, graph.dijkstra("a").get("c"), 0);
+
+        graph.set("a", "c", 1);
+        assertEquals(1.0, graph.dijkstra("a").get("c"), 0);
+        assertEquals(1.0, graph.dijkstra("a").get("c"), 0);
+        graph.add("d");
+        assertEquals(1, graph.dijkstra("d").size());
+        assertEquals(1, graph.dijkstra("d").size());
+        graph.remove("c");
+        assertNull(graph.dijkstra("a").get("c"));
+        assertNull(graph.dijkstra("a").get("c"));
+        graph.setAll(Arrays.asList(new Edge<>("b", "e", 2)));
+        assertEquals(3.0, graph.dijkstra("a").get("e"), 0);
+        assertEquals(3.0, graph.dijkstra("a").get("e"), 0);
+        graph.removeAll(Collections.singleton("e"));
+        assertNull(graph.dijkstra("a").get("e"));
+        assertTrue(graph.dijkstra("z").isEmpty());
+    }
+
+    @Test
+    public void viewsAreReadOnly() {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        graph.set("a", "b", 5);
+        graph.dijkstra("a");
+        graph.dijkstra("a");
+        try {
+            graph.targets("a").put("b", 1.0);
+            fail("expected UnsupportedOperationException");
+        } catch(UnsupportedOperationException e) {
+        }
+        try {
+            graph.sources("b").remove("a");
+            fail("expected UnsupportedOperationException");
+        } catch(UnsupportedOperationException e) {
+        }
+        try {
+            graph.vertices().remove("a");
+            fail("expected UnsupportedOperationException");
+        } catch(UnsupportedOperationException e) {
+        }
+        assertEquals(5.0, graph.dijkstra("a").get("b"), 0);
+        graph.set("a", "b", 1);
+        assertEquals(1.0, graph.dijkstra("a").get("b"), 0);
+    }
 }
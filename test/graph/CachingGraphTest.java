@@ -0,0 +1,148 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class CachingGraphTest extends GraphInstanceTest {
+
+    // Testing strategy
+
+    // every test of GraphInstanceTest, through the cache
+    // wrapped:   AdjListGraph modified through the cache and directly,
+    //            ConcurrentAdjListGraph modified directly, CsrGraph
+    // queries:   dijkstra, shortestPath (found and not), bidirectional, dfs, bfs
+    // bounds:    entries, total vertices, result larger than the bound, 0
+    // stats:     hits, misses, hit rate, evictions, invalidations
+    // close:     listener removed
+
+    public <T> Graph<T> emptyInstance() {
+        return new CachingGraph<>(new AdjListGraph<>(), 100, 10000);
+    }
+
+    /**
+     * a -> b -> c, a -> c
+     */
+    private static AdjListGraph<String> triangle() {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 1);
+        graph.set("a", "c", 5);
+        return graph;
+    }
+
+    @Test
+    public void hits() {
+        CachingGraph<String> graph = new CachingGraph<>(triangle(), 10, 100);
+        Map<String, Double> first = graph.dijkstra("a");
+        assertSame(first, graph.dijkstra("a"));
+        assertEquals(2.0, first.get("c"), 0);
+        assertSame(graph.shortestPath("a", "c"), graph.shortestPath("a", "c"));
+        assertNull(graph.shortestPath("c", "a"));
+        assertNull(graph.shortestPath("c", "a"));
+        assertSame(graph.bidirectionalShortestPath("a", "c"), graph.bidirectionalShortestPath("a", "c"));
+
+        List<String> dfs = new ArrayList<>();
+        graph.dfs("a", dfs::add);
+        List<String> again = new ArrayList<>();
+        graph.dfs("a", again::add);
+        assertEquals(3, again.size());
+        assertEquals(dfs, again);
+
+        assertEquals(5, graph.missCount());
+        assertEquals(5, graph.hitCount());
+        assertEquals(0.5, graph.hitRate(), 0);
+        assertEquals(5, graph.size());
+        // 3 distances, 3 vertices per path, 1 for no path, 3 visited
+        assertEquals(3 + 3 + 1 + 3 + 3, graph.weight());
+
+        try {
+            first.put("d", 0.0);
+            fail("expected UnsupportedOperationException");
+        } catch(UnsupportedOperationException e) {
+        }
+    }
+
+    @Test
+    public void invalidation() {
+        AdjListGraph<String> wrapped = triangle();
+        CachingGraph<String> graph = new CachingGraph<>(wrapped, 10, 100);
+        graph.dijkstra("a");
+        graph.bfs(v -> { });
+
+        // through the cache
+        graph.set("a", "c", 1);
+        assertEquals(1.0, graph.dijkstra("a").get("c"), 0);
+        assertEquals(2, graph.invalidationCount());
+
+        // directly on the wrapped graph
+        wrapped.set("c", "d", 1);
+        assertEquals(2.0, graph.dijkstra("a").get("d"), 0);
+        wrapped.remove("b");
+        assertNull(graph.dijkstra("a").get("b"));
+        assertEquals(4, graph.invalidationCount());
+        assertEquals(0, graph.hitCount());
+
+        // no modification
+        assertFalse(graph.add("a"));
+        graph.dijkstra("a");
+        assertEquals(1, graph.hitCount());
+
+        // not listening any more
+        graph.close();
+        graph.dijkstra("a");
+        wrapped.set("a", "e", 1);
+        assertNull(graph.dijkstra("a").get("e"));
+        graph.set("a", "e", 1);
+        assertEquals(1.0, graph.dijkstra("a").get("e"), 0);
+    }
+
+    @Test
+    public void concurrent() {
+        ConcurrentAdjListGraph<String> wrapped = new ConcurrentAdjListGraph<>();
+        wrapped.set("a", "b", 1);
+        CachingGraph<String> graph = new CachingGraph<>(wrapped, 10, 100);
+        assertEquals(2, graph.dijkstra("a").size());
+        wrapped.set("b", "c", 1);
+        assertEquals(2.0, graph.dijkstra("a").get("c"), 0);
+        assertEquals(0, graph.hitCount());
+    }
+
+    @Test
+    public void bounds() {
+        CsrGraph<Integer> wrapped = CsrGraphTest.random(100, 1000, 23).freeze();
+        CachingGraph<Integer> graph = new CachingGraph<>(wrapped, 3, 1000);
+        for(int src = 0; src < 5; src++)
+            assertEquals(wrapped.dijkstra(src), graph.dijkstra(src));
+        assertEquals(3, graph.size());
+        assertEquals(2, graph.evictionCount());
+        // 0 and 1 were the least recently used
+        graph.dijkstra(4);
+        graph.dijkstra(2);
+        assertEquals(2, graph.hitCount());
+        graph.dijkstra(0);
+        assertEquals(2, graph.hitCount());
+
+        int reached = wrapped.dijkstra(0).size();
+        CachingGraph<Integer> small = new CachingGraph<>(wrapped, 100, 2 * reached);
+        small.dijkstra(0);
+        small.dijkstra(0);
+        small.dijkstra(1);
+        small.dijkstra(2);
+        assertTrue(small.weight() <= 2 * reached);
+        assertEquals(1, small.hitCount());
+        assertTrue(small.evictionCount() >= 1);
+
+        CachingGraph<Integer> tiny = new CachingGraph<>(wrapped, 100, reached - 1);
+        tiny.dijkstra(0);
+        assertEquals(0, tiny.size());
+
+        CachingGraph<Integer> none = new CachingGraph<>(wrapped, 0, 1000);
+        assertEquals(wrapped.dijkstra(3), none.dijkstra(3));
+        assertEquals(0, none.size());
+    }
+}
@@ -0,0 +1,128 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConcurrentAdjListGraphTest extends GraphInstanceTest {
+
+    // Testing strategy
+
+    // every test of GraphInstanceTest
+    // snapshot: reused while the graph is not modified, new after add, set, remove,
+    //           not changed by later modifications
+    // threads:  writers on disjoint and shared vertices with removals while readers
+    //           query snapshots, sources and targets agree once writers are done
+
+    public <T> Graph<T> emptyInstance() {
+        return new ConcurrentAdjListGraph<>();
+    }
+
+    @Test
+    public void snapshotVersions() {
+        ConcurrentAdjListGraph<String> graph = new ConcurrentAdjListGraph<>();
+        ConcurrentAdjListGraph.Snapshot<String> empty = graph.snapshot();
+        assertEquals(0, empty.version());
+        assertSame(empty, graph.snapshot());
+
+        graph.set("a", "b", 1);
+        ConcurrentAdjListGraph.Snapshot<String> first = graph.snapshot();
+        assertNotSame(empty, first);
+        assertEquals(graph.version(), first.version());
+        assertSame(first.graph(), graph.freeze());
+        assertSame(first.graph(), CsrGraph.of(graph));
+
+        // no modification, same version
+        assertFalse(graph.add("a"));
+        assertFalse(graph.remove("z"));
+        assertSame(first, graph.snapshot());
+
+        graph.remove("b");
+        graph.set("a", "c", 2);
+        ConcurrentAdjListGraph.Snapshot<String> second = graph.snapshot();
+        assertTrue(second.version() > first.version());
+        assertEquals(2, first.graph().vertexCount());
+        assertEquals(1.0, first.graph().targets("a").get("b"), 0);
+        assertNull(second.graph().targets("a").get("b"));
+        assertEquals(2.0, graph.dijkstra("a").get("c"), 0);
+    }
+
+    @Test
+    public void concurrentWriters() throws InterruptedException {
+        int threads = 4;
+        int n = 2000;
+        ConcurrentAdjListGraph<Integer> graph = new ConcurrentAdjListGraph<>();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+
+        for(int t = 0; t < threads; t++) {
+            int id = t;
+            workers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for(int i = 0; i < n; i++) {
+                        // a chain of its own plus edges into shared vertices
+                        graph.set(id * n + i, id * n + i + 1, 1);
+                        graph.set(id * n + i, -1 - i % 50, id + 1);
+                        if(i % 100 == 99)
+                            graph.remove(-1 - i % 50);
+                    }
+                } catch(Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        workers.add(new Thread(() -> {
+            try {
+                start.await();
+                for(int i = 0; i < 200; i++) {
+                    CsrGraph<Integer> snapshot = graph.freeze();
+                    // every edge of a snapshot ends in a vertex of the snapshot
+                    for(int v = 0; v < snapshot.vertexCount(); v++) {
+                        for(int e = snapshot.begin(v); e < snapshot.end(v); e++)
+                            assertTrue(snapshot.target(e) < snapshot.vertexCount());
+                    }
+                    graph.dijkstra(0);
+                }
+            } catch(Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }));
+
+        for(Thread worker : workers)
+            worker.start();
+        start.countDown();
+        for(Thread worker : workers)
+            worker.join();
+        assertNull(failure.get());
+
+        // every chain is complete
+        for(int t = 0; t < threads; t++)
+            assertEquals(n, graph.dijkstra(t * n).get(t * n + n), 0);
+
+        // the two maps agree
+        for(Integer source : graph.vertices()) {
+            for(Map.Entry<Integer, Double> edge : graph.targets(source).entrySet())
+                assertEquals(edge.getValue(), graph.sources(edge.getKey()).get(source));
+            Map<Integer, Double> in = graph.sources(source);
+            if(in != null) {
+                for(Map.Entry<Integer, Double> edge : in.entrySet())
+                    assertEquals(edge.getValue(), graph.targets(edge.getKey()).get(source));
+            }
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnlyViews() {
+        ConcurrentAdjListGraph<String> graph = new ConcurrentAdjListGraph<>();
+        graph.set("a", "b", 1);
+        graph.targets("a").put("c", 1.0);
+    }
+}
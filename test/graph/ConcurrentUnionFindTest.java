@@ -0,0 +1,120 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for ConcurrentUnionFind and Components.
+ */
+public class ConcurrentUnionFindTest {
+
+    // Testing strategy
+
+    // union:       same set, different sets, already merged
+    // unionAll:    pairs of different lengths, many pairs on several threads
+    // denseIds:    numbered in the order of the smallest element
+    // components:  empty graph, isolated vertices, edge directions ignored,
+    //              same partition as the sequential UnionFind
+
+    @Test
+    public void unionAndFind() {
+        ConcurrentUnionFind unionFind = new ConcurrentUnionFind(5);
+        assertFalse(unionFind.connected(0, 1));
+        assertTrue(unionFind.union(3, 1));
+        assertTrue(unionFind.union(4, 3));
+        assertFalse(unionFind.union(1, 4));
+        assertTrue(unionFind.connected(4, 1));
+        assertEquals(1, unionFind.find(4));
+
+        int[] ids = new int[5];
+        assertEquals(3, unionFind.denseIds(ids));
+        assertArrayEquals(new int[]{0, 1, 2, 1, 1}, ids);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lengthsDiffer() {
+        new ConcurrentUnionFind(3).unionAll(new int[]{0, 1}, new int[]{2}, ForkJoinPool.commonPool());
+    }
+
+    @Test
+    public void parallelUnions() {
+        int size = 100000;
+        Random random = new Random(5);
+        int[] a = new int[60000];
+        int[] b = new int[60000];
+        UnionFind expected = new UnionFind(size);
+        for(int k = 0; k < a.length; k++) {
+            a[k] = random.nextInt(size);
+            b[k] = random.nextInt(size);
+            if(!expected.find(a[k], b[k]))
+                expected.union(a[k], b[k]);
+        }
+
+        ConcurrentUnionFind unionFind = new ConcurrentUnionFind(size);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            unionFind.unionAll(a, b, pool);
+        } finally {
+            pool.shutdown();
+        }
+        for(int k = 0; k < 1000; k++) {
+            int u = random.nextInt(size);
+            int v = random.nextInt(size);
+            assertEquals(expected.find(u, v), unionFind.connected(u, v));
+        }
+        for(int k = 0; k < a.length; k++)
+            assertTrue(unionFind.connected(a[k], b[k]));
+    }
+
+    @Test
+    public void weaklyConnectedComponents() {
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        graph.set('a', 'b', 1);
+        graph.set('c', 'b', 1);
+        graph.set('d', 'e', 1);
+        graph.add('f');
+
+        Components<Character> components = graph.weaklyConnectedComponents();
+        assertEquals(3, components.count());
+        assertEquals(components.component('a'), components.component('c'));
+        assertEquals(components.component('d'), components.component('e'));
+        assertNotEquals(components.component('a'), components.component('d'));
+        assertNotEquals(components.component('f'), components.component('d'));
+        assertEquals(-1, components.component('z'));
+
+        int[] sizes = components.groups().stream().mapToInt(List::size).sorted().toArray();
+        assertArrayEquals(new int[]{1, 2, 3}, sizes);
+
+        assertEquals(0, new AdjListGraph<String>().weaklyConnectedComponents().count());
+    }
+
+    @Test
+    public void randomComponents() {
+        CsrGraph<Integer> graph = CsrGraphTest.random(20000, 15000, 8).freeze();
+        Components<Integer> components = graph.weaklyConnectedComponents();
+
+        UnionFind expected = new UnionFind(graph.vertexCount());
+        int count = graph.vertexCount();
+        for(int v = 0; v < graph.vertexCount(); v++) {
+            for(int e = graph.begin(v); e < graph.end(v); e++) {
+                if(!expected.find(v, graph.target(e))) {
+                    expected.union(v, graph.target(e));
+                    count--;
+                }
+            }
+        }
+        assertEquals(count, components.count());
+
+        int[] ids = components.ids();
+        for(int v = 0; v < graph.vertexCount(); v++) {
+            for(int e = graph.begin(v); e < graph.end(v); e++)
+                assertEquals(ids[v], ids[graph.target(e)]);
+            assertEquals(expected.root(v) == expected.root(0), ids[v] == ids[0]);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for ContractionHierarchy.
+ */
+public class ContractionHierarchyTest {
+
+    // Testing strategy
+
+    // graph:           empty, random sparse, grid (road like), disconnected parts
+    // distance:        same as dijkstra, unreachable, absent vertex, src = dst
+    // shortestPath:    valid path made of original edges, same cost as dijkstra
+
+    private static <L> void assertSameAsDijkstra(Graph<L> graph, ContractionHierarchy<L> hierarchy, int step) {
+        int i = 0;
+        for(L src : graph.vertices()) {
+            if(i++ % step != 0)
+                continue;
+            Map<L, Double> costs = graph.dijkstra(src);
+            for(L dst : graph.vertices()) {
+                Double cost = costs.get(dst);
+                Path<L> path = hierarchy.shortestPath(src, dst);
+                if(cost == null) {
+                    assertNull(path);
+                    assertEquals(Double.POSITIVE_INFINITY, hierarchy.distance(src, dst), 0);
+                    continue;
+                }
+
+                assertEquals(cost, hierarchy.distance(src, dst), 1e-9);
+                assertEquals(cost, path.cost(), 0);
+                List<L> vertices = path.vertices();
+                assertEquals(src, path.source());
+                assertEquals(dst, path.target());
+                for(int k = 1; k < vertices.size(); k++)
+                    assertNotNull(graph.targets(vertices.get(k - 1)).get(vertices.get(k)));
+            }
+        }
+    }
+
+    @Test
+    public void empty() {
+        ContractionHierarchy<String> hierarchy = ContractionHierarchy.build(new AdjListGraph<>());
+        assertNull(hierarchy.shortestPath("a", "b"));
+        assertEquals(-1, hierarchy.rank("a"));
+    }
+
+    @Test
+    public void random() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(400, 1600, 17);
+        graph.set(1000, 1001, 3);
+        assertSameAsDijkstra(graph, ContractionHierarchy.build(graph), 9);
+    }
+
+    @Test
+    public void fractionalWeights() {
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        java.util.Random random = new java.util.Random(8);
+        for(int i = 0; i < 1000; i++)
+            graph.set(random.nextInt(200), random.nextInt(200), random.nextDouble() * 10);
+        assertSameAsDijkstra(graph, ContractionHierarchy.build(graph), 7);
+    }
+
+    @Test
+    public void grid() {
+        AdjListGraph<Integer> graph = LandmarkIndexTest.grid(25, 4);
+        ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.build(graph);
+        assertSameAsDijkstra(graph, hierarchy, 37);
+
+        Path<Integer> path = hierarchy.shortestPath(0, 25 * 25 - 1);
+        assertTrue("expected the upward searches to settle few vertices", path.settled() < 25 * 25 / 2);
+    }
+}
@@ -0,0 +1,186 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Tests for CsrGraph. A snapshot must answer every query like the
+ * AdjListGraph it was taken from.
+ */
+public class CsrGraphTest {
+
+    // Testing strategy
+
+    // of:          empty graph
+    //              isolated vertices, loops, multiple edges per vertex
+    //              already a CsrGraph
+
+    // queries:     vertices, sources, targets, dfs, bfs, dijkstra,
+    //              minimumSpanningTree compared to AdjListGraph
+
+    // mutators:    always throw
+
+    private static AdjListGraph<Character> sample() {
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        graph.set('s', 'a', 10);
+        graph.set('s', 'c', 5);
+        graph.set('c', 'a', 3);
+        graph.set('a', 'c', 2);
+        graph.set('a', 'b', 1);
+        graph.set('c', 'b', 9);
+        graph.set('c', 'd', 2);
+        graph.set('b', 'd', 4);
+        graph.set('d', 'b', 6);
+        graph.set('d', 'd', 1);
+        graph.add('z');
+        return graph;
+    }
+
+    static AdjListGraph<Integer> random(int vertices, int edges, long seed) {
+        Random random = new Random(seed);
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        for(int v = 0; v < vertices; v++)
+            graph.add(v);
+        for(int i = 0; i < edges; i++)
+            graph.set(random.nextInt(vertices), random.nextInt(vertices), random.nextInt(100));
+        return graph;
+    }
+
+    @Test
+    public void empty() {
+        CsrGraph<String> graph = new AdjListGraph<String>().freeze();
+        assertEquals(Collections.emptySet(), graph.vertices());
+        assertEquals(0, graph.edgeCount());
+        assertTrue(graph.dijkstra("a").isEmpty());
+        assertNull(graph.targets("a"));
+    }
+
+    @Test
+    public void ofCsrGraph() {
+        CsrGraph<Character> graph = sample().freeze();
+        assertSame(graph, CsrGraph.of(graph));
+    }
+
+    @Test
+    public void verticesAndEdges() {
+        AdjListGraph<Character> graph = sample();
+        CsrGraph<Character> csr = graph.freeze();
+
+        assertEquals(graph.vertices(), csr.vertices());
+        assertEquals(10, csr.edgeCount());
+        for(Character v : graph.vertices()) {
+            assertEquals(graph.targets(v), csr.targets(v));
+            Map<Character, Double> sources = graph.sources(v);
+            assertEquals(sources == null ? Collections.emptyMap() : sources, csr.sources(v));
+        }
+        assertEquals(Double.valueOf(1), csr.targets('d').get('d'));
+        assertNull(csr.targets('a').get('s'));
+    }
+
+    @Test
+    public void reverse() {
+        CsrGraph<Character> csr = sample().freeze();
+        assertSame(csr, csr.reverse().reverse());
+        assertEquals(csr.sources('b'), csr.reverse().targets('b'));
+    }
+
+    @Test
+    public void traversals() {
+        AdjListGraph<Character> graph = sample();
+        CsrGraph<Character> csr = graph.freeze();
+
+        List<Character> expected = new ArrayList<>();
+        List<Character> actual = new ArrayList<>();
+        graph.dfs('s', expected::add);
+        csr.dfs('s', actual::add);
+        assertEquals(expected, actual);
+
+        expected.clear();
+        actual.clear();
+        graph.bfs('s', expected::add);
+        csr.bfs('s', actual::add);
+        assertEquals(expected, actual);
+
+        expected.clear();
+        actual.clear();
+        graph.dfs(expected::add);
+        csr.dfs(actual::add);
+        assertEquals(expected, actual);
+
+        actual.clear();
+        csr.bfs(actual::add);
+        assertEquals(graph.vertices(), new HashSet<>(actual));
+        assertEquals(graph.vertices().size(), actual.size());
+    }
+
+    @Test
+    public void dijkstra() {
+        AdjListGraph<Integer> graph = random(200, 1000, 42);
+        CsrGraph<Integer> csr = graph.freeze();
+        for(int src = 0; src < 200; src += 7)
+            assertEquals(graph.dijkstra(src), csr.dijkstra(src));
+    }
+
+    @Test
+    public void minimumSpanningTree() {
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        graph.set(1, 2, 1);
+        graph.set(2, 3, 2);
+        graph.set(1, 3, 3);
+        graph.set(4, 3, 5);
+        graph.set(1, 4, 4);
+        assertEquals(7, graph.freeze().minimumSpanningTree(e -> e));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setThrows() {
+        sample().freeze().set('a', 'b', 1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void removeThrows() {
+        sample().freeze().remove('a');
+    }
+
+    @Test
+    public void serialization() throws IOException, ClassNotFoundException {
+        CsrGraph<Character> csr = sample().freeze();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(csr);
+        }
+        try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @SuppressWarnings("unchecked")
+            CsrGraph<Character> copy = (CsrGraph<Character>) in.readObject();
+            assertEquals(csr.dijkstra('s'), copy.dijkstra('s'));
+            assertEquals(csr.sources('b'), copy.sources('b'));
+        }
+    }
+
+    @Test
+    public void shortestPath() {
+        AdjListGraph<Integer> graph = random(300, 1200, 7);
+        CsrGraph<Integer> csr = graph.freeze();
+        for(int src = 0; src < 300; src += 31) {
+            for(int dst = 0; dst < 300; dst += 17) {
+                Path<Integer> expected = graph.shortestPath(src, dst);
+                Path<Integer> path = csr.shortestPath(src, dst);
+                Path<Integer> bidirectional = csr.bidirectionalShortestPath(src, dst);
+                if(expected == null) {
+                    assertNull(path);
+                    assertNull(bidirectional);
+                    continue;
+                }
+                assertEquals(expected.cost(), path.cost(), 0);
+                assertEquals(expected.cost(), bidirectional.cost(), 0);
+                assertEquals(dst, (int) bidirectional.target());
+                assertEquals(src, (int) bidirectional.source());
+                assertEquals(expected.cost(), csr.aStar(src, dst, Heuristics.zero()).cost(), 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for DeltaStepping.
+ */
+public class DeltaSteppingTest {
+
+    // Testing strategy
+
+    // delta:    smaller than every weight, average weight, larger than every path, invalid
+    // graph:    absent source, unreachable vertices, zero weight edges, large frontiers
+    // pool:     common pool, dedicated pool with several workers
+
+    @Test
+    public void absentSource() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(10, 20, 1);
+        assertEquals(Collections.emptyMap(), graph.deltaStepping(42, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDelta() {
+        CsrGraphTest.random(10, 20, 1).deltaStepping(0, 0);
+    }
+
+    @Test
+    public void zeroWeights() {
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        graph.set('a', 'b', 0);
+        graph.set('b', 'c', 0);
+        graph.set('c', 'a', 0);
+        graph.set('c', 'd', 3);
+        graph.add('e');
+        assertEquals(graph.dijkstra('a'), graph.deltaStepping('a', 1));
+    }
+
+    @Test
+    public void sameAsDijkstra() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(2000, 10000, 5);
+        for(double delta : new double[]{0.5, 50, 1e9}) {
+            for(int src = 0; src < 2000; src += 401)
+                assertEquals(graph.dijkstra(src), graph.deltaStepping(src, delta));
+        }
+    }
+
+    @Test
+    public void dedicatedPool() {
+        CsrGraph<Integer> graph = LandmarkIndexTest.grid(100, 9).freeze();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // wide frontiers so that relaxations are split in several tasks
+            double[] distances = DeltaStepping.run(graph, 0, 100, pool);
+            DijkstraEngine engine = DijkstraEngine.local(graph.vertexCount());
+            engine.run(graph, 0);
+            for(int v = 0; v < graph.vertexCount(); v++)
+                assertEquals(engine.distance(v), distances[v], 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
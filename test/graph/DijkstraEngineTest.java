@@ -0,0 +1,59 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+/**
+ * Tests for DijkstraEngine.
+ */
+public class DijkstraEngineTest {
+
+    // Testing strategy
+
+    // run:     whole graph, stop at target, unreachable target
+    // reuse:   same engine on several graphs of increasing size
+    // parent:  source, reached, not reached
+
+    @Test
+    public void reuseAcrossGraphs() {
+        DijkstraEngine engine = new DijkstraEngine(0);
+        for(int size = 10; size <= 1000; size *= 10) {
+            AdjListGraph<Integer> graph = CsrGraphTest.random(size, size * 5, size);
+            CsrGraph<Integer> csr = graph.freeze();
+            for(int src = 0; src < size; src += size / 10) {
+                Map<Integer, Double> expected = graph.dijkstra(src);
+
+                engine.run(csr, csr.index().id(src));
+                assertEquals(expected.size(), engine.reachedCount());
+                for(Map.Entry<Integer, Double> e : expected.entrySet())
+                    assertEquals(e.getValue(), engine.distance(csr.index().id(e.getKey())), 0);
+            }
+        }
+    }
+
+    @Test
+    public void stopAtTarget() {
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        graph.set('a', 'b', 1);
+        graph.set('b', 'c', 1);
+        graph.set('c', 'd', 1);
+        graph.add('e');
+        CsrGraph<Character> csr = graph.freeze();
+        VertexIndex<Character> index = csr.index();
+
+        DijkstraEngine engine = new DijkstraEngine(csr.vertexCount());
+        assertTrue(engine.run(csr, index.id('a'), index.id('b')));
+        assertEquals(1.0, engine.distance(index.id('b')), 0);
+        assertEquals(2, engine.settledCount());
+        assertFalse(engine.settled(index.id('c')));
+        assertEquals(Double.POSITIVE_INFINITY, engine.distance(index.id('d')), 0);
+
+        assertFalse(engine.run(csr, index.id('a'), index.id('e')));
+        assertEquals(index.id('c'), engine.parent(index.id('d')));
+        assertEquals(-1, engine.parent(index.id('a')));
+        assertEquals(-1, engine.parent(index.id('e')));
+    }
+}
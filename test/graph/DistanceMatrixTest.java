@@ -0,0 +1,85 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for DistanceMatrix.
+ */
+public class DistanceMatrixTest {
+
+    // Testing strategy
+
+    // sources, targets: empty, duplicates, absent vertex, unreachable target
+    // pool:             common pool, dedicated pool with several workers
+    // result:           same costs as dijkstra from each source
+
+    private static void assertSameAsDijkstra(Graph<Integer> graph, List<Integer> sources, List<Integer> targets, double[][] matrix) {
+        assertEquals(sources.size(), matrix.length);
+        for(int i = 0; i < sources.size(); i++) {
+            Map<Integer, Double> costs = graph.dijkstra(sources.get(i));
+            assertEquals(targets.size(), matrix[i].length);
+            for(int j = 0; j < targets.size(); j++) {
+                Double cost = costs.get(targets.get(j));
+                assertEquals(cost == null ? Double.POSITIVE_INFINITY : cost, matrix[i][j], 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void empty() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(10, 30, 1);
+        assertEquals(0, graph.distanceMatrix(Collections.emptyList(), Arrays.asList(1, 2)).length);
+        double[][] matrix = graph.distanceMatrix(Arrays.asList(1, 2), Collections.emptyList());
+        assertEquals(2, matrix.length);
+        assertEquals(0, matrix[0].length);
+    }
+
+    @Test
+    public void absentAndUnreachable() {
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        graph.set('a', 'b', 2);
+        graph.set('b', 'c', 3);
+        graph.add('d');
+
+        double[][] matrix = graph.distanceMatrix(Arrays.asList('a', 'z', 'c'), Arrays.asList('c', 'a', 'd', 'z', 'c'));
+        double inf = Double.POSITIVE_INFINITY;
+        assertArrayEquals(new double[]{5, 0, inf, inf, 5}, matrix[0], 0);
+        assertArrayEquals(new double[]{inf, inf, inf, inf, inf}, matrix[1], 0);
+        assertArrayEquals(new double[]{0, inf, inf, inf, 0}, matrix[2], 0);
+    }
+
+    @Test
+    public void random() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(300, 1500, 7);
+        List<Integer> sources = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        for(int v = 0; v < 300; v += 7)
+            sources.add(v);
+        for(int v = 299; v >= 0; v -= 11)
+            targets.add(v);
+
+        assertSameAsDijkstra(graph, sources, targets, graph.distanceMatrix(sources, targets));
+    }
+
+    @Test
+    public void dedicatedPool() {
+        AdjListGraph<Integer> graph = LandmarkIndexTest.grid(20, 3);
+        List<Integer> vertices = new ArrayList<>(graph.vertices());
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            double[][] matrix = DistanceMatrix.compute(graph.freeze(), vertices, vertices, pool);
+            assertSameAsDijkstra(graph, vertices, vertices, matrix);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package graph;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Tests for EdgeListImporter.
+ */
+public class EdgeListImporterTest {
+
+    // Testing strategy
+
+    // format:   SNAP (comments, tabs, optional weights), DIMACS (problem and
+    //           comment lines), CSV (header, spaces, string labels, empty weight)
+    // input:    empty, CRLF line ends, no final line end, lines across reads,
+    //           gzip file, plain file
+    // errors:   missing vertex, bad weight, extra column, unknown DIMACS line,
+    //           line longer than the buffer
+    // numbers:  integers, decimals, exponents, signs, long mantissas
+    // progress: called after every chunk, counters
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static <L> CsrGraph<L> read(EdgeListImporter<L> importer, String text) throws IOException {
+        return importer.read(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))).buildCsrGraph();
+    }
+
+    @Test
+    public void snap() throws IOException {
+        CsrGraph<Integer> graph = read(EdgeListImporter.snap(),
+                "# Directed graph\n# FromNodeId\tToNodeId\n0\t1\n1 2 2.5\r\n\n2\t0\n-3 0 1e2");
+        assertEquals(4, graph.vertexCount());
+        assertEquals(1.0, graph.targets(0).get(1), 0);
+        assertEquals(2.5, graph.targets(1).get(2), 0);
+        assertEquals(100.0, graph.targets(-3).get(0), 0);
+        assertEquals(3.5, graph.dijkstra(0).get(2), 0);
+    }
+
+    @Test
+    public void dimacs() throws IOException {
+        CsrGraph<Integer> graph = read(EdgeListImporter.dimacs(),
+                "c 9th DIMACS challenge\np sp 3 3\na 1 2 7\na 2 3 1\nc done\na 1 3 10\n");
+        assertEquals(3, graph.vertexCount());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(8.0, graph.dijkstra(1).get(3), 0);
+    }
+
+    @Test
+    public void csv() throws IOException {
+        CsrGraph<String> graph = read(EdgeListImporter.csv(true),
+                "source,target,weight\nparis, lyon ,4.5\nlyon,caf\u00e9,\nparis,caf\u00e9,-0.25\n");
+        assertEquals(3, graph.vertexCount());
+        assertEquals(4.5, graph.targets("paris").get("lyon"), 0);
+        assertEquals(1.0, graph.targets("lyon").get("caf\u00e9"), 0);
+        assertEquals(-0.25, graph.targets("paris").get("caf\u00e9"), 0);
+
+        assertEquals(0, read(EdgeListImporter.csv(true), "").vertexCount());
+        assertEquals(2, read(EdgeListImporter.csv(false), "a,b").vertexCount());
+    }
+
+    @Test
+    public void errors() {
+        assertFails(EdgeListImporter.snap(), "0 1\n0\n", "Line 2: expected a vertex");
+        assertFails(EdgeListImporter.snap(), "0 x\n", "Line 1: invalid vertex x");
+        assertFails(EdgeListImporter.snap(), "0 99999999999\n", "invalid vertex");
+        assertFails(EdgeListImporter.snap(), "0 1 abc\n", "Line 1: invalid weight abc");
+        assertFails(EdgeListImporter.snap(), "0 1 2 3\n", "Line 1: unexpected 3");
+        assertFails(EdgeListImporter.dimacs(), "p sp 2 1\ne 1 2\n", "Line 2: expected an arc line");
+        assertFails(EdgeListImporter.dimacs(), "a 1 2\n", "Line 1: expected a weight");
+        assertFails(EdgeListImporter.csv(false), "a,,1\n", "Line 1: expected a vertex");
+
+        char[] line = new char[70000];
+        Arrays.fill(line, '1');
+        assertFails(EdgeListImporter.snap(), "0 1\n" + new String(line), "Line 2 is longer than");
+    }
+
+    private static void assertFails(EdgeListImporter<?> importer, String text, String message) {
+        try {
+            read(importer, text);
+            fail("expected IOException");
+        } catch(IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void numbers() {
+        String[] numbers = {"0", "-0", "+7", "12.", ".5", "3.25", "1e3", "1E-3", "-2.5e+2",
+                "123456789012345678901234", "0.1234567890123456789", "1e400", "4.9e-324"};
+        for(String number : numbers) {
+            byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(number, Double.parseDouble(number),
+                    EdgeListImporter.parseDouble(bytes, 0, bytes.length), 0);
+        }
+        for(String invalid : new String[]{"", "-", ".", "1e", "1x", "--1"}) {
+            byte[] bytes = invalid.getBytes(StandardCharsets.US_ASCII);
+            assertTrue(invalid, Double.isNaN(EdgeListImporter.parseDouble(bytes, 0, bytes.length)));
+        }
+    }
+
+    /**
+     * Write a random SNAP file larger than the read buffer and return the graph
+     * it describes.
+     */
+    private static AdjListGraph<Integer> writeRandom(OutputStream out) throws IOException {
+        Random random = new Random(18);
+        AdjListGraph<Integer> expected = new AdjListGraph<>();
+        try(Writer writer = new OutputStreamWriter(out, StandardCharsets.US_ASCII)) {
+            writer.write("# random graph\n");
+            for(int i = 0; i < 20000; i++) {
+                int source = random.nextInt(3000);
+                int target = random.nextInt(3000);
+                int weight = random.nextInt(1000);
+                expected.set(source, target, weight / 8.0);
+                writer.write(source + "\t" + target + "\t" + weight / 8.0 + "\n");
+            }
+        }
+        return expected;
+    }
+
+    @Test
+    public void files() throws IOException {
+        File plain = folder.newFile("graph.txt");
+        AdjListGraph<Integer> expected;
+        try(OutputStream out = new FileOutputStream(plain)) {
+            expected = writeRandom(out);
+        }
+        File gzip = folder.newFile("graph.txt.gz");
+        try(OutputStream out = new GZIPOutputStream(new FileOutputStream(gzip))) {
+            writeRandom(out);
+        }
+        assertTrue(gzip.length() < plain.length());
+
+        List<Long> progress = new ArrayList<>();
+        EdgeListImporter<Integer> importer = EdgeListImporter.snap()
+                .chunkSize(5000)
+                .onProgress(i -> progress.add(i.edgesRead()));
+
+        GraphBuilderTest.assertSameGraph(expected, importer.read(plain).buildCsrGraph());
+        assertEquals(plain.length(), importer.bytesRead());
+        assertEquals(20001, importer.linesRead());
+        assertEquals(20000, importer.edgesRead());
+        assertTrue(importer.elapsedNanos() > 0);
+        assertTrue(importer.edgesPerSecond() > 0);
+        // four full chunks, then the end of the input
+        assertEquals(Arrays.asList(5000L, 10000L, 15000L, 20000L, 20000L), progress);
+
+        GraphBuilderTest.assertSameGraph(expected, importer.read(gzip).buildCsrGraph());
+        assertEquals(plain.length(), importer.bytesRead());
+    }
+}
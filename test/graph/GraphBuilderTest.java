@@ -0,0 +1,153 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Tests for GraphBuilder and the copy constructor of AdjListGraph.
+ */
+public class GraphBuilderTest {
+
+    // Testing strategy
+
+    // input:   single edges, id arrays, streams, isolated vertices, invalid arrays
+    // edges:   duplicates (last weight kept), loops, rows large enough to be split
+    // build:   CsrGraph and AdjListGraph, same as repeated set(), builder reused
+    //          after a build, empty builder
+
+    /**
+     * Assert that graph has exactly the vertices and edges of expected.
+     */
+    static <L> void assertSameGraph(Graph<L> expected, Graph<L> graph) {
+        assertEquals(expected.vertices(), graph.vertices());
+        for(L vertex : expected.vertices()) {
+            assertEquals(expected.targets(vertex), graph.targets(vertex));
+            Map<L, Double> in = expected.sources(vertex);
+            Map<L, Double> actual = graph.sources(vertex);
+            assertEquals(in == null ? Collections.emptyMap() : in, actual == null ? Collections.emptyMap() : actual);
+        }
+    }
+
+    @Test
+    public void empty() {
+        GraphBuilder<String> builder = new GraphBuilder<>();
+        assertEquals(0, builder.buildCsrGraph().vertexCount());
+        assertEquals(Collections.emptySet(), builder.buildAdjListGraph().vertices());
+    }
+
+    @Test
+    public void duplicates() {
+        GraphBuilder<String> builder = new GraphBuilder<>();
+        builder.addVertex("alone");
+        builder.addEdge("a", "b", 1);
+        builder.addEdge("a", "a", 2);
+        builder.addEdge("a", "b", 3);
+        builder.addEdges(Stream.of(new Edge<>("b", "a", 4), new Edge<>("a", "a", 5)));
+        assertEquals(5, builder.edgeCount());
+
+        CsrGraph<String> graph = builder.buildCsrGraph();
+        assertEquals(3, graph.vertexCount());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(3.0, graph.targets("a").get("b"), 0);
+        assertEquals(5.0, graph.targets("a").get("a"), 0);
+        assertEquals(4.0, graph.sources("a").get("b"), 0);
+        assertTrue(graph.targets("alone").isEmpty());
+
+        AdjListGraph<String> expected = new AdjListGraph<>();
+        expected.add("alone");
+        expected.set("a", "b", 3);
+        expected.set("a", "a", 5);
+        expected.set("b", "a", 4);
+        assertSameGraph(expected, graph);
+        assertSameGraph(expected, builder.buildAdjListGraph());
+    }
+
+    @Test
+    public void idArrays() {
+        GraphBuilder<Character> builder = new GraphBuilder<>(3, 4);
+        int a = builder.addVertex('a');
+        int b = builder.addVertex('b');
+        int c = builder.addVertex('c');
+        assertEquals(a, builder.addVertex('a'));
+        builder.addEdges(new int[]{a, b, a}, new int[]{b, c, c}, new double[]{1, 2, 5});
+
+        CsrGraph<Character> graph = builder.buildCsrGraph();
+        assertEquals(b, graph.index().id('b'));
+        assertEquals(3.0, graph.dijkstra('a').get('c'), 0);
+
+        // the builder keeps growing, the first graph does not change
+        builder.addEdge('c', 'd', 1);
+        assertEquals(3, graph.vertexCount());
+        assertEquals(4, builder.buildCsrGraph().vertexCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differentLengths() {
+        GraphBuilder<Character> builder = new GraphBuilder<>();
+        builder.addVertex('a');
+        builder.addEdges(new int[]{0}, new int[]{0, 0}, new double[]{1});
+    }
+
+    @Test
+    public void unknownId() {
+        GraphBuilder<Character> builder = new GraphBuilder<>();
+        builder.addVertex('a');
+        try {
+            builder.addEdges(new int[]{0, 0}, new int[]{0, 1}, new double[]{1, 1});
+            fail("expected IllegalArgumentException");
+        } catch(IllegalArgumentException e) {
+            assertEquals(0, builder.edgeCount());
+        }
+    }
+
+    @Test
+    public void random() {
+        Random random = new Random(16);
+        int n = 3000;
+        AdjListGraph<Integer> expected = new AdjListGraph<>();
+        GraphBuilder<Integer> builder = new GraphBuilder<>();
+        for(int i = 0; i < 200000; i++) {
+            // a few hubs with long rows full of duplicates
+            int source = i % 3 == 0 ? random.nextInt(4) : random.nextInt(n);
+            int target = random.nextInt(n);
+            double weight = random.nextInt(100);
+            expected.set(source, target, weight);
+            builder.addEdge(source, target, weight);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CsrGraph<Integer> graph = builder.buildCsrGraph(pool);
+            assertSameGraph(expected, graph);
+            assertSameGraph(expected, builder.buildAdjListGraph(pool));
+
+            // out edges sorted by target id
+            for(int v = 0; v < graph.vertexCount(); v++) {
+                for(int e = graph.begin(v) + 1; e < graph.end(v); e++)
+                    assertTrue(graph.target(e - 1) < graph.target(e));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void copyConstructor() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(500, 2000, 16);
+        AdjListGraph<Integer> copy = new AdjListGraph<>(graph.freeze());
+        assertSameGraph(graph, copy);
+
+        // the copy is independent
+        copy.set(0, 1, 1000);
+        copy.removeAll(Arrays.asList(2, 3));
+        assertTrue(graph.vertices().contains(2));
+    }
+}
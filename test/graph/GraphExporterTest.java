@@ -0,0 +1,118 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for GraphExporter.
+ */
+public class GraphExporterTest {
+
+    // Testing strategy
+
+    // format: DOT, GraphML, JSON
+    // graph:  empty, isolated vertex, loop, labels needing escapes (quotes,
+    //         backslash, markup, new line, control characters, non ASCII,
+    //         non characters, surrogate pairs and unpaired surrogates),
+    //         non finite weight, large graph
+    // stream: flushed and left open
+
+    private static String write(GraphExporter exporter, Graph<?> graph) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.write(graph, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void empty() throws IOException {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        assertEquals("digraph {\n}\n", write(GraphExporter.dot(), graph));
+        assertEquals("{\"directed\":true,\"nodes\":[],\"edges\":[]}\n", write(GraphExporter.json(), graph));
+        assertTrue(write(GraphExporter.graphml(), graph).endsWith("edgedefault=\"directed\">\n  </graph>\n</graphml>\n"));
+    }
+
+    @Test
+    public void dot() throws IOException {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        graph.set("a", "a", 2.5);
+        assertEquals("digraph {\n"
+                + "  \"a\";\n"
+                + "  \"a\" -> \"a\" [label=\"2.5\"];\n"
+                + "}\n", write(GraphExporter.dot(), graph));
+
+        graph.add("say \"hi\"\\\n");
+        assertTrue(write(GraphExporter.dot(), graph).contains("  \"say \\\"hi\\\"\\\\\\n\";\n"));
+    }
+
+    @Test
+    public void graphml() throws IOException {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        graph.set("<a&b>", "caf\u00e9", 1);
+        String text = write(GraphExporter.graphml(), graph);
+        assertTrue(text, text.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<graphml"));
+        assertTrue(text, text.contains("<node id=\"&lt;a&amp;b&gt;\"/>"));
+        assertTrue(text, text.contains("<node id=\"caf\u00e9\"/>"));
+        assertTrue(text, text.contains(
+                "<edge source=\"&lt;a&amp;b&gt;\" target=\"caf\u00e9\"><data key=\"weight\">1.0</data></edge>"));
+
+        // tab, line feed and carriage return are kept, other controls replaced
+        graph.add("a\tb\nc\rd\u0001e");
+        text = write(GraphExporter.graphml(), graph);
+        assertTrue(text, text.contains("<node id=\"a&#9;b&#10;c&#13;d\ufffde\"/>"));
+        assertFalse(text, text.contains("&#1;"));
+
+        // U+FFFE, U+FFFF and unpaired surrogates replaced, pairs kept
+        graph.add("f\ufffeg\uffffh\ud800i\udc00j\ud83d\ude00k\ud800");
+        text = write(GraphExporter.graphml(), graph);
+        assertTrue(text, text.contains("<node id=\"f\ufffdg\ufffdh\ufffdi\ufffdj\ud83d\ude00k\ufffd\"/>"));
+    }
+
+    @Test
+    public void json() throws IOException {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        graph.set("a", "b\t\"", Double.POSITIVE_INFINITY);
+        String text = write(GraphExporter.json(), graph);
+        assertTrue(text, text.contains("{\"id\":\"b\\u0009\\\"\"}"));
+        assertTrue(text, text.contains("{\"source\":\"a\",\"target\":\"b\\u0009\\\"\",\"weight\":\"Infinity\"}"));
+
+        graph.set("a", "b\t\"", -0.5);
+        assertTrue(write(GraphExporter.json(), graph).contains("\"weight\":-0.5}"));
+    }
+
+    @Test
+    public void large() throws IOException {
+        CsrGraph<Integer> graph = CsrGraphTest.random(20000, 100000, 20).freeze();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        boolean[] closed = {false};
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bytes.write(b, off, len);
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        GraphExporter.dot().write(graph, out);
+        assertFalse(closed[0]);
+
+        String text = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        int arrows = 0;
+        for(int i = text.indexOf(" -> "); i >= 0; i = text.indexOf(" -> ", i + 1))
+            arrows++;
+        assertEquals(graph.edgeCount(), arrows);
+    }
+}
@@ -5,9 +5,13 @@ import org.junit.Test;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 /**
  * Tests for instance methods of Graph.
@@ -48,6 +52,22 @@ public abstract class GraphInstanceTest {
     //              multiple present
     //              loop
     //              verify directed
+
+    // shortestPath, bidirectionalShortestPath:
+    //              src = dst, settling no vertex in bidirectional search
+    //              dst not reachable, not present
+    //              cost and vertices equal to dijkstra
+
+    // aStar:       zero heuristic, euclidean heuristic on a grid
+    //              settles fewer vertices than shortestPath
+
+    // ContractionHierarchy: same costs as dijkstra
+
+    // dfs, bfs:    whole graph with several components, from a vertex
+    //              vertex reached by several paths is visited once
+
+    // setAll, removeAll: same graph as one call per edge or vertex, edges between
+    //              removed vertices, loops, absent vertices, empty batch
         
     
     
@@ -216,6 +236,16 @@ public abstract class GraphInstanceTest {
          assertTrue("expect removed", graph.vertices().size() == 3);
      }
 
+     @Test
+     public void removeUpdatesSources() {
+         Graph<String> graph = emptyInstance();
+         graph.set("a", "b", 1);
+         graph.set("b", "c", 2);
+         assertTrue("expect removed", graph.remove("b"));
+         assertFalse("expect a not source of c", graph.sources("c") != null && graph.sources("c").containsKey("b"));
+         assertTrue("expect no edge from a", graph.targets("a").isEmpty());
+     }
+
     private StringBuilder lambda_result;
 
     @Test
@@ -243,6 +273,48 @@ public abstract class GraphInstanceTest {
         assertTrue(lambda_result.toString().equals("abdce"));
     }
 
+    @Test
+    public void walkWholeGraph() {
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        graph.set('a', 'b', 3);
+        graph.set('b', 'c', 5);
+        graph.set('a', 'c', 1);
+        graph.set('c', 'a', 1);
+        graph.set('d', 'e', 4);
+        graph.add('f');
+
+        List<Character> visited = new ArrayList<>();
+        graph.dfs(visited::add);
+        assertEquals(graph.vertices(), new HashSet<>(visited));
+        assertEquals(graph.vertices().size(), visited.size());
+
+        visited.clear();
+        graph.bfs(visited::add);
+        assertEquals(graph.vertices(), new HashSet<>(visited));
+        assertEquals(graph.vertices().size(), visited.size());
+    }
+
+    @Test
+    public void walkVisitsOnce() {
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        graph.set('a', 'b', 1);
+        graph.set('a', 'c', 1);
+        graph.set('b', 'd', 1);
+        graph.set('c', 'd', 1);
+        graph.set('d', 'a', 1);
+
+        lambda_result = new StringBuilder();
+        graph.dfs('a', n -> lambda_result.append(n));
+        assertEquals(4, lambda_result.length());
+        assertTrue(lambda_result.toString().equals("abdc")
+                || lambda_result.toString().equals("acdb"));
+
+        lambda_result = new StringBuilder();
+        graph.bfs('a', n -> lambda_result.append(n));
+        assertEquals(4, lambda_result.length());
+        assertEquals('d', lambda_result.charAt(3));
+    }
+
     @Test
     public void minimumSpanningTree() {
         AdjListGraph<Integer> graph = new AdjListGraph<>();
@@ -277,5 +349,180 @@ public abstract class GraphInstanceTest {
 
 
     }
-    
+
+    private Graph<Character> dijkstraGraph() {
+        Graph<Character> graph = emptyInstance();
+        graph.set('s', 'a', 10);
+        graph.set('s', 'c', 5);
+        graph.set('c', 'a', 3);
+        graph.set('a', 'c', 2);
+        graph.set('a', 'b', 1);
+        graph.set('c', 'b', 9);
+        graph.set('c', 'd', 2);
+        graph.set('b', 'd', 4);
+        graph.set('d', 'b', 6);
+        graph.add('z');
+        return graph;
+    }
+
+    /**
+     * Check that path is made of edges of graph and that cost is their sum
+     */
+    private static <L> void assertValidPath(Graph<L> graph, Path<L> path, L src, L dst, double cost) {
+        List<L> vertices = path.vertices();
+        assertEquals(src, path.source());
+        assertEquals(dst, path.target());
+        assertEquals(cost, path.cost(), 1e-9);
+        double sum = 0;
+        for(int i = 1; i < vertices.size(); i++)
+            sum += graph.targets(vertices.get(i - 1)).get(vertices.get(i));
+        assertEquals(cost, sum, 1e-9);
+    }
+
+    @Test
+    public void shortestPath() {
+        Graph<Character> graph = dijkstraGraph();
+        Path<Character> path = graph.shortestPath('s', 'b');
+        assertEquals(Arrays.asList('s', 'c', 'a', 'b'), path.vertices());
+        assertValidPath(graph, path, 's', 'b', 9);
+        assertEquals(5, path.settled());
+
+        path = graph.shortestPath('s', 'a');
+        assertValidPath(graph, path, 's', 'a', 8);
+        assertEquals("expected search to stop at a", 4, path.settled());
+
+        assertEquals(Collections.singletonList('a'), graph.shortestPath('a', 'a').vertices());
+        assertNull(graph.shortestPath('s', 'z'));
+        assertNull(graph.shortestPath('s', 'y'));
+    }
+
+    @Test
+    public void bidirectionalShortestPath() {
+        Graph<Character> graph = dijkstraGraph();
+        Path<Character> path = graph.bidirectionalShortestPath('s', 'b');
+        assertEquals(Arrays.asList('s', 'c', 'a', 'b'), path.vertices());
+        assertValidPath(graph, path, 's', 'b', 9);
+
+        Path<Character> same = graph.bidirectionalShortestPath('d', 'd');
+        assertEquals(Arrays.asList('d'), same.vertices());
+        assertEquals(0, same.cost(), 0);
+        assertEquals(0, same.settled());
+        assertNull(graph.bidirectionalShortestPath('s', 'z'));
+        assertNull(graph.bidirectionalShortestPath('y', 's'));
+    }
+
+    @Test
+    public void shortestPathRandom() {
+        Graph<Integer> graph = emptyInstance();
+        Random random = new Random(3);
+        for(int i = 0; i < 600; i++)
+            graph.set(random.nextInt(150), random.nextInt(150), random.nextInt(50));
+        graph.remove(7);
+
+        for(Integer src : graph.vertices()) {
+            if(src % 13 != 0)
+                continue;
+            Map<Integer, Double> costs = graph.dijkstra(src);
+            for(Integer dst : graph.vertices()) {
+                Double cost = costs.get(dst);
+                Path<Integer> path = graph.shortestPath(src, dst);
+                Path<Integer> bidirectional = graph.bidirectionalShortestPath(src, dst);
+                if(cost == null) {
+                    assertNull(path);
+                    assertNull(bidirectional);
+                } else {
+                    assertValidPath(graph, path, src, dst, cost);
+                    assertValidPath(graph, bidirectional, src, dst, cost);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void aStarGrid() {
+        // 30x30 grid, vertex x * 100 + y, weights at least the euclidean distance
+        Graph<Integer> graph = emptyInstance();
+        Random random = new Random(5);
+        for(int x = 0; x < 30; x++) {
+            for(int y = 0; y < 30; y++) {
+                int v = x * 100 + y;
+                if(x + 1 < 30) {
+                    graph.set(v, v + 100, 1 + random.nextInt(3));
+                    graph.set(v + 100, v, 1 + random.nextInt(3));
+                }
+                if(y + 1 < 30) {
+                    graph.set(v, v + 1, 1 + random.nextInt(3));
+                    graph.set(v + 1, v, 1 + random.nextInt(3));
+                }
+            }
+        }
+
+        int src = 5 * 100 + 3;
+        int dst = 20 * 100 + 17;
+        Path<Integer> dijkstra = graph.shortestPath(src, dst);
+        Path<Integer> zero = graph.aStar(src, dst, Heuristics.zero());
+        Path<Integer> euclidean = graph.aStar(src, dst, Heuristics.euclidean(dst, v -> v / 100, v -> v % 100));
+
+        assertValidPath(graph, zero, src, dst, graph.dijkstra(src).get(dst));
+        assertValidPath(graph, euclidean, src, dst, dijkstra.cost());
+        assertEquals(dijkstra.settled(), zero.settled());
+        assertTrue("expected A* to settle fewer vertices", euclidean.settled() < dijkstra.settled());
+        assertNull(graph.aStar(src, -1, Heuristics.zero()));
+    }
+
+    @Test
+    public void contractionHierarchy() {
+        Graph<Character> graph = dijkstraGraph();
+        ContractionHierarchy<Character> hierarchy = ContractionHierarchy.build(graph);
+        for(Character src : graph.vertices()) {
+            Map<Character, Double> costs = graph.dijkstra(src);
+            for(Character dst : graph.vertices()) {
+                Double cost = costs.get(dst);
+                assertEquals(cost == null ? Double.POSITIVE_INFINITY : cost, hierarchy.distance(src, dst), 0);
+                if(cost != null)
+                    assertValidPath(graph, hierarchy.shortestPath(src, dst), src, dst, cost);
+            }
+        }
+    }
+
+    @Test
+    public void setAll() {
+        Graph<Integer> graph = emptyInstance();
+        Graph<Integer> expected = emptyInstance();
+        Random random = new Random(16);
+        List<Edge<Integer>> edges = new ArrayList<>();
+        for(int i = 0; i < 500; i++) {
+            // runs of edges with the same source, duplicates and loops
+            Edge<Integer> edge = new Edge<>(i / 5 % 40, random.nextInt(40), random.nextInt(10));
+            edges.add(edge);
+            expected.set(edge.source(), edge.target(), edge.weight());
+        }
+        graph.setAll(edges);
+        GraphBuilderTest.assertSameGraph(expected, graph);
+
+        graph.setAll(Collections.emptyList());
+        GraphBuilderTest.assertSameGraph(expected, graph);
+    }
+
+    @Test
+    public void removeAll() {
+        Graph<Integer> graph = emptyInstance();
+        Graph<Integer> expected = emptyInstance();
+        Random random = new Random(16);
+        for(int i = 0; i < 300; i++) {
+            int source = random.nextInt(50);
+            int target = random.nextInt(50);
+            graph.set(source, target, 1);
+            expected.set(source, target, 1);
+        }
+
+        List<Integer> removed = Arrays.asList(3, 7, 8, 9, 12, 20, 21, 49, 100);
+        for(Integer vertex : removed)
+            expected.remove(vertex);
+        assertTrue(graph.removeAll(removed));
+        GraphBuilderTest.assertSameGraph(expected, graph);
+
+        assertFalse(graph.removeAll(Arrays.asList(3, 100)));
+        assertFalse(graph.removeAll(Collections.emptyList()));
+    }
 }
@@ -0,0 +1,116 @@
+package graph;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for GraphRenderer.
+ */
+public class GraphRendererTest {
+
+    // Testing strategy
+
+    // neighbourhood: 0, 1, 2 hops, edges in both directions, absent vertex
+    // sample:        smaller than the graph, larger, same seed, induced edges
+    // render:        PNG to file, SVG to stream, asynchronous, over the limit
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * a -> b -> c -> d, e -> a
+     */
+    private static AdjListGraph<String> chain() {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 2);
+        graph.set("c", "d", 3);
+        graph.set("e", "a", 4);
+        return graph;
+    }
+
+    @Test
+    public void neighbourhood() {
+        AdjListGraph<String> graph = chain();
+        assertEquals(new HashSet<>(Arrays.asList("a")), GraphRenderer.neighbourhood(graph, "a", 0).vertices());
+
+        AdjListGraph<String> one = GraphRenderer.neighbourhood(graph, "a", 1);
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "e")), one.vertices());
+        assertEquals(4.0, one.targets("e").get("a"), 0);
+        assertTrue(one.targets("b").isEmpty());
+
+        AdjListGraph<String> two = GraphRenderer.neighbourhood(graph, "a", 2);
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c", "e")), two.vertices());
+        assertEquals(2.0, two.targets("b").get("c"), 0);
+
+        assertTrue(GraphRenderer.neighbourhood(graph, "z", 3).vertices().isEmpty());
+    }
+
+    @Test
+    public void sample() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(1000, 20000, 21);
+        AdjListGraph<Integer> sample = GraphRenderer.sample(graph, 50, 7);
+        assertEquals(50, sample.vertices().size());
+        assertEquals(sample.vertices(), GraphRenderer.sample(graph, 50, 7).vertices());
+        for(Integer source : sample.vertices()) {
+            for(Integer target : graph.targets(source).keySet()) {
+                if(sample.vertices().contains(target))
+                    assertEquals(graph.targets(source).get(target), sample.targets(source).get(target));
+            }
+            assertTrue(sample.vertices().containsAll(sample.targets(source).keySet()));
+        }
+
+        AdjListGraph<String> small = chain();
+        AdjListGraph<String> all = GraphRenderer.sample(small, 10, 1);
+        assertEquals(small.vertices(), all.vertices());
+        assertEquals(small.targets("c"), all.targets("c"));
+    }
+
+    @Test
+    public void render() throws Exception {
+        AdjListGraph<String> graph = chain();
+        File png = new File(folder.getRoot(), "chain");
+        GraphRenderer.png().width(200).render(graph, png);
+        assertTrue(new File(folder.getRoot(), "chain.png").length() > 0);
+
+        ByteArrayOutputStream svg = new ByteArrayOutputStream();
+        GraphRenderer.svg().render(GraphRenderer.neighbourhood(graph, "d", 1), svg);
+        String text = new String(svg.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(text.contains("<svg"));
+        assertTrue(text.contains(">d<"));
+        assertFalse(text.contains(">a<"));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            File async = folder.newFile("async.png");
+            GraphRenderer.png().renderAsync(graph, async, executor).get(60, TimeUnit.SECONDS);
+            assertTrue(async.length() > 0);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void limit() throws IOException {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(20, 10, 22);
+        try {
+            GraphRenderer.png().maxVertices(10).render(graph, folder.newFile("large.png"));
+            fail("expected IllegalArgumentException");
+        } catch(IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("20 vertices"));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Tests for Heuristics.
+ */
+public class HeuristicsTest {
+
+    // Testing strategy
+
+    // euclidean:   target, other vertex, scale
+    // haversine:   target, known city distance, antipodes
+
+    @Test
+    public void euclidean() {
+        ToDoubleFunction<double[]> h = Heuristics.euclidean(new double[] {1, 1}, p -> p[0], p -> p[1]);
+        assertEquals(0, h.applyAsDouble(new double[] {1, 1}), 0);
+        assertEquals(5, h.applyAsDouble(new double[] {4, 5}), 1e-12);
+
+        h = Heuristics.euclidean(new double[] {1, 1}, p -> p[0], p -> p[1], 0.5);
+        assertEquals(2.5, h.applyAsDouble(new double[] {-2, -3}), 1e-12);
+    }
+
+    @Test
+    public void haversine() {
+        double[] paris = {48.8566, 2.3522};
+        double[] london = {51.5074, -0.1278};
+        ToDoubleFunction<double[]> h = Heuristics.haversine(paris, p -> p[0], p -> p[1]);
+        assertEquals(0, h.applyAsDouble(paris), 0);
+        assertEquals(343_560, h.applyAsDouble(london), 500);
+        assertEquals(Math.PI * Heuristics.EARTH_RADIUS,
+                Heuristics.haversine(new double[] {0, 0}, p -> p[0], p -> p[1]).applyAsDouble(new double[] {0, 180}), 1e-6);
+    }
+}
@@ -0,0 +1,101 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+/**
+ * Tests for IndexedDHeap.
+ */
+public class IndexedDHeapTest {
+
+    // Testing strategy
+
+    // arity:       2, 4, 7
+    // operations:  insert, decreaseKey lower / not lower, pop, clear
+    // capacity:    grown with ensureCapacity
+
+    private static void randomOperations(int arity) {
+        Random random = new Random(arity);
+        IndexedDHeap heap = new IndexedDHeap(500, arity);
+        double[] keys = new double[500];
+        Arrays.fill(keys, Double.NaN);
+
+        for(int i = 0; i < 5000; i++) {
+            int item = random.nextInt(500);
+            double key = random.nextInt(1000);
+            if(!heap.contains(item)) {
+                heap.insert(item, key);
+                keys[item] = key;
+            } else {
+                assertEquals(key < keys[item], heap.decreaseKey(item, key));
+                keys[item] = Math.min(key, keys[item]);
+            }
+
+            if(random.nextInt(3) == 0) {
+                double min = Double.POSITIVE_INFINITY;
+                for(double k : keys) {
+                    if(!Double.isNaN(k))
+                        min = Math.min(min, k);
+                }
+                assertEquals(min, heap.peekKey(), 0);
+                int top = heap.pop();
+                assertEquals(min, keys[top], 0);
+                keys[top] = Double.NaN;
+            }
+        }
+
+        double previous = Double.NEGATIVE_INFINITY;
+        while(!heap.isEmpty()) {
+            double key = heap.peekKey();
+            assertTrue(previous <= key);
+            previous = key;
+            heap.pop();
+        }
+    }
+
+    @Test
+    public void binary() {
+        randomOperations(2);
+    }
+
+    @Test
+    public void quaternary() {
+        randomOperations(4);
+    }
+
+    @Test
+    public void sevenAry() {
+        randomOperations(7);
+    }
+
+    @Test
+    public void clear() {
+        IndexedDHeap heap = new IndexedDHeap(4);
+        heap.insert(1, 3);
+        heap.insert(3, 1);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(3));
+        heap.insert(3, 2);
+        assertEquals(3, heap.pop());
+    }
+
+    @Test
+    public void ensureCapacity() {
+        IndexedDHeap heap = new IndexedDHeap(0);
+        heap.ensureCapacity(10);
+        heap.insert(9, 1);
+        assertTrue(heap.contains(9));
+        assertFalse(heap.contains(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void insertTwice() {
+        IndexedDHeap heap = new IndexedDHeap(2);
+        heap.insert(1, 0);
+        heap.insert(1, 0);
+    }
+}
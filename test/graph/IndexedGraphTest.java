@@ -0,0 +1,93 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests for IndexedGraph and EdgeCursor.
+ */
+public class IndexedGraphTest {
+
+    // Testing strategy
+
+    // graph:   CsrGraph, OffHeapGraph, AdjListGraph, ConcurrentAdjListGraph, CachingGraph
+    // indexed: same instance for read only graphs, snapshot otherwise
+    // ids:     id and label round trip, absent label
+    // cursors: out edges as targets, in edges as sources, reset to another vertex,
+    //          vertex without edges
+    // queries: distances as dijkstra, unreachable vertices
+
+    private static Map<Integer, Double> out(IndexedGraph<Integer> graph, EdgeCursor edges, int v) {
+        Map<Integer, Double> map = new HashMap<>();
+        for(edges.reset(graph, v); edges.next(); )
+            map.put(graph.label(edges.target()), edges.weight());
+        return map;
+    }
+
+    private static void check(Graph<Integer> expected, IndexedGraph<Integer> graph) {
+        assertEquals(expected.vertices().size(), graph.vertexCount());
+        EdgeCursor edges = new EdgeCursor();
+        for(Integer vertex : expected.vertices()) {
+            int v = graph.id(vertex);
+            assertEquals(vertex, graph.label(v));
+            assertEquals(expected.targets(vertex), out(graph, edges, v));
+
+            Map<Integer, Double> in = new HashMap<>();
+            for(EdgeCursor cursor = graph.inEdges(v); cursor.next(); )
+                in.put(graph.label(cursor.target()), cursor.weight());
+            Map<Integer, Double> sources = expected.sources(vertex);
+            assertEquals(sources == null ? new HashMap<>() : sources, in);
+
+            Map<Integer, Double> dijkstra = expected.dijkstra(vertex);
+            double[] distances = graph.distances(v);
+            for(int u = 0; u < distances.length; u++) {
+                Double cost = dijkstra.get(graph.label(u));
+                assertEquals(cost == null ? Double.POSITIVE_INFINITY : cost, distances[u], 1e-9);
+            }
+        }
+        assertEquals(-1, graph.id(-1));
+    }
+
+    @Test
+    public void csr() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(50, 200, 24);
+        graph.add(100);
+        CsrGraph<Integer> csr = graph.freeze();
+        assertSame(csr, csr.indexed());
+        check(graph, csr);
+        assertFalse(csr.outEdges(csr.id(100)).next());
+    }
+
+    @Test
+    public void adjList() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(50, 200, 25);
+        IndexedGraph<Integer> indexed = graph.indexed();
+        check(graph, indexed);
+        // a snapshot
+        graph.set(0, 1000, 1);
+        assertEquals(-1, indexed.id(1000));
+    }
+
+    @Test
+    public void offHeap() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(50, 200, 26);
+        OffHeapGraph<Integer> offHeap = OffHeapGraph.of(graph);
+        assertSame(offHeap, offHeap.indexed());
+        check(graph, offHeap);
+    }
+
+    @Test
+    public void concurrent() {
+        ConcurrentAdjListGraph<Integer> graph = new ConcurrentAdjListGraph<>();
+        graph.set(1, 2, 3);
+        graph.set(2, 3, 4);
+        graph.add(4);
+        check(graph, graph.indexed());
+        CachingGraph<Integer> caching = new CachingGraph<>(graph, 10, 100);
+        check(graph, caching.indexed());
+    }
+}
@@ -0,0 +1,108 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.Random;
+
+/**
+ * Tests for LandmarkIndex.
+ */
+public class LandmarkIndexTest {
+
+    // Testing strategy
+
+    // build:           0 landmarks, more landmarks than vertices, several components
+    // shortestPath:    same cost as dijkstra, unreachable target, absent vertex
+    //                  settles fewer vertices than plain shortestPath
+    // serialization:   round trip answers the same queries
+
+    /**
+     * Road like graph: a grid with two way streets of random length
+     */
+    static AdjListGraph<Integer> grid(int size, long seed) {
+        Random random = new Random(seed);
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        for(int x = 0; x < size; x++) {
+            for(int y = 0; y < size; y++) {
+                int v = x * size + y;
+                if(x + 1 < size) {
+                    double w = 1 + random.nextInt(9);
+                    graph.set(v, v + size, w);
+                    graph.set(v + size, v, w);
+                }
+                if(y + 1 < size) {
+                    double w = 1 + random.nextInt(9);
+                    graph.set(v, v + 1, w);
+                    graph.set(v + 1, v, w);
+                }
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    public void sameCostAsDijkstra() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(300, 1500, 11);
+        LandmarkIndex<Integer> index = LandmarkIndex.build(graph, 6);
+        assertEquals(6, index.landmarks().size());
+
+        for(int src = 0; src < 300; src += 23) {
+            for(int dst = 0; dst < 300; dst += 19) {
+                Path<Integer> expected = graph.shortestPath(src, dst);
+                Path<Integer> path = index.shortestPath(src, dst);
+                if(expected == null) {
+                    assertNull(path);
+                } else {
+                    assertEquals(expected.cost(), path.cost(), 0);
+                    assertTrue(index.lowerBound(src, dst) <= expected.cost());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void settlesFewerVertices() {
+        AdjListGraph<Integer> graph = grid(40, 3);
+        CsrGraph<Integer> csr = graph.freeze();
+        LandmarkIndex<Integer> index = LandmarkIndex.build(csr, 8);
+
+        Path<Integer> dijkstra = csr.shortestPath(0, 40 * 40 - 1);
+        Path<Integer> alt = index.shortestPath(0, 40 * 40 - 1);
+        assertEquals(dijkstra.cost(), alt.cost(), 0);
+        assertTrue("expected ALT to settle fewer vertices", alt.settled() < dijkstra.settled() / 2);
+    }
+
+    @Test
+    public void components() {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("c", "d", 2);
+        LandmarkIndex<String> index = LandmarkIndex.build(graph, 10);
+        assertEquals(4, index.landmarks().size());
+        assertNull(index.shortestPath("a", "d"));
+        assertNull(index.shortestPath("a", "z"));
+        assertEquals(2, index.shortestPath("c", "d").cost(), 0);
+
+        index = LandmarkIndex.build(graph, 0);
+        assertEquals(1, index.shortestPath("a", "b").cost(), 0);
+    }
+
+    @Test
+    public void serialization() throws IOException, ClassNotFoundException {
+        LandmarkIndex<Integer> index = LandmarkIndex.build(grid(10, 1), 4);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(index);
+        }
+        try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @SuppressWarnings("unchecked")
+            LandmarkIndex<Integer> copy = (LandmarkIndex<Integer>) in.readObject();
+            assertEquals(index.landmarks(), copy.landmarks());
+            assertEquals(index.shortestPath(0, 99).vertices(), copy.shortestPath(0, 99).vertices());
+            assertEquals(index.shortestPath(0, 99).settled(), copy.shortestPath(0, 99).settled());
+        }
+    }
+}
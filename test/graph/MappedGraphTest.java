@@ -0,0 +1,225 @@
+package graph;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for MappedGraph and LabelCodec.
+ */
+public class MappedGraphTest {
+
+    // Testing strategy
+
+    // graph:   empty, isolated vertices and loops, large random graph
+    // labels:  strings (non ASCII), integers, longs
+    // queries: same vertices, edges in both directions, traversals and shortest
+    //          paths as the CsrGraph snapshot, mutators rejected
+    // file:    rewritten from a mapped graph, not a graph file, other version,
+    //          truncated, label offsets out of order or past the labels,
+    //          label dictionary larger than an int, labels of another codec
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static <L> void assertSameGraph(CsrGraph<L> expected, MappedGraph<L> graph) {
+        assertEquals(expected.vertexCount(), graph.vertexCount());
+        assertEquals(expected.edgeCount(), graph.edgeCount());
+        for(int v = 0; v < expected.vertexCount(); v++) {
+            assertEquals(expected.index().label(v), graph.index().label(v));
+            assertEquals(expected.begin(v), graph.begin(v));
+            assertEquals(expected.end(v), graph.end(v));
+            assertEquals(expected.reverse().begin(v), graph.reverse().begin(v));
+        }
+        for(int e = 0; e < expected.edgeCount(); e++) {
+            assertEquals(expected.target(e), graph.target(e));
+            assertEquals(expected.weight(e), graph.weight(e), 0);
+            assertEquals(expected.reverse().target(e), graph.reverse().target(e));
+            assertEquals(expected.reverse().weight(e), graph.reverse().weight(e), 0);
+        }
+    }
+
+    @Test
+    public void empty() throws IOException {
+        File file = folder.newFile();
+        MappedGraph.write(new AdjListGraph<String>(), LabelCodec.strings(), file);
+        MappedGraph<String> graph = MappedGraph.load(file, LabelCodec.strings());
+        assertEquals(0, graph.vertexCount());
+        assertEquals(Collections.emptySet(), graph.vertices());
+        assertTrue(graph.dijkstra("a").isEmpty());
+    }
+
+    @Test
+    public void strings() throws IOException {
+        AdjListGraph<String> expected = new AdjListGraph<>();
+        expected.set("a", "b", 1.5);
+        expected.set("b", "caf\u00e9", 2);
+        expected.set("caf\u00e9", "caf\u00e9", 3);
+        expected.set("a", "caf\u00e9", 10);
+        expected.add("");
+
+        File file = folder.newFile();
+        MappedGraph.write(expected, LabelCodec.strings(), file);
+        MappedGraph<String> graph = MappedGraph.load(file, LabelCodec.strings());
+
+        assertEquals(expected.vertices(), graph.vertices());
+        for(String vertex : expected.vertices()) {
+            assertEquals(expected.targets(vertex), graph.targets(vertex));
+            assertEquals(expected.sources(vertex) == null ? Collections.emptyMap() : expected.sources(vertex),
+                    graph.sources(vertex));
+        }
+        assertNull(graph.targets("z"));
+        assertEquals(expected.dijkstra("a"), graph.dijkstra("a"));
+        assertEquals(3.5, graph.shortestPath("a", "caf\u00e9").cost(), 0);
+        assertEquals(3.5, graph.bidirectionalShortestPath("a", "caf\u00e9").cost(), 0);
+    }
+
+    @Test
+    public void random() throws IOException {
+        CsrGraph<Integer> expected = CsrGraphTest.random(5000, 40000, 17).freeze();
+        File file = folder.newFile();
+        MappedGraph.write(expected, LabelCodec.integers(), file);
+        MappedGraph<Integer> graph = MappedGraph.load(file, LabelCodec.integers());
+        assertSameGraph(expected, graph);
+
+        for(int src = 0; src < 5000; src += 999)
+            assertEquals(expected.dijkstra(src), graph.dijkstra(src));
+
+        List<Integer> dfs = new ArrayList<>();
+        List<Integer> mappedDfs = new ArrayList<>();
+        expected.dfs(dfs::add);
+        graph.dfs(mappedDfs::add);
+        assertEquals(dfs, mappedDfs);
+
+        // written again from the mapped graph
+        File copy = folder.newFile();
+        MappedGraph.write(graph, LabelCodec.integers(), copy);
+        assertSameGraph(expected, MappedGraph.load(copy, LabelCodec.integers()));
+    }
+
+    @Test
+    public void longs() throws IOException {
+        AdjListGraph<Long> expected = new AdjListGraph<>();
+        expected.set(Long.MAX_VALUE, -1L, 4);
+        File file = folder.newFile();
+        MappedGraph.write(expected, LabelCodec.longs(), file);
+        MappedGraph<Long> graph = MappedGraph.load(file, LabelCodec.longs());
+        assertEquals(expected.dijkstra(Long.MAX_VALUE), graph.dijkstra(Long.MAX_VALUE));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnly() throws IOException {
+        File file = folder.newFile();
+        MappedGraph.write(new AdjListGraph<String>(), LabelCodec.strings(), file);
+        MappedGraph.load(file, LabelCodec.strings()).add("a");
+    }
+
+    @Test
+    public void invalidFiles() throws IOException {
+        File file = folder.newFile();
+        AdjListGraph<String> expected = new AdjListGraph<>();
+        expected.set("a", "b", 1);
+        MappedGraph.write(expected, LabelCodec.strings(), file);
+
+        try(RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            // other version, little endian
+            raw.seek(4);
+            raw.write(new byte[]{2, 0, 0, 0});
+        }
+        assertLoadFails(file, "version 2");
+
+        try(RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(4);
+            raw.write(new byte[]{1, 0, 0, 0});
+            raw.setLength(raw.length() - 1);
+        }
+        assertLoadFails(file, "Truncated");
+
+        try(RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(0);
+            raw.write('X');
+        }
+        assertLoadFails(file, "Not a graph file");
+    }
+
+    @Test
+    public void corruptLabels() throws IOException {
+        File file = folder.newFile();
+        AdjListGraph<String> expected = new AdjListGraph<>();
+        expected.set("a", "b", 1);
+        MappedGraph.write(expected, LabelCodec.strings(), file);
+        // header, then rows of 3 ints aligned to 16 bytes and 1 edge of 16
+        // bytes, in both directions
+        long labelOffsets = 32 + 2 * (16 + 16);
+
+        try(RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            // past the 2 bytes of labels, little endian
+            raw.seek(labelOffsets + 4);
+            raw.write(new byte[]{5, 0, 0, 0});
+        }
+        assertLoadFails(file, "Corrupt label offsets");
+
+        try(RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(labelOffsets + 4);
+            raw.write(new byte[]{-1, -1, -1, -1});
+        }
+        assertLoadFails(file, "Corrupt label offsets");
+
+        try(RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(labelOffsets + 4);
+            raw.write(new byte[]{1, 0, 0, 0});
+            // label size of 2^32 bytes
+            raw.seek(16);
+            raw.write(new byte[]{0, 0, 0, 0, 1, 0, 0, 0});
+        }
+        assertLoadFails(file, "too large");
+    }
+
+    @Test
+    public void otherCodec() throws IOException {
+        File file = folder.newFile();
+        AdjListGraph<Integer> expected = new AdjListGraph<>();
+        expected.set(1, 2, 1);
+        MappedGraph.write(expected, LabelCodec.integers(), file);
+        try {
+            MappedGraph.load(file, LabelCodec.longs());
+            fail("expected IOException");
+        } catch(IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Corrupt label 0"));
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        assertEquals(expected.vertices(), MappedGraph.load(file, LabelCodec.integers()).vertices());
+
+        // an empty last label
+        try(RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            // header, rows of 3 ints aligned to 16 bytes, 1 edge of 16 bytes,
+            // in both directions, then the offset of the end of label 0
+            raw.seek(32 + 2 * (16 + 16) + 8);
+            raw.write(new byte[]{4, 0, 0, 0});
+        }
+        try {
+            MappedGraph.load(file, LabelCodec.integers());
+            fail("expected IOException");
+        } catch(IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Corrupt label 1"));
+        }
+    }
+
+    private static void assertLoadFails(File file, String message) {
+        try {
+            MappedGraph.load(file, LabelCodec.strings());
+            fail("expected IOException");
+        } catch(IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+}
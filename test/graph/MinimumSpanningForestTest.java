@@ -0,0 +1,127 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for MinimumSpanningForest.
+ */
+public class MinimumSpanningForestTest {
+
+    // Testing strategy
+
+    // graph:   empty, isolated vertices, several components, loops,
+    //          fractional weights, equal weights, edges in both directions
+    // result:  cost equal to a sequential Kruskal, forest edges are graph edges,
+    //          vertices - components edges without cycle
+    // pool:    common pool, dedicated pool with several workers
+
+    /**
+     * Reference Kruskal over the edges taken as undirected.
+     */
+    private static double kruskal(CsrGraph<Integer> graph) {
+        List<Integer> order = new ArrayList<>();
+        for(int e = 0; e < graph.edgeCount(); e++)
+            order.add(e);
+        order.sort((a, b) -> Double.compare(graph.weight(a), graph.weight(b)));
+
+        int[] sources = new int[graph.edgeCount()];
+        for(int v = 0; v < graph.vertexCount(); v++) {
+            for(int e = graph.begin(v); e < graph.end(v); e++)
+                sources[e] = v;
+        }
+
+        UnionFind unionFind = new UnionFind(graph.vertexCount());
+        double cost = 0;
+        for(int e : order) {
+            if(!unionFind.find(sources[e], graph.target(e))) {
+                unionFind.union(sources[e], graph.target(e));
+                cost += graph.weight(e);
+            }
+        }
+        return cost;
+    }
+
+    private static int components(CsrGraph<Integer> graph) {
+        UnionFind unionFind = new UnionFind(graph.vertexCount());
+        int components = graph.vertexCount();
+        for(int v = 0; v < graph.vertexCount(); v++) {
+            for(int e = graph.begin(v); e < graph.end(v); e++) {
+                if(!unionFind.find(v, graph.target(e))) {
+                    unionFind.union(v, graph.target(e));
+                    components--;
+                }
+            }
+        }
+        return components;
+    }
+
+    private static void assertForest(CsrGraph<Integer> graph, MinimumSpanningForest<Integer> forest) {
+        assertEquals(kruskal(graph), forest.cost(), 1e-6);
+        assertEquals(graph.vertexCount() - components(graph), forest.edges().size());
+
+        UnionFind unionFind = new UnionFind(graph.vertexCount());
+        for(Edge<Integer> edge : forest.edges()) {
+            assertEquals(edge.weight(), graph.targets(edge.source()).get(edge.target()), 0);
+            int u = graph.index().id(edge.source());
+            int v = graph.index().id(edge.target());
+            assertFalse("cycle", unionFind.find(u, v));
+            unionFind.union(u, v);
+        }
+    }
+
+    @Test
+    public void empty() {
+        MinimumSpanningForest<String> forest = new AdjListGraph<String>().minimumSpanningForest();
+        assertEquals(Collections.emptyList(), forest.edges());
+        assertEquals(0, forest.cost(), 0);
+    }
+
+    @Test
+    public void fractionalWeights() {
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        graph.set(1, 2, 0.5);
+        graph.set(2, 3, 0.25);
+        graph.set(3, 1, 0.75);
+        graph.set(3, 3, 0.1);
+        graph.set(4, 5, 1.5);
+        graph.set(5, 4, 1.5);
+        graph.add(6);
+
+        MinimumSpanningForest<Integer> forest = graph.minimumSpanningForest();
+        assertEquals(2.25, forest.cost(), 0);
+        assertEquals(3, forest.edges().size());
+        assertTrue(forest.edges().contains(new Edge<>(1, 2, 0.5)));
+        assertTrue(forest.edges().contains(new Edge<>(2, 3, 0.25)));
+        assertForest(graph.freeze(), forest);
+    }
+
+    @Test
+    public void random() {
+        Random random = new Random(11);
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        for(int v = 0; v < 3000; v++)
+            graph.add(v);
+        for(int i = 0; i < 9000; i++)
+            graph.set(random.nextInt(3000), random.nextInt(3000), random.nextInt(20) + random.nextDouble());
+        assertForest(graph.freeze(), graph.minimumSpanningForest());
+    }
+
+    @Test
+    public void equalWeights() {
+        CsrGraph<Integer> graph = LandmarkIndexTest.grid(40, 2).freeze();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertForest(graph, MinimumSpanningForest.of(graph, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package graph;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for OffHeapGraph.
+ */
+public class OffHeapGraphTest {
+
+    // Testing strategy
+
+    // source:  AdjListGraph (read through its maps), CsrGraph, ConcurrentAdjListGraph,
+    //          MappedGraph, OffHeapGraph itself
+    // graph:   empty, isolated vertices and loops, large random graph
+    // queries: same vertices and edges in both directions, traversals and
+    //          shortest paths as the CsrGraph snapshot, mutators rejected
+    // memory:  nativeBytes exact, shared with the reverse
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static <L> void assertSameGraph(CsrGraph<L> expected, OffHeapGraph<L> graph) {
+        assertEquals(expected.vertices(), graph.vertices());
+        assertEquals(expected.edgeCount(), graph.edgeCount());
+        for(L vertex : expected.vertices()) {
+            assertEquals(expected.targets(vertex), graph.targets(vertex));
+            assertEquals(expected.sources(vertex), graph.sources(vertex));
+        }
+    }
+
+    @Test
+    public void empty() {
+        OffHeapGraph<String> graph = OffHeapGraph.of(new AdjListGraph<String>());
+        assertEquals(0, graph.vertexCount());
+        assertEquals(Collections.emptySet(), graph.vertices());
+        assertTrue(graph.dijkstra("a").isEmpty());
+        assertEquals(8, graph.nativeBytes());
+    }
+
+    @Test
+    public void small() {
+        AdjListGraph<String> expected = new AdjListGraph<>();
+        expected.set("a", "b", 1.5);
+        expected.set("b", "c", 2);
+        expected.set("c", "c", 3);
+        expected.set("a", "c", 10);
+        expected.add("d");
+
+        OffHeapGraph<String> graph = OffHeapGraph.of(expected);
+        assertSameGraph(expected.freeze(), graph);
+        assertNull(graph.targets("z"));
+        assertEquals(Collections.emptyMap(), graph.sources("d"));
+        assertEquals(expected.dijkstra("a"), graph.dijkstra("a"));
+        assertEquals(3.5, graph.shortestPath("a", "c").cost(), 0);
+        assertEquals(3.5, graph.bidirectionalShortestPath("a", "c").cost(), 0);
+        assertEquals(Collections.singletonMap("a", 1.5), graph.reverse().targets("b"));
+
+        // 2 * 5 offsets, 2 * 4 targets, 2 * 4 weights
+        assertEquals(2 * 5 * 4 + 2 * 4 * 4 + 2 * 4 * 8, graph.nativeBytes());
+        assertEquals(graph.nativeBytes(), graph.reverse().nativeBytes());
+        assertSame(graph, graph.reverse().reverse());
+        assertSame(graph, OffHeapGraph.of(graph));
+    }
+
+    @Test
+    public void random() throws IOException {
+        AdjListGraph<Integer> source = CsrGraphTest.random(5000, 40000, 19);
+        CsrGraph<Integer> expected = source.freeze();
+        int m = expected.edgeCount();
+        long bytes = 2 * 4L * 5001 + 2 * 12L * m;
+
+        OffHeapGraph<Integer> graph = OffHeapGraph.of(source);
+        assertSameGraph(expected, graph);
+        assertEquals(bytes, graph.nativeBytes());
+        for(int src = 0; src < 5000; src += 999)
+            assertEquals(expected.dijkstra(src), graph.dijkstra(src));
+
+        List<Integer> dfs = new ArrayList<>();
+        List<Integer> offHeapDfs = new ArrayList<>();
+        expected.dfs(dfs::add);
+        graph.dfs(offHeapDfs::add);
+        assertEquals(dfs, offHeapDfs);
+
+        // copied array by array, keeping the ids of the snapshot
+        OffHeapGraph<Integer> copy = OffHeapGraph.of(expected);
+        for(int v = 0; v < expected.vertexCount(); v++) {
+            assertEquals(expected.begin(v), copy.begin(v));
+            assertEquals(expected.reverse().end(v), copy.reverse().end(v));
+        }
+        for(int e = 0; e < m; e++) {
+            assertEquals(expected.target(e), copy.target(e));
+            assertEquals(expected.weight(e), copy.weight(e), 0);
+        }
+        assertEquals(bytes, copy.nativeBytes());
+
+        ConcurrentAdjListGraph<Integer> concurrent = new ConcurrentAdjListGraph<>();
+        for(Integer vertex : source.vertices()) {
+            concurrent.add(vertex);
+            source.targets(vertex).forEach((target, weight) -> concurrent.set(vertex, target, weight));
+        }
+        assertSameGraph(expected, OffHeapGraph.of(concurrent));
+
+        File file = folder.newFile();
+        MappedGraph.write(graph, LabelCodec.integers(), file);
+        assertSameGraph(expected, OffHeapGraph.of(MappedGraph.load(file, LabelCodec.integers())));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnly() {
+        OffHeapGraph.of(new AdjListGraph<String>()).set("a", "b", 1);
+    }
+}
@@ -0,0 +1,247 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for PageRank and Ranks.
+ */
+public class PageRankTest {
+
+    // Testing strategy
+
+    // graph:     empty, cycle, dangling vertices, edges of weight 0, loops,
+    //            negative and infinite edges, random graph larger than a task
+    // teleport:  uniform, personalized, labels not in the graph, invalid weights
+    // start:     none, previous ranks after adding and removing vertices and edges
+    // settings:  damping 0, iteration limit reached, invalid values
+    // pool:      common pool, pool of one thread
+    // result:    rank of absent vertex, top, sum of the ranks
+
+    /**
+     * Sequential power iteration over the maps of graph.
+     */
+    private static <L> Map<L, Double> reference(Graph<L> graph, Map<L, Double> teleport, double damping) {
+        int n = graph.vertices().size();
+        Map<L, Double> jump = new HashMap<>();
+        double total = 0;
+        for(L v : graph.vertices()) {
+            double weight = teleport == null ? 1 : teleport.getOrDefault(v, 0.0);
+            jump.put(v, weight);
+            total += weight;
+        }
+        for(L v : graph.vertices())
+            jump.put(v, jump.get(v) / total);
+
+        Map<L, Double> ranks = new HashMap<>(jump);
+        for(int i = 0; i < 2000 && n > 0; i++) {
+            Map<L, Double> next = new HashMap<>();
+            double dangling = 0;
+            for(L v : graph.vertices())
+                next.put(v, 0.0);
+            for(L u : graph.vertices()) {
+                double out = 0;
+                for(double weight : graph.targets(u).values())
+                    out += weight;
+                if(out == 0) {
+                    dangling += ranks.get(u);
+                    continue;
+                }
+                for(Map.Entry<L, Double> edge : graph.targets(u).entrySet())
+                    next.merge(edge.getKey(), damping * ranks.get(u) * edge.getValue() / out, Double::sum);
+            }
+            for(L v : graph.vertices())
+                next.merge(v, (1 - damping + damping * dangling) * jump.get(v), Double::sum);
+            ranks = next;
+        }
+        return ranks;
+    }
+
+    private static <L> void assertRanks(Map<L, Double> expected, Ranks<L> ranks, double delta) {
+        assertEquals(expected.size(), ranks.ranks().length);
+        double sum = 0;
+        for(Map.Entry<L, Double> entry : expected.entrySet()) {
+            assertEquals(entry.getKey().toString(), entry.getValue(), ranks.rank(entry.getKey()), delta);
+            sum += ranks.rank(entry.getKey());
+        }
+        if(!expected.isEmpty())
+            assertEquals(1, sum, 1e-9);
+    }
+
+    /**
+     * a -> b -> c -> a, c -> d (weight 3), d dangling, e -> e, f -> a with weight 0
+     */
+    private static AdjListGraph<String> sample() {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 2);
+        graph.set("c", "a", 1);
+        graph.set("c", "d", 3);
+        graph.set("e", "e", 1);
+        graph.set("f", "a", 0);
+        return graph;
+    }
+
+    @Test
+    public void empty() {
+        Ranks<String> ranks = new AdjListGraph<String>().pageRank();
+        assertEquals(0, ranks.ranks().length);
+        assertEquals(0, ranks.iterations());
+        assertTrue(ranks.converged());
+        assertEquals(0, ranks.rank("a"), 0);
+        assertTrue(ranks.top(3).isEmpty());
+
+        Map<String, Double> teleport = new HashMap<>();
+        teleport.put("a", 1.0);
+        ranks = new AdjListGraph<String>().personalizedPageRank(teleport);
+        assertEquals(0, ranks.ranks().length);
+        assertTrue(ranks.converged());
+    }
+
+    @Test
+    public void cycle() {
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        graph.set(1, 2, 1);
+        graph.set(2, 3, 5);
+        graph.set(3, 1, 2);
+        Ranks<Integer> ranks = graph.pageRank();
+        for(int v = 1; v <= 3; v++)
+            assertEquals(1.0 / 3, ranks.rank(v), 1e-12);
+        assertTrue(ranks.converged());
+        assertEquals(1, ranks.iterations());
+    }
+
+    @Test
+    public void weightsAndDangling() {
+        AdjListGraph<String> graph = sample();
+        Ranks<String> ranks = graph.pageRank();
+        assertTrue(ranks.converged());
+        assertTrue(ranks.residual() <= 1e-9);
+        assertRanks(reference(graph, null, 0.85), ranks, 1e-8);
+        assertEquals(0, ranks.rank("z"), 0);
+        // e keeps its surfer, c gets all of b
+        assertEquals(Arrays.asList("e", "c"), ranks.top(2));
+        assertEquals(6, ranks.top(10).size());
+
+        // no link followed
+        Ranks<String> uniform = new PageRank().damping(0).rank(graph);
+        for(String v : graph.vertices())
+            assertEquals(1.0 / 6, uniform.rank(v), 1e-12);
+    }
+
+    @Test
+    public void large() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(5000, 20000, 25);
+        Map<Integer, Double> expected = reference(graph, null, 0.85);
+        PageRank pageRank = new PageRank().tolerance(1e-12).maxIterations(1000);
+        assertRanks(expected, pageRank.rank(graph), 1e-10);
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            Ranks<Integer> single = pageRank.rank(graph, null, null, pool);
+            assertArrayEquals(pageRank.rank(graph).ranks(), single.ranks(), 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void personalized() {
+        AdjListGraph<String> graph = sample();
+        Map<String, Double> teleport = new HashMap<>();
+        teleport.put("a", 1.0);
+        teleport.put("e", 3.0);
+        teleport.put("z", 5.0);
+        Ranks<String> ranks = graph.personalizedPageRank(teleport);
+        assertEquals(teleport, ranks.teleport());
+        teleport.remove("z");
+        assertRanks(reference(graph, teleport, 0.85), ranks, 1e-8);
+        // not reachable from a or e
+        assertEquals(0, ranks.rank("f"), 0);
+        assertNull(graph.pageRank().teleport());
+    }
+
+    @Test
+    public void warmStart() {
+        AdjListGraph<Integer> graph = CsrGraphTest.random(3000, 15000, 26);
+        PageRank pageRank = new PageRank().tolerance(1e-10).maxIterations(1000);
+        Ranks<Integer> previous = pageRank.rank(graph);
+
+        graph.set(0, 1, 1);
+        graph.set(10, 5000, 2);
+        graph.remove(7);
+        Ranks<Integer> cold = pageRank.rank(graph);
+        Ranks<Integer> warm = pageRank.update(graph, previous);
+        assertTrue(warm.converged());
+        assertTrue(warm.iterations() + " >= " + cold.iterations(), warm.iterations() < cold.iterations());
+        assertRanks(reference(graph, null, 0.85), warm, 1e-9);
+
+        Map<Integer, Double> teleport = new HashMap<>();
+        teleport.put(1, 1.0);
+        Ranks<Integer> personalized = pageRank.personalized(graph, teleport);
+        graph.set(1, 2, 1);
+        Ranks<Integer> updated = pageRank.update(graph, personalized);
+        assertEquals(teleport, updated.teleport());
+        assertRanks(reference(graph, teleport, 0.85), updated, 1e-9);
+    }
+
+    @Test
+    public void iterationLimit() {
+        Ranks<String> ranks = new PageRank().maxIterations(1).rank(sample());
+        assertFalse(ranks.converged());
+        assertEquals(1, ranks.iterations());
+        assertTrue(ranks.residual() > 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeEdge() {
+        AdjListGraph<String> graph = sample();
+        graph.set("a", "c", -1);
+        graph.pageRank();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void infiniteEdge() {
+        AdjListGraph<String> graph = sample();
+        graph.set("a", "c", Double.POSITIVE_INFINITY);
+        graph.pageRank();
+    }
+
+    @Test
+    public void invalidArguments() {
+        AdjListGraph<String> graph = sample();
+        Map<String, Double> teleport = new HashMap<>();
+        teleport.put("z", 1.0);
+        try {
+            graph.personalizedPageRank(teleport);
+            fail("expected IllegalArgumentException");
+        } catch(IllegalArgumentException e) {
+        }
+        teleport.put("a", -1.0);
+        try {
+            graph.personalizedPageRank(teleport);
+            fail("expected IllegalArgumentException");
+        } catch(IllegalArgumentException e) {
+        }
+        try {
+            new PageRank().damping(1);
+            fail("expected IllegalArgumentException");
+        } catch(IllegalArgumentException e) {
+        }
+        try {
+            new PageRank().tolerance(0);
+            fail("expected IllegalArgumentException");
+        } catch(IllegalArgumentException e) {
+        }
+        try {
+            new PageRank().maxIterations(0);
+            fail("expected IllegalArgumentException");
+        } catch(IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for ParallelBfs.
+ */
+public class ParallelBfsTest {
+
+    // Testing strategy
+
+    // graph:      absent source, isolated source, unreachable vertices, cycles
+    //             sparse (top-down only), dense (switches to bottom-up)
+    // pool:       common pool, dedicated pool with several workers
+    // result:     depths equal to a sequential BFS, parents one level up with an edge to the child
+
+    private static int[] sequentialDepths(IntGraph graph, int source) {
+        int[] depth = new int[graph.vertexCount()];
+        Arrays.fill(depth, -1);
+        depth[source] = 0;
+        ArrayDeque<Integer> next = new ArrayDeque<>();
+        next.add(source);
+        while(!next.isEmpty()) {
+            int u = next.poll();
+            for(int e = graph.begin(u); e < graph.end(u); e++) {
+                int v = graph.target(e);
+                if(depth[v] < 0) {
+                    depth[v] = depth[u] + 1;
+                    next.add(v);
+                }
+            }
+        }
+        return depth;
+    }
+
+    private static void assertValidTree(IntGraph graph, int source, ParallelBfs bfs) {
+        int[] expected = sequentialDepths(graph, source);
+        assertArrayEquals(expected, bfs.depth());
+
+        int reached = 0;
+        int levels = 0;
+        for(int v = 0; v < graph.vertexCount(); v++) {
+            int parent = bfs.parent()[v];
+            if(expected[v] <= 0) {
+                assertEquals(-1, parent);
+            } else {
+                assertEquals(expected[v] - 1, expected[parent]);
+                boolean edge = false;
+                for(int e = graph.begin(parent); e < graph.end(parent); e++)
+                    edge |= graph.target(e) == v;
+                assertTrue(edge);
+            }
+            if(expected[v] >= 0) {
+                reached++;
+                levels = Math.max(levels, expected[v] + 1);
+            }
+        }
+        assertEquals(reached, bfs.reachedCount());
+        assertEquals(levels, bfs.levels());
+    }
+
+    @Test
+    public void absentSource() {
+        assertEquals(Collections.emptyMap(), CsrGraphTest.random(10, 20, 1).hops(42));
+    }
+
+    @Test
+    public void hops() {
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        graph.set('a', 'b', 5);
+        graph.set('b', 'c', 1);
+        graph.set('a', 'c', 9);
+        graph.set('c', 'd', 1);
+        graph.set('d', 'a', 1);
+        graph.add('e');
+
+        Map<Character, Integer> expected = new HashMap<>();
+        expected.put('a', 0);
+        expected.put('b', 1);
+        expected.put('c', 1);
+        expected.put('d', 2);
+        assertEquals(expected, graph.hops('a'));
+        assertEquals(Collections.singletonMap('e', 0), graph.hops('e'));
+    }
+
+    @Test
+    public void sparse() {
+        CsrGraph<Integer> graph = LandmarkIndexTest.grid(60, 2).freeze();
+        assertValidTree(graph, 0, ParallelBfs.run(graph, 0));
+    }
+
+    @Test
+    public void dense() {
+        CsrGraph<Integer> graph = CsrGraphTest.random(5000, 100000, 3).freeze();
+        for(int source = 0; source < 5000; source += 1250)
+            assertValidTree(graph, source, ParallelBfs.run(graph, source));
+    }
+
+    @Test
+    public void dedicatedPool() {
+        CsrGraph<Integer> graph = CsrGraphTest.random(20000, 200000, 4).freeze();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertValidTree(graph, 7, ParallelBfs.run(graph, 7, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package graph;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Tests for QueryMetrics, QueryStats and QueryStatistics.
+ */
+public class QueryMetricsTest {
+
+    // Testing strategy
+
+    // graph:      AdjListGraph, CsrGraph, ConcurrentAdjListGraph
+    // query:      dijkstra, shortestPath, aStar, bidirectionalShortestPath,
+    //             unreachable target
+    // listeners:  none, one, removed
+    // statistics: filtered on an algorithm, every algorithm, JMX attributes,
+    //             registered twice, reset
+
+    private final List<QueryStats> reported = new ArrayList<>();
+    private final QueryListener listener = reported::add;
+
+    @After
+    public void removeListener() {
+        QueryMetrics.removeListener(listener);
+    }
+
+    /**
+     * a -> b -> c, a -> c, d alone
+     */
+    private static AdjListGraph<String> graph() {
+        AdjListGraph<String> graph = new AdjListGraph<>();
+        graph.set("a", "b", 1);
+        graph.set("b", "c", 1);
+        graph.set("a", "c", 5);
+        graph.add("d");
+        return graph;
+    }
+
+    @Test
+    public void disabled() {
+        assertFalse(QueryMetrics.enabled());
+        graph().dijkstra("a");
+        assertTrue(reported.isEmpty());
+
+        QueryMetrics.addListener(listener);
+        assertTrue(QueryMetrics.enabled());
+        assertTrue(QueryMetrics.removeListener(listener));
+        assertFalse(QueryMetrics.removeListener(listener));
+        graph().dijkstra("a");
+        assertTrue(reported.isEmpty());
+    }
+
+    private static void assertStats(QueryStats stats, String algorithm, int settled, long relaxed) {
+        assertEquals(algorithm, stats.algorithm());
+        assertEquals(settled, stats.verticesSettled());
+        assertEquals(relaxed, stats.edgesRelaxed());
+        assertTrue(stats.toString(), stats.heapPushes() >= settled);
+        assertTrue(stats.toString(), stats.heapPops() >= settled);
+        assertTrue(stats.toString(), stats.peakQueueSize() >= 1);
+        assertTrue(stats.toString(), stats.peakQueueSize() <= stats.heapPushes());
+        assertTrue(stats.toString(), stats.nanos() > 0);
+    }
+
+    @Test
+    public void queries() {
+        QueryMetrics.addListener(listener);
+        AdjListGraph<String> adjacency = graph();
+        ConcurrentAdjListGraph<String> concurrent = new ConcurrentAdjListGraph<>();
+        concurrent.add("d");
+        concurrent.setAll(Arrays.asList(new Edge<>("a", "b", 1), new Edge<>("b", "c", 1), new Edge<>("a", "c", 5)));
+        List<Graph<String>> graphs = Arrays.asList(adjacency, adjacency.freeze(), concurrent);
+        for(Graph<String> graph : graphs) {
+            reported.clear();
+            graph.dijkstra("a");
+            graph.shortestPath("a", "c");
+            graph.aStar("a", "c", v -> 0);
+            graph.bidirectionalShortestPath("a", "c");
+            graph.shortestPath("a", "d");
+
+            assertEquals(5, reported.size());
+            // a, b and c settled, their 3 out edges scanned
+            assertStats(reported.get(0), "dijkstra", 3, 3);
+            // c is settled without scanning its edges
+            assertStats(reported.get(1), "shortestPath", 3, 3);
+            assertStats(reported.get(2), "aStar", 3, 3);
+            assertEquals("bidirectionalShortestPath", reported.get(3).algorithm());
+            assertStats(reported.get(4), "shortestPath", 3, 3);
+        }
+    }
+
+    @Test
+    public void statistics() throws JMException {
+        QueryStatistics dijkstra = QueryStatistics.register("dijkstra");
+        QueryStatistics all = QueryStatistics.register(null);
+        try {
+            AdjListGraph<String> graph = graph();
+            graph.dijkstra("a");
+            graph.dijkstra("b");
+            graph.shortestPath("a", "c");
+
+            assertEquals(2, dijkstra.getQueries());
+            assertEquals(3 + 2, dijkstra.getVerticesSettled());
+            assertEquals(3 + 1, dijkstra.getEdgesRelaxed());
+            assertTrue(dijkstra.getMaxTimeNanos() <= dijkstra.getTotalTimeNanos());
+            assertEquals(3, all.getQueries());
+
+            ObjectName name = new ObjectName("graph:type=QueryStatistics,algorithm=dijkstra");
+            assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Queries"));
+
+            try {
+                QueryStatistics.register("dijkstra");
+                fail("expected IllegalStateException");
+            } catch(IllegalStateException e) {
+                assertTrue(e.getMessage().contains("dijkstra"));
+            }
+
+            dijkstra.reset();
+            assertEquals(0, dijkstra.getQueries());
+            assertEquals(0, dijkstra.getMeanTimeMillis(), 0);
+        } finally {
+            dijkstra.unregister();
+            all.unregister();
+        }
+        assertFalse(QueryMetrics.enabled());
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(
+                new ObjectName("graph:type=QueryStatistics,algorithm=dijkstra")));
+    }
+}
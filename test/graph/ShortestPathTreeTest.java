@@ -0,0 +1,189 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Tests for ShortestPathTree and the listeners of AdjListGraph.
+ */
+public class ShortestPathTreeTest {
+
+    // Testing strategy
+
+    // update:   new edge, cheaper edge, more expensive tree edge, more expensive
+    //           non tree edge, removed vertex inside the tree, removed source,
+    //           source added back
+    // tree:     source absent at creation, unreachable vertices, closed tree
+    // random:   sequence of random updates, batch removals included, checked against
+    //           dijkstra after each one
+    // listener: every modification reported once, after it is applied
+
+    private static AdjListGraph<Character> sample() {
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        graph.set('a', 'b', 1);
+        graph.set('b', 'c', 1);
+        graph.set('a', 'c', 5);
+        graph.set('c', 'd', 1);
+        graph.set('d', 'e', 1);
+        graph.add('f');
+        return graph;
+    }
+
+    @Test
+    public void initialTree() {
+        AdjListGraph<Character> graph = sample();
+        ShortestPathTree<Character> tree = graph.shortestPathTree('a');
+        assertEquals(graph.dijkstra('a'), tree.distances());
+        assertEquals(Double.POSITIVE_INFINITY, tree.distance('f'), 0);
+        assertNull(tree.path('f'));
+
+        Path<Character> path = tree.path('e');
+        assertEquals(Arrays.asList('a', 'b', 'c', 'd', 'e'), path.vertices());
+        assertEquals(4, path.cost(), 0);
+    }
+
+    @Test
+    public void decrease() {
+        AdjListGraph<Character> graph = sample();
+        ShortestPathTree<Character> tree = graph.shortestPathTree('a');
+
+        graph.set('a', 'c', 1);
+        assertEquals(graph.dijkstra('a'), tree.distances());
+        assertEquals(Arrays.asList('a', 'c', 'd', 'e'), tree.path('e').vertices());
+
+        graph.set('b', 'f', 1);
+        graph.set('f', 'e', 0);
+        assertEquals(graph.dijkstra('a'), tree.distances());
+        assertEquals(Arrays.asList('a', 'b', 'f', 'e'), tree.path('e').vertices());
+    }
+
+    @Test
+    public void increase() {
+        AdjListGraph<Character> graph = sample();
+        ShortestPathTree<Character> tree = graph.shortestPathTree('a');
+
+        // not in the tree
+        graph.set('a', 'c', 7);
+        assertEquals(graph.dijkstra('a'), tree.distances());
+
+        // in the tree, the subtree of c moves to the other edge
+        graph.set('b', 'c', 10);
+        assertEquals(graph.dijkstra('a'), tree.distances());
+        assertEquals(Arrays.asList('a', 'c', 'd', 'e'), tree.path('e').vertices());
+    }
+
+    @Test
+    public void removeVertex() {
+        AdjListGraph<Character> graph = sample();
+        ShortestPathTree<Character> tree = graph.shortestPathTree('a');
+
+        graph.remove('b');
+        assertEquals(graph.dijkstra('a'), tree.distances());
+        assertEquals(5, tree.distance('c'), 0);
+
+        graph.remove('c');
+        assertEquals(graph.dijkstra('a'), tree.distances());
+        assertEquals(Double.POSITIVE_INFINITY, tree.distance('e'), 0);
+    }
+
+    @Test
+    public void removeSource() {
+        AdjListGraph<Character> graph = sample();
+        ShortestPathTree<Character> tree = graph.shortestPathTree('a');
+
+        graph.remove('a');
+        assertEquals(Collections.emptyMap(), tree.distances());
+
+        graph.set('a', 'd', 2);
+        assertEquals(graph.dijkstra('a'), tree.distances());
+        assertEquals(3, tree.distance('e'), 0);
+    }
+
+    @Test
+    public void absentSource() {
+        AdjListGraph<Character> graph = sample();
+        ShortestPathTree<Character> tree = graph.shortestPathTree('z');
+        assertEquals(Collections.emptyMap(), tree.distances());
+
+        graph.set('z', 'a', 1);
+        assertEquals(graph.dijkstra('z'), tree.distances());
+    }
+
+    @Test
+    public void close() {
+        AdjListGraph<Character> graph = sample();
+        ShortestPathTree<Character> tree = graph.shortestPathTree('a');
+        tree.close();
+        graph.set('a', 'e', 1);
+        assertEquals(4, tree.distance('e'), 0);
+    }
+
+    @Test
+    public void randomUpdates() {
+        Random random = new Random(14);
+        AdjListGraph<Integer> graph = CsrGraphTest.random(300, 900, 14);
+        ShortestPathTree<Integer> tree = graph.shortestPathTree(0);
+        for(int i = 0; i < 2000; i++) {
+            int source = random.nextInt(300);
+            int target = random.nextInt(300);
+            int update = random.nextInt(10);
+            if(update == 0)
+                graph.remove(source);
+            else if(update == 1)
+                graph.removeAll(Arrays.asList(source, target, random.nextInt(300)));
+            else if(update < 4 && graph.targets(source) != null && !graph.targets(source).isEmpty())
+                graph.set(source, graph.targets(source).keySet().iterator().next(), random.nextInt(100));
+            else
+                graph.set(source, target, random.nextInt(100));
+            assertEquals(graph.dijkstra(0), tree.distances());
+        }
+    }
+
+    @Test
+    public void listener() {
+        StringBuilder events = new StringBuilder();
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        graph.addListener(new GraphListener<Character>() {
+            @Override
+            public void vertexAdded(Character vertex) {
+                events.append("+").append(vertex).append(' ');
+            }
+
+            @Override
+            public void edgeSet(Character source, Character target, double previous, double weight) {
+                assertEquals(weight, graph.targets(source).get(target), 0);
+                events.append(source).append(target).append(previous).append(' ');
+            }
+
+            @Override
+            public void edgeRemoved(Character source, Character target, double weight) {
+                assertFalse(graph.targets(source) != null && graph.targets(source).containsKey(target));
+                events.append(source).append(target).append('-').append(' ');
+            }
+
+            @Override
+            public void vertexRemoved(Character vertex) {
+                events.append("-").append(vertex).append(' ');
+            }
+        });
+
+        graph.add('a');
+        graph.add('a');
+        graph.set('a', 'b', 1);
+        graph.set('a', 'b', 2);
+        graph.set('b', 'b', 3);
+        assertEquals("+a +b abNaN ab1.0 bbNaN ", events.toString());
+
+        // edges of a removed vertex are reported in no particular order
+        events.setLength(0);
+        graph.remove('b');
+        String removal = events.toString();
+        assertEquals(11, removal.length());
+        assertTrue(removal.contains("ab- ") && removal.contains("bb- ") && removal.endsWith("-b "));
+    }
+}
@@ -0,0 +1,174 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Tests for StrongComponents and TopologicalOrder.
+ */
+public class StrongComponentsTest {
+
+    // Testing strategy
+
+    // graph:       empty, acyclic, loops, nested cycles, one long cycle (deep search)
+    //              large random graph, split by forward-backward then by Tarjan
+    //              many small cycles, alone or in a chain (one pivot per component)
+    // tarjan:      completion order is a reverse topological order of the components
+    // forwardBackward: same partition as tarjan, common pool and dedicated pool
+    // topologicalOrder: every edge goes forward, cycle reported with its edges
+
+    private static CsrGraph<Character> sample() {
+        AdjListGraph<Character> graph = new AdjListGraph<>();
+        // {a, b, c} -> {d, e} -> f, g alone with a loop
+        graph.set('a', 'b', 1);
+        graph.set('b', 'c', 1);
+        graph.set('c', 'a', 1);
+        graph.set('c', 'd', 1);
+        graph.set('d', 'e', 1);
+        graph.set('e', 'd', 1);
+        graph.set('e', 'f', 1);
+        graph.set('g', 'g', 1);
+        return graph.freeze();
+    }
+
+    /**
+     * Assert that both arrays give the same partition of the vertices.
+     */
+    private static void assertSamePartition(int[] expected, int[] actual) {
+        assertEquals(expected.length, actual.length);
+        Map<Integer, Integer> forward = new HashMap<>();
+        Map<Integer, Integer> backward = new HashMap<>();
+        for(int v = 0; v < expected.length; v++) {
+            assertEquals(expected[v], (int) backward.merge(actual[v], expected[v], (old, c) -> old));
+            assertEquals(actual[v], (int) forward.merge(expected[v], actual[v], (old, c) -> old));
+        }
+    }
+
+    @Test
+    public void sampleComponents() {
+        CsrGraph<Character> graph = sample();
+        Components<Character> components = graph.stronglyConnectedComponents();
+        assertEquals(4, components.count());
+        assertEquals(components.component('a'), components.component('c'));
+        assertEquals(components.component('d'), components.component('e'));
+        assertNotEquals(components.component('a'), components.component('d'));
+        assertNotEquals(components.component('f'), components.component('g'));
+        // edges go to components completed earlier
+        assertTrue(components.component('f') < components.component('d'));
+        assertTrue(components.component('d') < components.component('a'));
+
+        assertSamePartition(components.ids(), Components.strong(graph, ForkJoinPool.commonPool()).ids());
+        assertEquals(0, new AdjListGraph<String>().stronglyConnectedComponents().count());
+    }
+
+    @Test
+    public void deepCycle() {
+        int n = 200000;
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        for(int v = 0; v < n; v++)
+            graph.set(v, (v + 1) % n, 1);
+        graph.set(0, n, 1);
+
+        Components<Integer> components = graph.stronglyConnectedComponents();
+        assertEquals(2, components.count());
+        assertEquals(components.component(0), components.component(n - 1));
+        assertNotEquals(components.component(0), components.component(n));
+        assertEquals(2, Components.strong(graph, ForkJoinPool.commonPool()).count());
+    }
+
+    @Test
+    public void random() {
+        CsrGraph<Integer> graph = CsrGraphTest.random(30000, 60000, 6).freeze();
+        int[] expected = new int[graph.vertexCount()];
+        int[] actual = new int[graph.vertexCount()];
+        int count = StrongComponents.tarjan(graph, expected);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(count, StrongComponents.forwardBackward(graph, actual, pool));
+        } finally {
+            pool.shutdown();
+        }
+        assertSamePartition(expected, actual);
+
+        // the edges between components go to components completed earlier
+        for(int v = 0; v < graph.vertexCount(); v++) {
+            for(int e = graph.begin(v); e < graph.end(v); e++)
+                assertTrue(expected[graph.target(e)] <= expected[v]);
+        }
+    }
+
+    private static void assertForwardBackward(CsrGraph<Integer> graph) {
+        int[] expected = new int[graph.vertexCount()];
+        int[] actual = new int[graph.vertexCount()];
+        int count = StrongComponents.tarjan(graph, expected);
+        assertEquals(count, StrongComponents.forwardBackward(graph, actual));
+        assertSamePartition(expected, actual);
+    }
+
+    @Test
+    public void smallCycles() {
+        int cycles = 100000;
+        AdjListGraph<Integer> disjoint = new AdjListGraph<>();
+        AdjListGraph<Integer> chain = new AdjListGraph<>();
+        for(int c = 0; c < cycles; c++) {
+            disjoint.set(2 * c, 2 * c + 1, 1);
+            disjoint.set(2 * c + 1, 2 * c, 1);
+            chain.set(2 * c, 2 * c + 1, 1);
+            chain.set(2 * c + 1, 2 * c, 1);
+            if(c > 0)
+                chain.set(2 * c - 1, 2 * c, 1);
+        }
+        assertForwardBackward(disjoint.freeze());
+        assertForwardBackward(chain.freeze());
+    }
+
+    @Test
+    public void topologicalOrder() {
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        for(int v = 0; v < 500; v++) {
+            graph.add(v);
+            if(v > 0)
+                graph.set(v / 2, v, 1);
+            if(v > 3)
+                graph.set(v - 3, v, 1);
+        }
+
+        TopologicalOrder<Integer> order = graph.topologicalOrder();
+        assertTrue(order.isAcyclic());
+        assertEquals(Arrays.asList(), order.cycle());
+        List<Integer> vertices = order.order();
+        assertEquals(500, vertices.size());
+        for(int v = 0; v < 500; v++) {
+            for(int w : graph.targets(v).keySet())
+                assertTrue(vertices.indexOf(v) < vertices.indexOf(w));
+        }
+    }
+
+    @Test
+    public void cycle() {
+        CsrGraph<Character> graph = sample();
+        TopologicalOrder<Character> order = graph.topologicalOrder();
+        assertFalse(order.isAcyclic());
+        assertNull(order.order());
+
+        List<Character> cycle = order.cycle();
+        assertFalse(cycle.isEmpty());
+        for(int i = 0; i < cycle.size(); i++) {
+            Character next = cycle.get((i + 1) % cycle.size());
+            assertTrue(graph.targets(cycle.get(i)).containsKey(next));
+        }
+
+        AdjListGraph<Character> loop = new AdjListGraph<>();
+        loop.set('x', 'y', 1);
+        loop.set('y', 'y', 1);
+        assertEquals(Arrays.asList('y'), loop.topologicalOrder().cycle());
+    }
+}
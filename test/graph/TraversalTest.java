@@ -0,0 +1,154 @@
+package graph;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+/**
+ * Tests for Traversal.
+ */
+public class TraversalTest {
+
+    // Testing strategy
+
+    // iterators:   dfs, bfs, from a vertex, whole graph, exhausted iterator
+    // visitor:     pre, edge and post order, SKIP_SUBTREE on a vertex and on an edge, STOP
+    // reuse:       same traversal on several graphs and searches
+
+    /**
+     * 0 -> 1 -> 3, 0 -> 2 -> 3, 3 -> 0, 4 -> 5
+     */
+    private static CsrGraph<Integer> diamond() {
+        AdjListGraph<Integer> graph = new AdjListGraph<>();
+        for(int v = 0; v < 6; v++)
+            graph.add(v);
+        graph.set(0, 1, 1);
+        graph.set(0, 2, 1);
+        graph.set(1, 3, 1);
+        graph.set(2, 3, 1);
+        graph.set(3, 0, 1);
+        graph.set(4, 5, 1);
+        return graph.freeze();
+    }
+
+    private static List<Integer> labels(CsrGraph<Integer> graph, PrimitiveIterator.OfInt ids) {
+        List<Integer> labels = new ArrayList<>();
+        while(ids.hasNext())
+            labels.add(graph.index().label(ids.nextInt()));
+        return labels;
+    }
+
+    private static int id(CsrGraph<Integer> graph, int label) {
+        return graph.index().id(label);
+    }
+
+    @Test
+    public void iterators() {
+        CsrGraph<Integer> graph = diamond();
+        Traversal traversal = new Traversal();
+
+        List<Integer> expected = new ArrayList<>();
+        graph.dfs(0, expected::add);
+        assertEquals(expected, labels(graph, traversal.dfs(graph, id(graph, 0))));
+        assertEquals(Arrays.asList(0, 1, 3, 2), expected);
+
+        assertEquals(Arrays.asList(0, 1, 2, 3), labels(graph, traversal.bfs(graph, id(graph, 0))));
+        assertEquals(Arrays.asList(4, 5), labels(graph, traversal.bfs(graph, id(graph, 4))));
+        assertFalse(traversal.visited(id(graph, 0)));
+
+        assertEquals(6, labels(graph, traversal.dfs(graph)).size());
+        assertEquals(6, labels(graph, traversal.bfs(graph)).size());
+    }
+
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void exhausted() {
+        CsrGraph<Integer> graph = diamond();
+        PrimitiveIterator.OfInt ids = new Traversal().bfs(graph, id(graph, 5));
+        ids.nextInt();
+        ids.nextInt();
+    }
+
+    @Test
+    public void visitorOrder() {
+        CsrGraph<Integer> graph = diamond();
+        StringBuilder events = new StringBuilder();
+        boolean completed = new Traversal().dfs(graph, id(graph, 0), new Traversal.Visitor() {
+            @Override
+            public Traversal.Action preVisit(int vertex) {
+                events.append('(').append(graph.index().label(vertex));
+                return Traversal.Action.CONTINUE;
+            }
+
+            @Override
+            public Traversal.Action edge(int source, int target, int edge) {
+                events.append('-');
+                return Traversal.Action.CONTINUE;
+            }
+
+            @Override
+            public Traversal.Action postVisit(int vertex) {
+                events.append(')');
+                return Traversal.Action.CONTINUE;
+            }
+        });
+        assertTrue(completed);
+        assertEquals("(0-(1-(3-))-(2-))", events.toString());
+    }
+
+    @Test
+    public void skipAndStop() {
+        CsrGraph<Integer> graph = diamond();
+        Traversal traversal = new Traversal();
+        int one = id(graph, 1);
+        int three = id(graph, 3);
+
+        // skipping 1 reaches 3 through 2 only
+        List<Integer> visited = new ArrayList<>();
+        assertTrue(traversal.bfs(graph, id(graph, 0), new Traversal.Visitor() {
+            @Override
+            public Traversal.Action preVisit(int vertex) {
+                visited.add(graph.index().label(vertex));
+                return vertex == one ? Traversal.Action.SKIP_SUBTREE : Traversal.Action.CONTINUE;
+            }
+        }));
+        assertEquals(Arrays.asList(0, 1, 2, 3), visited);
+
+        // skipping every edge to 3 never reaches it
+        assertTrue(traversal.dfs(graph, id(graph, 0), new Traversal.Visitor() {
+            @Override
+            public Traversal.Action edge(int source, int target, int edge) {
+                return target == three ? Traversal.Action.SKIP_SUBTREE : Traversal.Action.CONTINUE;
+            }
+        }));
+        assertTrue(traversal.visited(id(graph, 2)));
+        assertFalse(traversal.visited(three));
+
+        visited.clear();
+        assertFalse(traversal.dfs(graph, id(graph, 0), new Traversal.Visitor() {
+            @Override
+            public Traversal.Action preVisit(int vertex) {
+                visited.add(graph.index().label(vertex));
+                return vertex == three ? Traversal.Action.STOP : Traversal.Action.CONTINUE;
+            }
+        }));
+        assertEquals(Arrays.asList(0, 1, 3), visited);
+        assertFalse(traversal.visited(id(graph, 2)));
+    }
+
+    @Test
+    public void reuse() {
+        Traversal traversal = new Traversal(1);
+        CsrGraph<Integer> small = diamond();
+        CsrGraph<Integer> large = LandmarkIndexTest.grid(30, 1).freeze();
+        for(int i = 0; i < 3; i++) {
+            assertEquals(4, labels(small, traversal.dfs(small, id(small, 0))).size());
+            assertEquals(900, labels(large, traversal.bfs(large, 0)).size());
+            assertEquals(900, labels(large, traversal.dfs(large)).size());
+        }
+    }
+}